@@ -0,0 +1,281 @@
+package com.hyd.dao;
+
+import com.hyd.dao.database.commandbuilder.Command;
+import com.hyd.dao.log.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 异步执行数据库操作的 DAO，所有方法都立即返回 {@link CompletableFuture}。
+ * <p/>
+ * 每个数据源有自己的线程池（隔离舱），线程数与该数据源连接池的最大连接数一致，所以一个数据库变慢时
+ * 只会占满它自己的线程，不会影响其他数据源，也不会占用调用者的线程。等待执行的任务超过队列容量时，
+ * 返回的 future 会以 {@link RejectedExecutionException} 失败。
+ * <p/>
+ * 操作在线程池的线程中执行，不属于调用者当前的事务。
+ * <p/>
+ * 本对象由 {@link DataSources#getAsyncDAO(String)} 创建，是线程安全的。
+ *
+ * @author yiding.he
+ */
+public class AsyncDAO {
+
+    private static final Logger LOG = Logger.getLogger(AsyncDAO.class);
+
+    /**
+     * 无法获得连接池大小时使用的线程数
+     */
+    public static final int DEFAULT_POOL_SIZE = 8;
+
+    /**
+     * 每个线程最多可以排队的任务数
+     */
+    public static final int QUEUE_SIZE_PER_THREAD = 1000;
+
+    // 常见连接池获取最大连接数的方法：DBCP2、HikariCP、Druid/Tomcat JDBC
+    private static final String[] POOL_SIZE_METHODS = {"getMaxTotal", "getMaximumPoolSize", "getMaxActive"};
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final DAO dao;
+
+    private final ThreadPoolExecutor executor;
+
+    AsyncDAO(DAO dao, int poolSize) {
+        this.dao = dao;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(poolSize * QUEUE_SIZE_PER_THREAD), r -> {
+            Thread thread = new Thread(r, "dao-async-" + dao.getDataSourceName() + "-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 根据连接池的最大连接数决定线程数
+     *
+     * @param dataSource 数据源
+     *
+     * @return 线程数。如果无法获得连接池大小，则返回 {@link #DEFAULT_POOL_SIZE}
+     */
+    static int getPoolSize(Object dataSource) {
+        for (String methodName : POOL_SIZE_METHODS) {
+            try {
+                Object size = dataSource.getClass().getMethod(methodName).invoke(dataSource);
+                if (size instanceof Integer && (Integer) size > 0) {
+                    return (Integer) size;
+                }
+            } catch (Exception e) {
+                // 不是这种连接池，继续尝试
+            }
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+
+    /**
+     * @return 同步执行的 DAO 对象
+     */
+    public DAO getDAO() {
+        return dao;
+    }
+
+    public String getDataSourceName() {
+        return dao.getDataSourceName();
+    }
+
+    /**
+     * @return 线程池大小，即同时执行的操作数上限
+     */
+    public int getPoolSize() {
+        return executor.getMaximumPoolSize();
+    }
+
+    /**
+     * 在本数据源的线程池中执行任意操作
+     *
+     * @param action 要执行的操作
+     *
+     * @return 操作的结果
+     */
+    public <T> CompletableFuture<T> submit(Function<DAO, T> action) {
+        try {
+            return CompletableFuture.supplyAsync(() -> action.apply(dao), executor);
+        } catch (RejectedExecutionException e) {
+            LOG.error("Async task rejected for data source '" + getDataSourceName() + "'");
+            CompletableFuture<T> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
+
+    /**
+     * 关闭线程池，已经提交的操作会继续执行完
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /////////////////// QUERY //////////////////////
+
+    public CompletableFuture<List<Row>> query(String sql, Object... params) {
+        return submit(dao -> dao.query(sql, params));
+    }
+
+    public <T> CompletableFuture<List<T>> query(Class<T> clazz, String sql, Object... params) {
+        return submit(dao -> dao.query(clazz, sql, params));
+    }
+
+    public CompletableFuture<List<Row>> query(Command command) {
+        return submit(dao -> dao.query(command));
+    }
+
+    public <T> CompletableFuture<List<T>> query(Class<T> clazz, Command command) {
+        return submit(dao -> dao.query(clazz, command));
+    }
+
+    public CompletableFuture<List<Row>> query(SQL.Generatable generatable) {
+        return submit(dao -> dao.query(generatable));
+    }
+
+    public <T> CompletableFuture<List<T>> query(Class<T> clazz, SQL.Generatable generatable) {
+        return submit(dao -> dao.query(clazz, generatable));
+    }
+
+    public CompletableFuture<Row> queryFirst(String sql, Object... params) {
+        return submit(dao -> dao.queryFirst(sql, params));
+    }
+
+    public <T> CompletableFuture<T> queryFirst(Class<T> clazz, String sql, Object... params) {
+        return submit(dao -> dao.queryFirst(clazz, sql, params));
+    }
+
+    public CompletableFuture<Page<Row>> queryPage(String sql, int pageSize, int pageIndex, Object... params) {
+        return submit(dao -> dao.queryPage(sql, pageSize, pageIndex, params));
+    }
+
+    public <T> CompletableFuture<Page<T>> queryPage(
+            Class<T> clazz, String sql, int pageSize, int pageIndex, Object... params) {
+        return submit(dao -> dao.queryPage(clazz, sql, pageSize, pageIndex, params));
+    }
+
+    public CompletableFuture<Integer> count(String sql, Object... params) {
+        return submit(dao -> dao.count(sql, params));
+    }
+
+    /**
+     * 同时执行多个查询，每个查询使用独立的连接，全部完成后合并结果
+     *
+     * @param commands 查询命令
+     *
+     * @return 查询结果，顺序与 commands 一致。任何一个查询失败时，返回的 future 也会失败
+     */
+    public CompletableFuture<List<List<Row>>> queryAll(List<Command> commands) {
+        return queryAll(Row.class, commands);
+    }
+
+    /**
+     * 同时执行多个查询，每个查询使用独立的连接，全部完成后合并结果
+     *
+     * @param clazz    查询结果包装类
+     * @param commands 查询命令
+     *
+     * @return 查询结果，顺序与 commands 一致。任何一个查询失败时，返回的 future 也会失败
+     */
+    public <T> CompletableFuture<List<List<T>>> queryAll(Class<T> clazz, List<Command> commands) {
+        Class<T> wrappingClass = clazz == Row.class ? null : clazz;
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>(commands.size());
+        for (Command command : commands) {
+            futures.add(submit(dao -> dao.query(wrappingClass, command)));
+        }
+        return joinAll(futures);
+    }
+
+    /**
+     * 等待所有 future 完成并按顺序合并结果
+     *
+     * @param futures 要等待的 future
+     *
+     * @return 所有结果。任何一个 future 失败时，返回的 future 也会失败
+     */
+    public static <T> CompletableFuture<List<T>> joinAll(List<CompletableFuture<T>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(v -> futures.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+    }
+
+    /////////////////// FIND //////////////////////
+
+    public <T> CompletableFuture<T> find(Class<T> clazz, Object key) {
+        return submit(dao -> dao.find(clazz, key));
+    }
+
+    public <T> CompletableFuture<T> find(Class<T> clazz, String tableName, Object key) {
+        return submit(dao -> dao.find(clazz, tableName, key));
+    }
+
+    /////////////////// EXECUTE //////////////////////
+
+    public CompletableFuture<Integer> execute(String sql, Object... params) {
+        return submit(dao -> dao.execute(sql, params));
+    }
+
+    public CompletableFuture<Integer> execute(Command command) {
+        return submit(dao -> dao.execute(command));
+    }
+
+    public CompletableFuture<Integer> execute(SQL.Generatable generatable) {
+        return submit(dao -> dao.execute(generatable));
+    }
+
+    public CompletableFuture<Integer> execute(BatchCommand command) {
+        return submit(dao -> dao.execute(command));
+    }
+
+    public CompletableFuture<Void> insert(Object object, String tableName) {
+        return submit(dao -> {
+            dao.insert(object, tableName);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> insert(List objects, String tableName) {
+        return submit(dao -> {
+            dao.insert(objects, tableName);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> insert(List objects, String tableName, InsertMode mode) {
+        return submit(dao -> {
+            dao.insert(objects, tableName, mode);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> upsert(Object object, String tableName) {
+        return submit(dao -> {
+            dao.upsert(object, tableName);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> upsertList(List objects, String tableName) {
+        return submit(dao -> {
+            dao.upsertList(objects, tableName);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Integer> update(Object obj, String tableName) {
+        return submit(dao -> dao.update(obj, tableName));
+    }
+
+    public CompletableFuture<Integer> updateList(List objects, String tableName, boolean nonNullOnly) {
+        return submit(dao -> dao.updateList(objects, tableName, nonNullOnly));
+    }
+}
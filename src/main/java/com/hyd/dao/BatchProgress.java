@@ -0,0 +1,75 @@
+package com.hyd.dao;
+
+/**
+ * 流式批处理的进度，每执行完一批后通过 {@link IteratorBatchCommand.ProgressListener} 通知
+ *
+ * @author yiding.he
+ */
+public class BatchProgress {
+
+    private final int chunk;
+
+    private final int chunkRows;
+
+    private final long chunkNanos;
+
+    private final long totalRows;
+
+    private final long totalNanos;
+
+    public BatchProgress(int chunk, int chunkRows, long chunkNanos, long totalRows, long totalNanos) {
+        this.chunk = chunk;
+        this.chunkRows = chunkRows;
+        this.chunkNanos = chunkNanos;
+        this.totalRows = totalRows;
+        this.totalNanos = totalNanos;
+    }
+
+    /**
+     * @return 批次序号，从 1 开始
+     */
+    public int getChunk() {
+        return chunk;
+    }
+
+    /**
+     * @return 本批的参数组数
+     */
+    public int getChunkRows() {
+        return chunkRows;
+    }
+
+    /**
+     * @return 本批耗时（纳秒），包括读取参数和执行语句的时间
+     */
+    public long getChunkNanos() {
+        return chunkNanos;
+    }
+
+    /**
+     * @return 到目前为止处理的参数组总数
+     */
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    /**
+     * @return 到目前为止的总耗时（纳秒）
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return 到目前为止的平均吞吐量（每秒参数组数）
+     */
+    public double getRowsPerSecond() {
+        return totalNanos <= 0 ? 0 : totalRows * 1000000000.0 / totalNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchProgress{chunk=" + chunk + ", chunkRows=" + chunkRows + ", chunkNanos=" + chunkNanos +
+                ", totalRows=" + totalRows + ", totalNanos=" + totalNanos + '}';
+    }
+}
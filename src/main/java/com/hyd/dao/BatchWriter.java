@@ -0,0 +1,376 @@
+package com.hyd.dao;
+
+import com.hyd.dao.database.ExecutorFactory;
+import com.hyd.dao.database.executor.Executor;
+import com.hyd.dao.log.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 异步批量写入器。任意线程都可以调用 {@link #write(Object)} 提交记录，记录放入有界队列后，
+ * 由专门的写入线程合并为 JDBC 批处理执行：积累到批大小，或者一批中的第一条记录等待超过指定时间时写入。
+ * <p/>
+ * 每个写入线程独占一个数据库连接（自动提交），语句在连接上只预编译一次。写入不属于调用者的事务，
+ * 写入失败的一批记录交给 {@link BatchWriterOptions#errorHandler} 处理，不会抛给调用者。
+ * <p/>
+ * 用完之后必须调用 {@link #close()}，它会停止接收新记录，等待队列中的记录全部写完再释放连接。
+ * <p/>
+ * 本对象由 {@link DAO#createBatchWriter(String, BatchWriterOptions)} 或
+ * {@link DAO#createCommandBatchWriter(String, BatchWriterOptions)} 创建，是线程安全的。
+ *
+ * @author yiding.he
+ */
+public class BatchWriter implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(BatchWriter.class);
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private final ExecutorFactory executorFactory;
+
+    private final String tableName;     // 按表插入时不为空
+
+    private final String command;       // 按语句执行时不为空
+
+    private final BatchWriterOptions options;
+
+    private final Runnable invalidation;
+
+    private final BlockingQueue<Object> queue;
+
+    private final ExecutorService pool;
+
+    private final long startNanos = System.nanoTime();
+
+    private final AtomicLong writtenRows = new AtomicLong();
+
+    private final AtomicLong failedRows = new AtomicLong();
+
+    private final AtomicLong flushCount = new AtomicLong();
+
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+
+    private volatile long lastFlushNanos;
+
+    private volatile boolean closed;
+
+    BatchWriter(ExecutorFactory executorFactory, String tableName, String command,
+                BatchWriterOptions options, Runnable invalidation) {
+        this.executorFactory = executorFactory;
+        this.tableName = tableName;
+        this.command = command;
+        this.options = options;
+        this.invalidation = invalidation;
+        this.queue = new ArrayBlockingQueue<>(options.getQueueCapacity());
+
+        String name = "dao-batch-writer-" + (tableName != null ? tableName : "command") + "-";
+        this.pool = Executors.newFixedThreadPool(options.getWriters(), r -> {
+            Thread thread = new Thread(r, name + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (int i = 0; i < options.getWriters(); i++) {
+            this.pool.submit(this::writeLoop);
+        }
+    }
+
+    /**
+     * 提交一条记录。队列满时根据选项等待或者抛出 {@link RejectedExecutionException}
+     *
+     * @param row 按表插入时为 pojo 或 Map 对象；按语句执行时为参数 List 或数组
+     *
+     * @throws IllegalStateException 如果本对象已经关闭
+     */
+    public void write(Object row) {
+        Object item = toItem(row);
+
+        if (!options.isBlockWhenFull()) {
+            checkOpen();
+            if (!queue.offer(item)) {
+                throw new RejectedExecutionException("Batch writer queue is full (" + options.getQueueCapacity() + ")");
+            }
+            return;
+        }
+
+        try {
+            while (true) {
+                checkOpen();
+                if (queue.offer(item, POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DAOException("Interrupted while waiting for batch writer queue", e);
+        }
+    }
+
+    /**
+     * 尝试提交一条记录，队列满时不等待
+     *
+     * @param row 按表插入时为 pojo 或 Map 对象；按语句执行时为参数 List 或数组
+     *
+     * @return 是否提交成功
+     */
+    public boolean tryWrite(Object row) {
+        Object item = toItem(row);
+        checkOpen();
+        return queue.offer(item);
+    }
+
+    private Object toItem(Object row) {
+        if (row == null) {
+            throw new IllegalArgumentException("Row cannot be null");
+        }
+        if (command != null && row instanceof Object[]) {
+            return Arrays.asList((Object[]) row);
+        }
+        if (command != null && !(row instanceof List)) {
+            throw new IllegalArgumentException("Parameters must be List or array: " + row.getClass());
+        }
+        return row;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Batch writer is closed");
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////
+
+    private void writeLoop() {
+        List<Object> buffer = new ArrayList<>(options.getBatchSize());
+        Executor executor = null;
+
+        try {
+            while (true) {
+                Object first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (closed && queue.isEmpty()) {
+                        break;
+                    }
+                    continue;
+                }
+
+                buffer.add(first);
+                fillBuffer(buffer);
+                executor = flush(executor, buffer);
+                buffer.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (!buffer.isEmpty()) {
+                executor = flush(executor, buffer);
+            }
+        } finally {
+            if (executor != null) {
+                executor.close();
+            }
+        }
+    }
+
+    // 收到第一条记录后，等待到批大小或者超过等待时间为止；关闭时不再等待
+    private void fillBuffer(List<Object> buffer) throws InterruptedException {
+        int batchSize = options.getBatchSize();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(options.getLingerMillis());
+
+        while (buffer.size() < batchSize) {
+            queue.drainTo(buffer, batchSize - buffer.size());
+
+            long remaining = deadline - System.nanoTime();
+            if (buffer.size() >= batchSize || remaining <= 0 || closed) {
+                return;
+            }
+
+            Object next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            buffer.add(next);
+        }
+    }
+
+    /**
+     * 写入一批记录
+     *
+     * @param executor 写入线程的 Executor 对象，为 null 时创建新的
+     * @param buffer   要写入的记录
+     *
+     * @return 可以继续使用的 Executor 对象。写入失败时连接状态不确定，返回 null
+     */
+    @SuppressWarnings("unchecked")
+    private Executor flush(Executor executor, List<Object> buffer) {
+        long start = System.nanoTime();
+        try {
+            if (executor == null) {
+                executor = executorFactory.getExecutor(true, true);
+            }
+
+            if (tableName != null) {
+                executor.insertList(buffer, tableName);
+            } else {
+                List<List<Object>> params = new ArrayList<>(buffer.size());
+                buffer.forEach(row -> params.add((List<Object>) row));
+                executor.execute(new BatchCommand(command, params));
+            }
+
+            writtenRows.addAndGet(buffer.size());
+            return executor;
+        } catch (Throwable e) {
+            failedRows.addAndGet(buffer.size());
+            handleError(buffer, e);
+
+            if (executor != null) {
+                executor.close();
+            }
+            return null;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            lastFlushNanos = elapsed;
+            totalFlushNanos.addAndGet(elapsed);
+            flushCount.incrementAndGet();
+            invalidation.run();
+        }
+    }
+
+    private void handleError(List<Object> buffer, Throwable e) {
+        LOG.error("Batch writer failed writing " + buffer.size() + " rows to " +
+                (tableName != null ? tableName : command), e);
+
+        if (options.getErrorHandler() != null) {
+            try {
+                options.getErrorHandler().accept(new ArrayList<>(buffer), e);
+            } catch (Throwable t) {
+                LOG.error("Batch writer error handler failed", t);
+            }
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////
+
+    /**
+     * 停止接收新记录，等待队列中的记录全部写完，然后释放数据库连接
+     */
+    @Override
+    public void close() {
+        try {
+            close(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 停止接收新记录，最多等待指定的时间让队列中的记录写完
+     *
+     * @param timeout 超时时间
+     * @param unit    超时时间单位
+     *
+     * @return 是否全部写完。如果超时，写入线程会被中断，队列中剩余的记录被丢弃
+     *
+     * @throws InterruptedException 如果等待时被中断
+     */
+    public boolean close(long timeout, TimeUnit unit) throws InterruptedException {
+        closed = true;
+        pool.shutdown();
+
+        if (pool.awaitTermination(timeout, unit)) {
+            // 关闭前一刻提交的记录可能在写入线程退出后才放入队列
+            List<Object> rest = new ArrayList<>();
+            queue.drainTo(rest);
+            if (!rest.isEmpty()) {
+                Executor executor = flush(null, rest);
+                if (executor != null) {
+                    executor.close();
+                }
+            }
+            return true;
+        }
+
+        pool.shutdownNow();
+        int dropped = queue.size();
+        queue.clear();
+        if (dropped > 0) {
+            failedRows.addAndGet(dropped);
+            LOG.error("Batch writer closed with " + dropped + " rows not written");
+        }
+        return false;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    ////////////////////////////////////////////////////////////////
+
+    public BatchWriterOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * @return 队列中等待写入的记录数
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * @return 已经写入的记录数
+     */
+    public long getWrittenRows() {
+        return writtenRows.get();
+    }
+
+    /**
+     * @return 写入失败或被丢弃的记录数
+     */
+    public long getFailedRows() {
+        return failedRows.get();
+    }
+
+    /**
+     * @return 执行过的批数
+     */
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    /**
+     * @return 最近一批的写入耗时（纳秒）
+     */
+    public long getLastFlushNanos() {
+        return lastFlushNanos;
+    }
+
+    /**
+     * @return 平均每批的写入耗时（纳秒）
+     */
+    public long getAverageFlushNanos() {
+        long count = flushCount.get();
+        return count == 0 ? 0 : totalFlushNanos.get() / count;
+    }
+
+    /**
+     * @return 从创建到现在平均每秒写入的记录数
+     */
+    public double getRowsPerSecond() {
+        long elapsed = System.nanoTime() - startNanos;
+        return elapsed <= 0 ? 0 : writtenRows.get() * 1000000000.0 / elapsed;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchWriter{target=" + (tableName != null ? tableName : command) +
+                ", queueDepth=" + getQueueDepth() + ", writtenRows=" + getWrittenRows() +
+                ", failedRows=" + getFailedRows() + ", flushCount=" + getFlushCount() + '}';
+    }
+}
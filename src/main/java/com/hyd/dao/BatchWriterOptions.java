@@ -0,0 +1,164 @@
+package com.hyd.dao;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * {@link BatchWriter} 的选项，参考 {@link DAO#createBatchWriter(String, BatchWriterOptions)}
+ *
+ * @author yiding.he
+ */
+public class BatchWriterOptions {
+
+    /**
+     * 缺省的批大小
+     */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    /**
+     * 缺省的等待时间（毫秒）
+     */
+    public static final long DEFAULT_LINGER_MILLIS = 50;
+
+    /**
+     * 缺省的队列容量
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 10000;
+
+    /**
+     * 缺省选项：一个写入线程，队列满时阻塞
+     */
+    public static final BatchWriterOptions DEFAULT = new BatchWriterOptions(
+            DEFAULT_BATCH_SIZE, DEFAULT_LINGER_MILLIS, DEFAULT_QUEUE_CAPACITY, 1, true, null);
+
+    private final int batchSize;
+
+    private final long lingerMillis;
+
+    private final int queueCapacity;
+
+    private final int writers;
+
+    private final boolean blockWhenFull;
+
+    private final BiConsumer<List<Object>, Throwable> errorHandler;
+
+    private BatchWriterOptions(int batchSize, long lingerMillis, int queueCapacity, int writers,
+                               boolean blockWhenFull, BiConsumer<List<Object>, Throwable> errorHandler) {
+        this.batchSize = batchSize;
+        this.lingerMillis = lingerMillis;
+        this.queueCapacity = queueCapacity;
+        this.writers = writers;
+        this.blockWhenFull = blockWhenFull;
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * 指定批大小。积累的记录达到批大小时立即写入
+     *
+     * @param batchSize 每批最多写入的记录数
+     *
+     * @return 新的选项
+     */
+    public BatchWriterOptions batchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Invalid batch size " + batchSize);
+        }
+        return new BatchWriterOptions(batchSize, lingerMillis, queueCapacity, writers, blockWhenFull, errorHandler);
+    }
+
+    /**
+     * 指定等待时间。收到一批中的第一条记录后最多等待这么久，即使没有达到批大小也会写入
+     *
+     * @param lingerMillis 等待时间（毫秒），0 表示有多少写多少
+     *
+     * @return 新的选项
+     */
+    public BatchWriterOptions lingerMillis(long lingerMillis) {
+        if (lingerMillis < 0) {
+            throw new IllegalArgumentException("Invalid linger time " + lingerMillis);
+        }
+        return new BatchWriterOptions(batchSize, lingerMillis, queueCapacity, writers, blockWhenFull, errorHandler);
+    }
+
+    /**
+     * 指定队列容量，即尚未写入的记录数上限
+     *
+     * @param queueCapacity 队列容量
+     *
+     * @return 新的选项
+     */
+    public BatchWriterOptions queueCapacity(int queueCapacity) {
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Invalid queue capacity " + queueCapacity);
+        }
+        return new BatchWriterOptions(batchSize, lingerMillis, queueCapacity, writers, blockWhenFull, errorHandler);
+    }
+
+    /**
+     * 指定写入线程数。每个写入线程独占一个数据库连接，本值不能超过连接池的最大连接数
+     *
+     * @param writers 写入线程数
+     *
+     * @return 新的选项
+     */
+    public BatchWriterOptions writers(int writers) {
+        if (writers <= 0) {
+            throw new IllegalArgumentException("Invalid writer count " + writers);
+        }
+        return new BatchWriterOptions(batchSize, lingerMillis, queueCapacity, writers, blockWhenFull, errorHandler);
+    }
+
+    /**
+     * 指定队列满时的处理方式
+     *
+     * @param blockWhenFull 为 true 时 {@link BatchWriter#write(Object)} 等待队列有空位，
+     *                      为 false 时抛出 {@link java.util.concurrent.RejectedExecutionException}
+     *
+     * @return 新的选项
+     */
+    public BatchWriterOptions blockWhenFull(boolean blockWhenFull) {
+        return new BatchWriterOptions(batchSize, lingerMillis, queueCapacity, writers, blockWhenFull, errorHandler);
+    }
+
+    /**
+     * 指定写入失败时的处理方法。缺省只记录日志，失败的记录被丢弃
+     *
+     * @param errorHandler 处理方法，参数为写入失败的一批记录和异常，在写入线程中调用
+     *
+     * @return 新的选项
+     */
+    public BatchWriterOptions errorHandler(BiConsumer<List<Object>, Throwable> errorHandler) {
+        return new BatchWriterOptions(batchSize, lingerMillis, queueCapacity, writers, blockWhenFull, errorHandler);
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public long getLingerMillis() {
+        return lingerMillis;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public int getWriters() {
+        return writers;
+    }
+
+    public boolean isBlockWhenFull() {
+        return blockWhenFull;
+    }
+
+    public BiConsumer<List<Object>, Throwable> getErrorHandler() {
+        return errorHandler;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchWriterOptions{batchSize=" + batchSize + ", lingerMillis=" + lingerMillis +
+                ", queueCapacity=" + queueCapacity + ", writers=" + writers + ", blockWhenFull=" + blockWhenFull + '}';
+    }
+}
@@ -0,0 +1,565 @@
+package com.hyd.dao;
+
+import com.hyd.dao.database.RowSchema;
+import com.hyd.dao.util.TypeUtil;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Date;
+
+/**
+ * 按列存储的查询结果，适用于大量数据的统计分析类查询。
+ * <p/>
+ * 每个字段的值保存在一个数组中：整数保存为 int[] 或 long[]，浮点数保存为 double[]，
+ * 有小数位或者超过 18 位的定点数（DECIMAL/NUMERIC）保存为 BigDecimal[] 以免丢失精度，
+ * 字符串保存为 String[]，日期保存为毫秒数 long[]；空值用单独的 BitSet 标记。
+ * 读取时直接调用 ResultSet 的 getInt()/getLong()/getDouble() 等方法，除定点数外不会为每个值创建
+ * BigDecimal 等对象。
+ *
+ * @author yiding.he
+ */
+public class ColumnarResult {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * 字段值的存储方式
+     */
+    public enum ColumnType {
+        INT, LONG, DOUBLE, DECIMAL, STRING, DATE, OBJECT
+    }
+
+    private final Column[] columns;
+
+    private int rowCount;
+
+    private ColumnarResult(Column[] columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * 读取 ResultSet 中所有的记录
+     *
+     * @param rs 查询结果
+     *
+     * @return 按列存储的查询结果
+     *
+     * @throws SQLException 如果读取失败
+     * @throws IOException  如果读取 LOB 字段失败
+     */
+    public static ColumnarResult read(ResultSet rs) throws SQLException, IOException {
+        RowSchema schema = RowSchema.of(rs);
+        ResultSetMetaData meta = rs.getMetaData();
+
+        int[] indexes = new int[schema.getColumnCount()];
+        Column[] columns = new Column[schema.getColumnCount()];
+        boolean[] unconstrained = new boolean[schema.getColumnCount()];
+        int count = 0;
+
+        for (int i = 0; i < schema.getColumnCount(); i++) {
+            String label = schema.getLabel(i);
+            if (label != null) {   // 分页字段不会被读取
+                int columnType = schema.getColumnType(i);
+                int precision = meta.getPrecision(i + 1);
+                int scale = meta.getScale(i + 1);
+                columns[count] = Column.create(label, columnType, getColumnType(columnType, precision, scale));
+                unconstrained[count] = isUnconstrainedNumber(columnType, precision, scale);
+                indexes[count] = i + 1;
+                count++;
+            }
+        }
+
+        ColumnarResult result = new ColumnarResult(Arrays.copyOf(columns, count));
+        int capacity = INITIAL_CAPACITY;
+        result.ensureCapacity(capacity);
+
+        while (rs.next()) {
+            if (result.rowCount == capacity) {
+                capacity *= 2;
+                result.ensureCapacity(capacity);
+            }
+
+            for (int i = 0; i < count; i++) {
+                result.columns[i].read(rs, indexes[i], result.rowCount);
+            }
+            result.rowCount++;
+        }
+
+        result.ensureCapacity(result.rowCount);
+
+        // 不指定精度的数字字段，如果所有的值都是 long 范围内的整数，则按整数保存
+        for (int i = 0; i < count; i++) {
+            if (unconstrained[i]) {
+                LongColumn longColumn = ((DecimalColumn) result.columns[i]).toLongColumn();
+                if (longColumn != null) {
+                    result.columns[i] = longColumn;
+                }
+            }
+        }
+        return result;
+    }
+
+    // Oracle 不指定精度的 NUMBER 字段（包括 count(*) 等计算结果）的精度为 0，小数位为 0 或 -127
+    private static boolean isUnconstrainedNumber(int columnType, int precision, int scale) {
+        return (columnType == Types.NUMERIC || columnType == Types.DECIMAL)
+                && precision == 0 && (scale == 0 || scale == -127);
+    }
+
+    private static ColumnType getColumnType(int columnType, int precision, int scale) {
+        switch (columnType) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+                return ColumnType.INT;
+            case Types.BIGINT:
+                return ColumnType.LONG;
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                // 不超过 18 位且没有小数位的字段（例如 Oracle 的 NUMBER(10)）当作整数，否则保存为 BigDecimal
+                return scale == 0 && precision > 0 && precision <= 18 ? ColumnType.LONG : ColumnType.DECIMAL;
+            case Types.FLOAT:
+            case Types.REAL:
+            case Types.DOUBLE:
+                return ColumnType.DOUBLE;
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+                return ColumnType.STRING;
+            case Types.DATE:
+            case Types.TIME:
+            case Types.TIMESTAMP:
+                return ColumnType.DATE;
+            default:
+                return ColumnType.OBJECT;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        for (Column column : columns) {
+            column.resize(capacity);
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    public Column[] getColumns() {
+        return columns.clone();
+    }
+
+    public Column getColumn(int index) {
+        return columns[index];
+    }
+
+    /**
+     * 根据字段名获取字段，字段名不分大小写
+     *
+     * @param name 字段名
+     *
+     * @return 字段
+     *
+     * @throws IllegalArgumentException 如果字段不存在
+     */
+    @SuppressWarnings("unchecked")
+    public <C extends Column> C getColumn(String name) {
+        for (Column column : columns) {
+            if (column.name.equalsIgnoreCase(name)) {
+                return (C) column;
+            }
+        }
+        throw new IllegalArgumentException("Column '" + name + "' not found");
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnarResult{columns=" + Arrays.toString(columns) + ", rowCount=" + rowCount + '}';
+    }
+
+    ////////////////////////////////////////////////////////////////
+
+    /**
+     * 一个字段的所有值
+     */
+    public abstract static class Column {
+
+        private final String name;
+
+        private final int sqlType;
+
+        private final ColumnType type;
+
+        protected final BitSet nulls = new BitSet();
+
+        private Column(String name, int sqlType, ColumnType type) {
+            this.name = name;
+            this.sqlType = sqlType;
+            this.type = type;
+        }
+
+        private static Column create(String name, int sqlType, ColumnType type) {
+            switch (type) {
+                case INT:
+                    return new IntColumn(name, sqlType);
+                case LONG:
+                    return new LongColumn(name, sqlType);
+                case DOUBLE:
+                    return new DoubleColumn(name, sqlType);
+                case DECIMAL:
+                    return new DecimalColumn(name, sqlType);
+                case STRING:
+                    return new StringColumn(name, sqlType);
+                case DATE:
+                    return new DateColumn(name, sqlType);
+                default:
+                    return new ObjectColumn(name, sqlType);
+            }
+        }
+
+        /**
+         * @return 字段名（小写）
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return 字段的 SQL 类型，参考 {@link java.sql.Types}
+         */
+        public int getSqlType() {
+            return sqlType;
+        }
+
+        public ColumnType getType() {
+            return type;
+        }
+
+        public boolean isNull(int row) {
+            return nulls.get(row);
+        }
+
+        /**
+         * 以对象方式获取值，基本类型的值会被装箱
+         *
+         * @param row 行号，从 0 开始
+         *
+         * @return 字段值，可能为 null
+         */
+        public abstract Object get(int row);
+
+        abstract void resize(int capacity);
+
+        abstract void read(ResultSet rs, int columnIndex, int row) throws SQLException, IOException;
+
+        @Override
+        public String toString() {
+            return name + ":" + type;
+        }
+    }
+
+    public static class IntColumn extends Column {
+
+        private int[] values = new int[0];
+
+        private IntColumn(String name, int sqlType) {
+            super(name, sqlType, ColumnType.INT);
+        }
+
+        public int getInt(int row) {
+            return values[row];
+        }
+
+        /**
+         * @return 字段值数组，长度等于记录数。值为 null 的位置为 0
+         */
+        public int[] getValues() {
+            return values;
+        }
+
+        @Override
+        public Object get(int row) {
+            return isNull(row) ? null : values[row];
+        }
+
+        @Override
+        void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+            values[row] = rs.getInt(columnIndex);
+            if (rs.wasNull()) {
+                nulls.set(row);
+            }
+        }
+    }
+
+    public static class LongColumn extends Column {
+
+        private long[] values = new long[0];
+
+        private LongColumn(String name, int sqlType) {
+            super(name, sqlType, ColumnType.LONG);
+        }
+
+        public long getLong(int row) {
+            return values[row];
+        }
+
+        /**
+         * @return 字段值数组，长度等于记录数。值为 null 的位置为 0
+         */
+        public long[] getValues() {
+            return values;
+        }
+
+        @Override
+        public Object get(int row) {
+            return isNull(row) ? null : values[row];
+        }
+
+        @Override
+        void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+            values[row] = rs.getLong(columnIndex);
+            if (rs.wasNull()) {
+                nulls.set(row);
+            }
+        }
+    }
+
+    public static class DoubleColumn extends Column {
+
+        private double[] values = new double[0];
+
+        private DoubleColumn(String name, int sqlType) {
+            super(name, sqlType, ColumnType.DOUBLE);
+        }
+
+        public double getDouble(int row) {
+            return values[row];
+        }
+
+        /**
+         * @return 字段值数组，长度等于记录数。值为 null 的位置为 0
+         */
+        public double[] getValues() {
+            return values;
+        }
+
+        @Override
+        public Object get(int row) {
+            return isNull(row) ? null : values[row];
+        }
+
+        @Override
+        void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+            values[row] = rs.getDouble(columnIndex);
+            if (rs.wasNull()) {
+                nulls.set(row);
+            }
+        }
+    }
+
+    /**
+     * 定点数字段，保存为 BigDecimal，不会丢失精度
+     */
+    public static class DecimalColumn extends Column {
+
+        private BigDecimal[] values = new BigDecimal[0];
+
+        private DecimalColumn(String name, int sqlType) {
+            super(name, sqlType, ColumnType.DECIMAL);
+        }
+
+        public BigDecimal getBigDecimal(int row) {
+            return values[row];
+        }
+
+        public BigDecimal[] getValues() {
+            return values;
+        }
+
+        @Override
+        public Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+            values[row] = rs.getBigDecimal(columnIndex);
+            if (values[row] == null) {
+                nulls.set(row);
+            }
+        }
+
+        // 如果所有的值都是 long 范围内的整数，则转换为 LongColumn，否则返回 null
+        private LongColumn toLongColumn() {
+            long[] longValues = new long[values.length];
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    try {
+                        longValues[i] = values[i].longValueExact();
+                    } catch (ArithmeticException e) {
+                        return null;
+                    }
+                }
+            }
+
+            LongColumn column = new LongColumn(getName(), getSqlType());
+            column.values = longValues;
+            column.nulls.or(nulls);
+            return column;
+        }
+    }
+
+    public static class StringColumn extends Column {
+
+        private String[] values = new String[0];
+
+        private StringColumn(String name, int sqlType) {
+            super(name, sqlType, ColumnType.STRING);
+        }
+
+        public String getString(int row) {
+            return values[row];
+        }
+
+        public String[] getValues() {
+            return values;
+        }
+
+        @Override
+        public Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+            values[row] = rs.getString(columnIndex);
+            if (values[row] == null) {
+                nulls.set(row);
+            }
+        }
+    }
+
+    /**
+     * 日期字段，保存为自 1970 年 1 月 1 日以来的毫秒数
+     */
+    public static class DateColumn extends Column {
+
+        private long[] values = new long[0];
+
+        private DateColumn(String name, int sqlType) {
+            super(name, sqlType, ColumnType.DATE);
+        }
+
+        public long getTime(int row) {
+            return values[row];
+        }
+
+        public Date getDate(int row) {
+            return isNull(row) ? null : new Date(values[row]);
+        }
+
+        /**
+         * @return 毫秒数数组，长度等于记录数。值为 null 的位置为 0
+         */
+        public long[] getValues() {
+            return values;
+        }
+
+        @Override
+        public Object get(int row) {
+            return getDate(row);
+        }
+
+        @Override
+        void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+            Timestamp timestamp = rs.getTimestamp(columnIndex);
+            if (timestamp == null) {
+                nulls.set(row);
+            } else {
+                values[row] = timestamp.getTime();
+            }
+        }
+    }
+
+    /**
+     * 其他类型的字段，值的转换方式与 {@link Row} 相同
+     */
+    public static class ObjectColumn extends Column {
+
+        private Object[] values = new Object[0];
+
+        private final TypeUtil.ValueConverter converter;
+
+        private ObjectColumn(String name, int sqlType) {
+            super(name, sqlType, ColumnType.OBJECT);
+            this.converter = TypeUtil.getValueConverter(sqlType);
+        }
+
+        public Object[] getValues() {
+            return values;
+        }
+
+        @Override
+        public Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        void read(ResultSet rs, int columnIndex, int row) throws SQLException, IOException {
+            values[row] = converter.convert(rs.getObject(columnIndex));
+            if (values[row] == null) {
+                nulls.set(row);
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.hyd.dao;
+
+/**
+ * 分页查询时获取总记录数的方式，参考 {@link Page#isTotalExact()}
+ *
+ * @author yiding.he
+ */
+public enum CountStrategy {
+
+    /**
+     * 每次执行 select count(*) 查询（缺省方式，与旧版本兼容）
+     */
+    EXACT,
+
+    /**
+     * 不查询总记录数，多读取一条记录来判断是否有下一页，参考 {@link Page#hasNext()}
+     */
+    NONE,
+
+    /**
+     * 查询结果在一段时间内缓存，相同的语句和参数不重复查询。缓存时间可以通过系统属性
+     * "dao.page.count.cache.ttl"（毫秒）指定，缺省为 60 秒。通过 DAO 执行的写操作不会使缓存失效，
+     * 所以在缓存时间内返回的总记录数可能与实际不符
+     */
+    CACHED,
+
+    /**
+     * 在分页查询语句中使用 count(*) over() 同时获取总记录数。数据库不支持时按 EXACT 处理
+     */
+    WINDOW,
+
+    /**
+     * 使用数据库的表统计信息估算总记录数。仅适用于没有条件的单表查询，其他情况按 EXACT 处理
+     */
+    ESTIMATE
+}
@@ -1,18 +1,22 @@
 package com.hyd.dao;
 
+import com.hyd.dao.cache.DataCache;
+import com.hyd.dao.cache.EntityCache;
+import com.hyd.dao.cache.QueryCache;
 import com.hyd.dao.database.ExecutorFactory;
 import com.hyd.dao.database.RowIterator;
 import com.hyd.dao.database.TransactionManager;
 import com.hyd.dao.database.commandbuilder.Command;
 import com.hyd.dao.database.executor.Executor;
+import com.hyd.dao.database.type.BeanMapper;
 import com.hyd.dao.log.Logger;
 import com.hyd.dao.snapshot.Snapshot;
 import com.hyd.dao.util.BeanUtil;
 import com.hyd.dao.util.Str;
 
-import java.math.BigDecimal;
 import java.util.*;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Main facade of hydrogen-dao.
@@ -346,9 +350,21 @@ public class DAO {
         }
 
         String fixedSql = fixSql(sql);
+        List<Object> paramList = Arrays.asList(params);
+        QueryCache queryCache = getQueryCache();
+
+        if (queryCache != null) {
+            return queryCache.get(dsName, fixedSql, paramList, clazz, startPosition, endPosition,
+                    () -> queryRange0(clazz, fixedSql, paramList, startPosition, endPosition));
+        }
+        return queryRange0(clazz, fixedSql, paramList, startPosition, endPosition);
+    }
+
+    private <T> List<T> queryRange0(
+            Class<T> clazz, String sql, List<Object> params, int startPosition, int endPosition) {
         Executor executor = getExecutor();
         try {
-            return executor.query(clazz, fixedSql, Arrays.asList(params), startPosition, endPosition);
+            return executor.query(clazz, sql, params, startPosition, endPosition);
         } finally {
             executor.finish();
         }
@@ -366,6 +382,17 @@ public class DAO {
         return queryPage(clazz, command.getStatement(), pageSize, pageIndex, command.getParams());
     }
 
+    public Page<Row> queryPage(
+            SQL.Generatable generatable, int pageSize, int pageIndex, CountStrategy countStrategy) {
+        return queryPage(Row.class, generatable, pageSize, pageIndex, countStrategy);
+    }
+
+    public <T> Page<T> queryPage(
+            Class<T> clazz, SQL.Generatable generatable, int pageSize, int pageIndex, CountStrategy countStrategy) {
+        Command command = generatable.toCommand();
+        return queryPage(clazz, countStrategy, command.getStatement(), pageSize, pageIndex, command.getParams());
+    }
+
     /**
      * 执行分页查询
      *
@@ -400,15 +427,151 @@ public class DAO {
     public <T> Page<T> queryPage(
             Class<T> wrappingClass, String sql,
             int pageSize, int pageIndex, Object... params) throws DAOException {
+        return queryPage(wrappingClass, CountStrategy.EXACT, sql, pageSize, pageIndex, params);
+    }
+
+    /**
+     * 执行分页查询，并指定获取总记录数的方式
+     *
+     * @param wrappingClass 查询结果包装类，为 null 时返回 Row 对象
+     * @param countStrategy 获取总记录数的方式
+     * @param sql           查询命令
+     * @param pageSize      页大小
+     * @param pageIndex     页号
+     * @param params        参数
+     *
+     * @return 查询结果
+     *
+     * @throws DAOException 如果发生数据库错误
+     */
+    public <T> Page<T> queryPage(
+            Class<T> wrappingClass, CountStrategy countStrategy, String sql,
+            int pageSize, int pageIndex, Object... params) throws DAOException {
         if (params.length == 1 && params[0] instanceof List) {
             List list = (List) params[0];
-            return queryPage(wrappingClass, sql, pageSize, pageIndex, list.toArray(new Object[list.size()]));
+            return queryPage(wrappingClass, countStrategy, sql, pageSize, pageIndex, list.toArray(new Object[list.size()]));
         }
 
         String fixedSql = fixSql(sql);
         Executor executor = getExecutor();
         try {
-            return executor.queryPage(wrappingClass, fixedSql, Arrays.asList(params), pageSize, pageIndex);
+            return executor.queryPage(wrappingClass, fixedSql, Arrays.asList(params), pageSize, pageIndex, countStrategy);
+        } finally {
+            executor.finish();
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////
+
+    public SeekPage<Row> querySeek(SQL.Select select, String orderKeys, int pageSize, String token) {
+        return querySeek(Row.class, select, orderKeys, pageSize, token);
+    }
+
+    /**
+     * 键集分页（seek 分页）查询。与 queryPage 不同，本方法不跳过前面的记录，而是根据上一页最后一条记录的
+     * 排序字段值生成条件（例如 "where id > ? order by id"），所以查询任何一页的代价都是相同的。
+     * <p/>
+     * 排序字段必须能够唯一确定记录的顺序（通常以主键结尾），不能为 null，并且要出现在查询结果中。
+     * 本方法会覆盖 select 中的 OrderBy。
+     *
+     * @param clazz     包装类，为 Row.class 时返回 Row 对象
+     * @param select    查询语句
+     * @param orderKeys 排序字段，格式与 order by 相同，例如 "create_time desc, id desc"
+     * @param pageSize  页大小
+     * @param token     上一页返回的 {@link SeekPage#getNextToken()}，查询第一页时为 null
+     *
+     * @return 查询结果和下一页的标记
+     *
+     * @throws DAOException 如果查询失败或者 token 不正确
+     */
+    @SuppressWarnings("unchecked")
+    public <T> SeekPage<T> querySeek(Class<T> clazz, SQL.Select select, String orderKeys, int pageSize, String token) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Invalid page size " + pageSize);
+        }
+
+        String[] keys = orderKeys.split(",");
+        String[] columns = new String[keys.length];
+        String[] labels = new String[keys.length];
+        boolean[] descending = new boolean[keys.length];
+
+        for (int i = 0; i < keys.length; i++) {
+            String[] parts = keys[i].trim().split("\\s+");
+            columns[i] = parts[0];
+            labels[i] = parts[0].substring(parts[0].lastIndexOf('.') + 1);
+            descending[i] = parts.length > 1 && parts[1].equalsIgnoreCase("desc");
+        }
+
+        Executor executor = getExecutor();
+        try {
+            Command command;
+            if (token == null) {
+                command = select.toCommand(null, null, orderKeys);
+            } else {
+                Object[] values = SeekToken.decode(orderKeys, columns.length, token);
+                List<Object> params = new ArrayList<>();
+                String condition = executor.getDialect().getSeekCondition(columns, descending, values, params);
+                command = select.toCommand(condition, params, orderKeys);
+            }
+
+            // 多读一条记录，用来判断是否有下一页
+            List<Row> rows = executor.query(null, fixSql(command.getStatement()), command.getParams(), 0, pageSize + 1);
+            boolean hasNext = rows.size() > pageSize;
+            if (hasNext) {
+                rows = rows.subList(0, pageSize);
+            }
+
+            String nextToken = null;
+            if (hasNext) {
+                Row last = rows.get(rows.size() - 1);
+                Object[] values = new Object[labels.length];
+                for (int i = 0; i < labels.length; i++) {
+                    values[i] = last.get(labels[i]);
+                }
+                nextToken = SeekToken.encode(orderKeys, values);
+            }
+
+            SeekPage<T> page = new SeekPage<>(rows.size(), nextToken);
+            if (clazz == null || clazz == Row.class) {
+                page.addAll((List<T>) rows);
+            } else if (!rows.isEmpty()) {
+                BeanMapper<T> mapper = BeanMapper.of(clazz, rows.get(0).keySet());
+                rows.forEach(row -> page.add(mapper.map(row)));
+            }
+            return page;
+        } finally {
+            executor.finish();
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////
+
+    public ColumnarResult queryColumnar(SQL.Generatable generatable) {
+        Command command = generatable.toCommand();
+        return queryColumnar(command.getStatement(), command.getParams());
+    }
+
+    /**
+     * 执行查询，并按列存储查询结果。适用于统计分析类的大量数据查询，
+     * 数字和日期类型的字段值将保存为基本类型数组，不会为每个值创建对象。
+     *
+     * @param sql    查询语句
+     * @param params 参数。如果是一个 List，则自动转换为 Array。
+     *
+     * @return 查询结果
+     *
+     * @throws DAOException 如果发生数据库错误
+     */
+    public ColumnarResult queryColumnar(String sql, Object... params) throws DAOException {
+        if (params.length == 1 && params[0] instanceof List) {
+            List list = (List) params[0];
+            return queryColumnar(sql, list.toArray(new Object[list.size()]));
+        }
+
+        String fixedSql = fixSql(sql);
+        Executor executor = getExecutor();
+        try {
+            return executor.queryColumnar(fixedSql, Arrays.asList(params));
         } finally {
             executor.finish();
         }
@@ -436,6 +599,14 @@ public class DAO {
         return queryIterator(sql, null, params);
     }
 
+    public RowIterator queryIterator(QueryOptions options, Command command) throws DAOException {
+        return queryIterator(options, command.getStatement(), null, command.getParams());
+    }
+
+    public RowIterator queryIterator(QueryOptions options, String sql, Object... params) throws DAOException {
+        return queryIterator(options, sql, null, params);
+    }
+
     /**
      * 执行查询，返回迭代器
      * <p/>
@@ -450,6 +621,26 @@ public class DAO {
      * @throws DAOException             如果查询失败
      */
     public RowIterator queryIterator(String sql, Consumer<Row> preProcessor, Object... params) throws DAOException {
+        return queryIterator(QueryOptions.STREAMING, sql, preProcessor, params);
+    }
+
+    /**
+     * 执行查询，返回迭代器。缺省使用流式读取，参考 {@link QueryOptions}
+     * <p/>
+     * <strong>注意：不关闭迭代器的话，可能造成数据库连接泄露！</strong>
+     *
+     * @param options      查询选项
+     * @param sql          要执行的查询语句
+     * @param preProcessor 对 Row 对象的预处理，可以为 null
+     * @param params       查询参数
+     *
+     * @return 用于获得查询结果的迭代器
+     *
+     * @throws IllegalArgumentException 如果 sql 为 null
+     * @throws DAOException             如果查询失败
+     */
+    public RowIterator queryIterator(
+            QueryOptions options, String sql, Consumer<Row> preProcessor, Object... params) throws DAOException {
 
         if (sql == null) {
             throw new IllegalArgumentException("SQL is null");
@@ -457,15 +648,111 @@ public class DAO {
 
         if (params.length == 1 && params[0] instanceof List) {
             List list = (List) params[0];
-            return queryIterator(sql, preProcessor, list.toArray(new Object[0]));
+            return queryIterator(options, sql, preProcessor, list.toArray(new Object[0]));
         }
 
         String fixedSql = fixSql(sql);
         Executor executor = getExecutor(true);
-        return executor.queryIterator(fixedSql, Arrays.asList(params), preProcessor);
+        return executor.queryIterator(fixedSql, Arrays.asList(params), preProcessor, options);
         // 数据库连接此时必须保持开启，所以不能调用 closeExecutor() 方法。
     }
 
+    ////////////////////////////////////////////////////////////////
+
+    public Stream<Row> queryStream(SQL.Generatable<SQL.Select> generatable) throws DAOException {
+        return queryStream(Row.class, generatable);
+    }
+
+    public <T> Stream<T> queryStream(Class<T> clazz, SQL.Generatable<SQL.Select> generatable) throws DAOException {
+        Command command = generatable.toCommand();
+        return queryStream(clazz, command.getStatement(), command.getParams());
+    }
+
+    public Stream<Row> queryStream(String sql, Object... params) throws DAOException {
+        return queryStream(Row.class, sql, params);
+    }
+
+    /**
+     * 执行查询，返回 Stream。记录是流式读取的，只有在 Stream 处理时才逐条从数据库读取。
+     * <p/>
+     * <strong>注意：如果没有读完所有记录（例如使用了 findFirst()/limit()），必须关闭 Stream
+     * 才能释放数据库连接，所以请使用 try-with-resources 语句：</strong>
+     * <pre>
+     * try (Stream&lt;User&gt; users = dao.queryStream(User.class, "select * from users")) {
+     *     users.filter(...).forEach(...);
+     * }
+     * </pre>
+     *
+     * @param clazz  包装类，为 Row.class 时返回 Row 对象
+     * @param sql    要执行的查询语句
+     * @param params 查询参数
+     *
+     * @return 查询结果的 Stream
+     *
+     * @throws DAOException 如果查询失败
+     */
+    public <T> Stream<T> queryStream(Class<T> clazz, String sql, Object... params) throws DAOException {
+        return queryIterator(sql, params).stream(clazz);
+    }
+
+    ////////////////////////////////////////////////////////////////
+
+    public <T> ScanResult parallelScan(
+            String tableName, String keyColumn, int partitions, Class<T> clazz, Consumer<T> consumer) {
+        return parallelScan(tableName, keyColumn, partitions, clazz, consumer, ScanOptions.UNORDERED);
+    }
+
+    /**
+     * 并行扫描整个表。按 keyColumn 的值将表分为多个范围，每个范围使用独立的数据库连接流式读取，
+     * 读取到的记录在调用者所在的线程中逐条交给 consumer 处理。
+     * <p/>
+     * 各分区使用不同的连接，不在当前事务当中，也不保证读到的是同一时刻的数据。
+     * 某个分区读取失败不会影响其他分区，失败信息记录在返回结果中；consumer 抛出异常则整个扫描中止。
+     *
+     * @param tableName  表名
+     * @param keyColumn  用于分区的字段，应当有索引。如果为 null 则使用表的主键（必须是单个字段）
+     * @param partitions 分区数
+     * @param clazz      包装类，为 Row.class 时返回 Row 对象
+     * @param consumer   记录的处理方法，只会在调用者所在的线程中执行
+     * @param options    扫描选项
+     *
+     * @return 每个分区的扫描结果
+     *
+     * @throws DAOException 如果无法确定分区范围
+     */
+    public <T> ScanResult parallelScan(
+            String tableName, String keyColumn, int partitions, Class<T> clazz,
+            Consumer<T> consumer, ScanOptions options) {
+        return new ParallelScanner<>(this, executorFactory, clazz, options)
+                .scan(tableName, keyColumn, partitions, consumer);
+    }
+
+    /**
+     * 创建一个向指定表异步批量插入记录的写入器，用完之后必须关闭
+     *
+     * @param tableName 表名
+     * @param options   写入选项
+     *
+     * @return 写入器，{@link BatchWriter#write(Object)} 接受 pojo 或 Map 对象
+     */
+    public BatchWriter createBatchWriter(String tableName, BatchWriterOptions options) {
+        return new BatchWriter(executorFactory, tableName, null, options,
+                () -> invalidateCache(cache -> cache.invalidate(dsName, Collections.singleton(tableName))));
+    }
+
+    /**
+     * 创建一个异步批量执行指定语句的写入器，用完之后必须关闭
+     *
+     * @param sql     要执行的语句，例如 insert into t(a,b) values (?,?)
+     * @param options 写入选项
+     *
+     * @return 写入器，{@link BatchWriter#write(Object)} 接受参数 List 或数组
+     */
+    public BatchWriter createCommandBatchWriter(String sql, BatchWriterOptions options) {
+        return new BatchWriter(executorFactory, null, sql, options,
+                () -> invalidateCache(cache -> cache.invalidate(dsName, sql)));
+    }
+
     /**
      * 获取指定 sequence 的下一个值。注意，本方法仅用于 Oracle 数据库。
      *
@@ -492,6 +779,14 @@ public class DAO {
      * @throws DAOException 如果查询失败
      */
     public <T> T find(Class<T> clazz, String tableName, Object key) throws DAOException {
+        EntityCache entityCache = isInTransaction() ? null : executorFactory.getEntityCache();
+        if (entityCache != null) {
+            return entityCache.get(dsName, tableName, key, clazz, () -> find0(clazz, tableName, key));
+        }
+        return find0(clazz, tableName, key);
+    }
+
+    private <T> T find0(Class<T> clazz, String tableName, Object key) {
         Executor executor = getExecutor();
         try {
             return executor.find(clazz, key, tableName);
@@ -514,6 +809,57 @@ public class DAO {
         return find(clazz, BeanUtil.getTableName(clazz), key);
     }
 
+    /**
+     * 根据多个主键查找记录，主键值会按数据库的限制分批放入 in (...) 中查询。前提是表的主键不是多个字段
+     *
+     * @param clazz     包装类，为 null 或 Row.class 时返回 Row 对象
+     * @param tableName 表名
+     * @param keys      主键值
+     *
+     * @return 主键值和记录的对应关系，顺序与 keys 一致，不包含找不到的记录
+     *
+     * @throws DAOException 如果查询失败，或者表的主键由多个字段组成
+     */
+    public <K, T> Map<K, T> findAll(Class<T> clazz, String tableName, Collection<K> keys) throws DAOException {
+        if (keys == null || keys.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+
+        Executor executor = getExecutor();
+        try {
+            return executor.findAll(clazz, keys, tableName);
+        } finally {
+            executor.finish();
+        }
+    }
+
+    public <K, T> Map<K, T> findAll(Class<T> clazz, Collection<K> keys) throws DAOException {
+        return findAll(clazz, BeanUtil.getTableName(clazz), keys);
+    }
+
+    /**
+     * 判断多个主键对应的记录是否都存在
+     *
+     * @param tableName 表名
+     * @param keys      主键值
+     *
+     * @return 如果所有记录都存在则返回 true
+     *
+     * @throws DAOException 如果查询失败，或者表的主键由多个字段组成
+     */
+    public boolean existsAll(String tableName, Collection<?> keys) throws DAOException {
+        if (keys == null || keys.isEmpty()) {
+            return true;
+        }
+
+        Executor executor = getExecutor();
+        try {
+            return executor.existsAll(keys, tableName);
+        } finally {
+            executor.finish();
+        }
+    }
+
     /**
      * 执行 select count 语句，并直接返回结果内容
      *
@@ -524,7 +870,7 @@ public class DAO {
     public int count(Command command) {
         Row row = queryFirst(command);
         Iterator<Object> iterator = row.values().iterator();
-        return ((BigDecimal) iterator.next()).intValue();
+        return ((Number) iterator.next()).intValue();
     }
 
     /**
@@ -538,7 +884,7 @@ public class DAO {
     public int count(String sql, Object... params) {
         Row row = queryFirst(sql, params);
         Iterator<Object> iterator = row.values().iterator();
-        return ((BigDecimal) iterator.next()).intValue();
+        return ((Number) iterator.next()).intValue();
     }
 
     /**
@@ -551,11 +897,94 @@ public class DAO {
     public int count(SQL.Generatable generatable) {
         Row row = queryFirst(generatable);
         Iterator<Object> iterator = row.values().iterator();
-        return ((BigDecimal) iterator.next()).intValue();
+        return ((Number) iterator.next()).intValue();
     }
 
     /////////////////// UPDATE //////////////////////
 
+    /**
+     * 根据主键更新一条记录的所有非主键字段，对象中为 null 的属性会将字段更新为 null。
+     * Map 对象只更新其中包含的字段
+     *
+     * @param obj       包含主键值的 Pojo 对象或 Map 对象
+     * @param tableName 表名
+     *
+     * @return 受影响的行数
+     *
+     * @throws DAOException 如果执行数据库操作失败
+     */
+    public int update(Object obj, String tableName) throws DAOException {
+        return update(obj, tableName, false);
+    }
+
+    /**
+     * 根据主键更新一条记录
+     *
+     * @param obj         包含主键值的 Pojo 对象或 Map 对象，Map 对象只更新其中包含的字段
+     * @param tableName   表名
+     * @param nonNullOnly 是否只更新值不为 null 的字段
+     *
+     * @return 受影响的行数
+     *
+     * @throws DAOException 如果执行数据库操作失败
+     */
+    public int update(Object obj, String tableName, boolean nonNullOnly) throws DAOException {
+        return updateList(Collections.singletonList(obj), tableName, nonNullOnly);
+    }
+
+    /**
+     * 根据主键更新一条记录的所有非主键字段
+     *
+     * @param obj 包含主键值的对象
+     *
+     * @return 受影响的行数
+     *
+     * @throws DAOException 如果执行数据库操作失败
+     */
+    public int update(Object obj) throws DAOException {
+        return update(obj, BeanUtil.getTableName(obj.getClass()));
+    }
+
+    /**
+     * 根据主键批量更新记录的所有非主键字段，所有记录在一次批处理中执行。
+     * Map 对象只更新其中包含的字段，包含的字段不同的 Map 对象分别执行
+     *
+     * @param objects   包含主键值的 Pojo 对象或 Map 对象
+     * @param tableName 表名
+     *
+     * @return 受影响的行数
+     *
+     * @throws DAOException 如果执行数据库操作失败
+     */
+    public int updateList(List objects, String tableName) throws DAOException {
+        return updateList(objects, tableName, false);
+    }
+
+    /**
+     * 根据主键批量更新记录
+     *
+     * @param objects     包含主键值的 Pojo 对象或 Map 对象，Map 对象只更新其中包含的字段
+     * @param tableName   表名
+     * @param nonNullOnly 是否只更新值不为 null 的字段。要更新的字段相同的记录在同一次批处理中执行
+     *
+     * @return 受影响的行数
+     *
+     * @throws DAOException 如果执行数据库操作失败
+     */
+    public int updateList(List objects, String tableName, boolean nonNullOnly) throws DAOException {
+        if (objects == null || objects.isEmpty()) {
+            return 0;
+        }
+
+        Executor executor = getExecutor();
+        try {
+            return executor.updateList(objects, tableName, nonNullOnly);
+        } finally {
+            executor.finish();
+            invalidateCache(cache -> cache.invalidate(dsName, Collections.singleton(tableName)));
+        }
+    }
+
     /**
      * 删除指定的一条记录
      *
@@ -572,6 +1001,7 @@ public class DAO {
             return executor.delete(obj, tableName);
         } finally {
             executor.finish();
+            invalidateCache(cache -> cache.invalidate(dsName, Collections.singleton(tableName)));
         }
     }
 
@@ -581,6 +1011,7 @@ public class DAO {
             return executor.deleteByKey(key, tableName);
         } finally {
             executor.finish();
+            invalidateCache(cache -> cache.invalidateKey(dsName, tableName, key));
         }
     }
 
@@ -610,6 +1041,7 @@ public class DAO {
             }
         } finally {
             executor.finish();
+            invalidateCache(cache -> cache.invalidate(dsName, fixedSql));
         }
     }
 
@@ -628,6 +1060,7 @@ public class DAO {
             return executor.execute(command);
         } finally {
             executor.finish();
+            invalidateCache(cache -> cache.invalidate(dsName, command.getCommand()));
         }
     }
 
@@ -637,6 +1070,7 @@ public class DAO {
             return executor.execute(command);
         } finally {
             executor.finish();
+            invalidateCache(cache -> cache.invalidate(dsName, command.getCommand()));
         }
     }
 
@@ -688,6 +1122,7 @@ public class DAO {
             executor.insert(object, tableName);
         } finally {
             executor.finish();
+            invalidateCache(cache -> cache.invalidate(dsName, Collections.singleton(tableName)));
         }
     }
 
@@ -705,6 +1140,7 @@ public class DAO {
             executor.insertMap(row, tableName);
         } finally {
             executor.finish();
+            invalidateCache(cache -> cache.invalidate(dsName, Collections.singleton(tableName)));
         }
     }
 
@@ -728,15 +1164,65 @@ public class DAO {
      * @throws DAOException 如果发生数据库错误
      */
     public void insert(List objects, String tableName) throws DAOException {
+        insert(objects, tableName, InsertMode.BATCH);
+    }
+
+    /**
+     * 批量插入记录
+     *
+     * @param objects   封装记录的对象
+     * @param tableName 表名
+     * @param mode      插入方式，{@link InsertMode#MULTI_ROW} 表示用多行 insert 语句插入
+     *
+     * @throws DAOException 如果发生数据库错误
+     */
+    public void insert(List objects, String tableName, InsertMode mode) throws DAOException {
         if (objects == null || objects.isEmpty()) {
             return;
         }
 
         Executor executor = getExecutor();
         try {
-            executor.insertList(objects, tableName);
+            executor.insertList(objects, tableName, mode);
         } finally {
             executor.finish();
+            invalidateCache(cache -> cache.invalidate(dsName, Collections.singleton(tableName)));
+        }
+    }
+
+    // 本 DAO 的操作是否处于事务当中
+    private boolean isInTransaction() {
+        return !standAlone && TransactionManager.isInTransaction();
+    }
+
+    /**
+     * 获取查询结果缓存。事务中的查询可能读到未提交的数据，所以不使用缓存
+     *
+     * @return 查询结果缓存，如果不使用缓存则返回 null
+     */
+    private QueryCache getQueryCache() {
+        return isInTransaction() ? null : executorFactory.getQueryCache();
+    }
+
+    /**
+     * 修改数据之后使缓存失效。在事务中修改时，事务结束之后再失效一次，
+     * 因为事务提交之前其他线程可能又缓存了修改之前的数据
+     *
+     * @param invalidation 使缓存失效的操作
+     */
+    private void invalidateCache(Consumer<DataCache> invalidation) {
+        invalidateCache(executorFactory.getQueryCache(), invalidation);
+        invalidateCache(executorFactory.getEntityCache(), invalidation);
+    }
+
+    private void invalidateCache(DataCache cache, Consumer<DataCache> invalidation) {
+        if (cache == null) {
+            return;
+        }
+
+        invalidation.accept(cache);
+        if (isInTransaction()) {
+            TransactionManager.afterCompletion(() -> invalidation.accept(cache));
         }
     }
 
@@ -784,6 +1270,7 @@ public class DAO {
             return executor.call(name, params);
         } finally {
             executor.finish();
+            invalidateCache(cache -> cache.invalidateAll(dsName));
         }
     }
 
@@ -808,6 +1295,59 @@ public class DAO {
             return executor.callFunction(name, params);
         } finally {
             executor.finish();
+            invalidateCache(cache -> cache.invalidateAll(dsName));
+        }
+    }
+
+    /**
+     * 插入或更新一条记录。根据表的主键判断记录是否存在，由数据库在一条语句中完成，
+     * 目前支持 H2、MySQL、SQLite 和 Oracle
+     *
+     * @param object    封装记录的 Pojo 对象或 Map 对象
+     * @param tableName 表名
+     *
+     * @throws DAOException 如果发生数据库错误，或者数据库不支持
+     */
+    public void upsert(Object object, String tableName) throws DAOException {
+        Executor executor = getExecutor();
+        try {
+            executor.upsert(object, tableName);
+        } finally {
+            executor.finish();
+            invalidateCache(cache -> cache.invalidate(dsName, Collections.singleton(tableName)));
+        }
+    }
+
+    /**
+     * 插入或更新一条记录
+     *
+     * @param obj 封装记录的对象
+     *
+     * @throws DAOException 如果发生数据库错误，或者数据库不支持
+     */
+    public void upsert(Object obj) throws DAOException {
+        upsert(obj, BeanUtil.getTableName(obj.getClass()));
+    }
+
+    /**
+     * 用一次批处理插入或更新多条记录，参考 {@link #upsert(Object, String)}
+     *
+     * @param objects   封装记录的对象
+     * @param tableName 表名
+     *
+     * @throws DAOException 如果发生数据库错误，或者数据库不支持
+     */
+    public void upsertList(List objects, String tableName) throws DAOException {
+        if (objects == null || objects.isEmpty()) {
+            return;
+        }
+
+        Executor executor = getExecutor();
+        try {
+            executor.upsertList(objects, tableName);
+        } finally {
+            executor.finish();
+            invalidateCache(cache -> cache.invalidate(dsName, Collections.singleton(tableName)));
         }
     }
 
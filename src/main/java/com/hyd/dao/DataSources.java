@@ -1,6 +1,9 @@
 package com.hyd.dao;
 
+import com.hyd.dao.cache.EntityCache;
+import com.hyd.dao.cache.QueryCache;
 import com.hyd.dao.database.ExecutorFactory;
+import com.hyd.dao.database.dialect.Dialect;
 import com.hyd.dao.util.Locker;
 
 import javax.sql.DataSource;
@@ -29,6 +32,36 @@ public class DataSources {
      */
     private Map<String, ExecutorFactory> executorFactories = new HashMap<String, ExecutorFactory>();
 
+    /**
+     * “数据源名称 -> 数字类型字段处理方式” 映射关系
+     */
+    private Map<String, NumericMode> numericModes = new HashMap<String, NumericMode>();
+
+    /**
+     * “数据源名称 -> 数据库方言” 映射关系，没有指定的数据源将自动判断
+     */
+    private Map<String, Dialect> dialects = new HashMap<String, Dialect>();
+
+    /**
+     * “数据源名称 -> 查询结果缓存” 映射关系，没有指定的数据源不缓存
+     */
+    private Map<String, QueryCache> queryCaches = new HashMap<String, QueryCache>();
+
+    /**
+     * “数据源名称 -> 按主键查询的记录缓存” 映射关系，没有指定的数据源不缓存
+     */
+    private Map<String, EntityCache> entityCaches = new HashMap<String, EntityCache>();
+
+    /**
+     * “数据源名称 -> 异步执行线程数” 映射关系，没有指定的数据源与连接池大小一致
+     */
+    private Map<String, Integer> asyncPoolSizes = new HashMap<String, Integer>();
+
+    /**
+     * “数据源名称 -> AsyncDAO对象” 映射关系
+     */
+    private Map<String, AsyncDAO> asyncDAOs = new HashMap<String, AsyncDAO>();
+
     /**
      * 删除指定的数据源
      *
@@ -41,6 +74,17 @@ public class DataSources {
         if (dataSource != null) {
             dataSources.remove(dataSourceName);
             executorFactories.remove(dataSourceName);
+            numericModes.remove(dataSourceName);
+            dialects.remove(dataSourceName);
+            queryCaches.remove(dataSourceName);
+            entityCaches.remove(dataSourceName);
+            asyncPoolSizes.remove(dataSourceName);
+
+            AsyncDAO asyncDAO = asyncDAOs.remove(dataSourceName);
+            if (asyncDAO != null) {
+                asyncDAO.shutdown();
+            }
+
             finalization.accept(dataSource);
         }
     }
@@ -57,6 +101,90 @@ public class DataSources {
         this.dataSources.put(dataSourceName, dataSource);
     }
 
+    /**
+     * 设置指定数据源的查询结果中数字类型字段的处理方式，缺省为 {@link NumericMode#BIGDECIMAL}
+     *
+     * @param dataSourceName 数据源名称
+     * @param numericMode    数字类型字段的处理方式
+     */
+    public void setNumericMode(String dataSourceName, NumericMode numericMode) {
+        Locker.lockAndRun("ds:" + dataSourceName, () -> {
+            numericModes.put(dataSourceName, numericMode);
+
+            ExecutorFactory factory = executorFactories.get(dataSourceName);
+            if (factory != null) {
+                factory.setNumericMode(numericMode);
+            }
+        });
+    }
+
+    /**
+     * 指定数据源的方言。缺省情况下方言是根据数据库连接的元数据自动判断的
+     *
+     * @param dataSourceName 数据源名称
+     * @param dialect        数据库方言
+     */
+    public void setDialect(String dataSourceName, Dialect dialect) {
+        Locker.lockAndRun("ds:" + dataSourceName, () -> {
+            dialects.put(dataSourceName, dialect);
+
+            ExecutorFactory factory = executorFactories.get(dataSourceName);
+            if (factory != null) {
+                factory.setDialect(dialect);
+            }
+        });
+    }
+
+    /**
+     * 为指定数据源启用查询结果缓存，参考 {@link QueryCache}
+     *
+     * @param dataSourceName 数据源名称
+     * @param queryCache     查询结果缓存，为 null 表示不缓存
+     */
+    public void setQueryCache(String dataSourceName, QueryCache queryCache) {
+        Locker.lockAndRun("ds:" + dataSourceName, () -> {
+            queryCaches.put(dataSourceName, queryCache);
+
+            ExecutorFactory factory = executorFactories.get(dataSourceName);
+            if (factory != null) {
+                factory.setQueryCache(queryCache);
+            }
+        });
+    }
+
+    /**
+     * 为指定数据源启用按主键查询（{@link DAO#find(Class, String, Object)}）的记录缓存，参考 {@link EntityCache}
+     *
+     * @param dataSourceName 数据源名称
+     * @param entityCache    记录缓存，为 null 表示不缓存
+     */
+    public void setEntityCache(String dataSourceName, EntityCache entityCache) {
+        Locker.lockAndRun("ds:" + dataSourceName, () -> {
+            entityCaches.put(dataSourceName, entityCache);
+
+            ExecutorFactory factory = executorFactories.get(dataSourceName);
+            if (factory != null) {
+                factory.setEntityCache(entityCache);
+            }
+        });
+    }
+
+    /**
+     * 指定数据源的异步执行线程数，须在第一次调用 {@link #getAsyncDAO(String)} 之前设置。
+     * 缺省与连接池的最大连接数一致
+     *
+     * @param dataSourceName 数据源名称
+     * @param poolSize       线程数
+     */
+    public void setAsyncPoolSize(String dataSourceName, int poolSize) {
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("Invalid pool size " + poolSize);
+        }
+        Locker.lockAndRun("ds:" + dataSourceName, () -> {
+            asyncPoolSizes.put(dataSourceName, poolSize);
+        });
+    }
+
     public boolean contains(String dsName) {
         return this.dataSources.containsKey(dsName);
     }
@@ -134,6 +262,31 @@ public class DataSources {
         }
     }
 
+    /**
+     * 根据数据源名称获取异步执行的 DAO 对象。同一个数据源的 AsyncDAO 共用一个线程池
+     *
+     * @param dsName 数据源名称
+     *
+     * @return AsyncDAO 对象，如果数据源不存在则返回 null
+     */
+    public AsyncDAO getAsyncDAO(String dsName) {
+
+        if (!contains(dsName)) {
+            return null;
+        }
+
+        return Locker.lockAndRun("ds:" + dsName, () -> {
+            AsyncDAO asyncDAO = asyncDAOs.get(dsName);
+            if (asyncDAO == null) {
+                Integer poolSize = asyncPoolSizes.get(dsName);
+                asyncDAO = new AsyncDAO(getDAO(dsName, true),
+                        poolSize != null ? poolSize : AsyncDAO.getPoolSize(dataSources.get(dsName)));
+                asyncDAOs.put(dsName, asyncDAO);
+            }
+            return asyncDAO;
+        });
+    }
+
     /**
      * 根据数据源名称获取 ExecutorFactory 对象
      *
@@ -158,6 +311,10 @@ public class DataSources {
 
             DataSource dataSource = getDataSources().get(dsName);
             ExecutorFactory factory = new ExecutorFactory(dsName, dataSource);
+            factory.setNumericMode(numericModes.get(dsName));
+            factory.setDialect(dialects.get(dsName));
+            factory.setQueryCache(queryCaches.get(dsName));
+            factory.setEntityCache(entityCaches.get(dsName));
 
             executorFactories.put(dsName, factory);
             return factory;
@@ -0,0 +1,20 @@
+package com.hyd.dao;
+
+/**
+ * 批量插入记录的方式，参考 {@link DAO#insert(java.util.List, String, InsertMode)}
+ *
+ * @author yiding.he
+ */
+public enum InsertMode {
+
+    /**
+     * 每条记录一个参数组，通过 JDBC 批处理（addBatch）执行（缺省方式，与旧版本兼容）
+     */
+    BATCH,
+
+    /**
+     * 生成 insert into t(..) values (..),(..),... 这样一条语句插入多行，每条语句的行数由数据库的
+     * 参数个数和语句长度限制决定。数据库不支持时按 BATCH 处理
+     */
+    MULTI_ROW
+}
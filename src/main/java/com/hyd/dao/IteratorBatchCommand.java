@@ -8,11 +8,27 @@ import java.util.List;
 /**
  * 流式批处理命令。需要进行批处理，但是记录数不可预见的情况下使用。例如从文件中读取并导入数据，
  * 使用 IteratorBatchCommand 可以节省内存使用。
+ * <p/>
+ * 执行时只创建一个 PreparedStatement，每 batchSize 个参数组执行一次 executeBatch()，
+ * 可以通过 {@link #setProgressListener(ProgressListener)} 获得每批的进度和吞吐量。
  *
  * @author yidin
  */
 public class IteratorBatchCommand {
 
+    /**
+     * 进度监听器
+     */
+    public interface ProgressListener {
+
+        /**
+         * 每执行完一批后调用，在执行批处理的线程中调用
+         *
+         * @param progress 进度
+         */
+        void onProgress(BatchProgress progress);
+    }
+
     public static final int DEFAULT_BATCH_SIZE = 100;
 
     private String command;
@@ -23,6 +39,8 @@ public class IteratorBatchCommand {
 
     private ColumnInfo[] columnInfos;               // 参数对应的字段信息，有助于生成 null 参数，非必须
 
+    private ProgressListener progressListener;
+
     public IteratorBatchCommand(String command) {
         this.command = command;
     }
@@ -42,10 +60,22 @@ public class IteratorBatchCommand {
         return batchSize;
     }
 
+    public ColumnInfo[] getColumnInfos() {
+        return columnInfos;
+    }
+
     public void setColumnInfos(ColumnInfo[] columnInfos) {
         this.columnInfos = columnInfos;
     }
 
+    public ProgressListener getProgressListener() {
+        return progressListener;
+    }
+
+    public void setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+    }
+
     public String getCommand() {
         return command;
     }
@@ -0,0 +1,19 @@
+package com.hyd.dao;
+
+/**
+ * 查询结果中数字类型字段的处理方式
+ *
+ * @author yiding.he
+ */
+public enum NumericMode {
+
+    /**
+     * 所有数字类型的值都转换为 BigDecimal（缺省方式，与旧版本兼容）
+     */
+    BIGDECIMAL,
+
+    /**
+     * 保持 JDBC 驱动返回的类型（Integer/Long/Double/BigDecimal 等），不做转换
+     */
+    NATIVE
+}
@@ -14,6 +14,10 @@ public class Page<T> extends ArrayList<T> {
 
     private int pageSize;
 
+    private boolean totalExact = true;  // 总记录数是否准确
+
+    private Boolean hasNext;            // 是否有下一页，为 null 时根据总记录数计算
+
     public Page(int initialCapacity) {
         super(initialCapacity);
     }
@@ -58,4 +62,29 @@ public class Page<T> extends ArrayList<T> {
     public int getTotalPage() {
         return (this.total + this.pageSize - 1) / this.pageSize;
     }
+
+    /**
+     * 总记录数是否准确。使用 {@link CountStrategy#NONE} 时总记录数只是已知的最小值，
+     * 使用 CACHED 或 ESTIMATE 时总记录数可能是过时的或者估算的。
+     *
+     * @return 如果总记录数是刚刚查询得到的则返回 true
+     */
+    public boolean isTotalExact() {
+        return totalExact;
+    }
+
+    public void setTotalExact(boolean totalExact) {
+        this.totalExact = totalExact;
+    }
+
+    /**
+     * @return 是否有下一页
+     */
+    public boolean hasNext() {
+        return hasNext != null ? hasNext : this.pageIndex + 1 < getTotalPage();
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
 }
@@ -0,0 +1,291 @@
+package com.hyd.dao;
+
+import com.hyd.dao.database.ColumnInfo;
+import com.hyd.dao.database.ExecutorFactory;
+import com.hyd.dao.database.RowIterator;
+import com.hyd.dao.database.executor.Executor;
+import com.hyd.dao.log.Logger;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 按主键范围将表分为多个分区，每个分区使用独立的数据库连接并行读取。
+ * <p/>
+ * 读取线程把记录放入有界队列，由调用者所在的线程逐条交给 consumer 处理，所以 consumer
+ * 不需要是线程安全的；处理速度跟不上时读取线程会等待。
+ *
+ * @author yiding.he
+ */
+class ParallelScanner<T> {
+
+    private static final Logger LOG = Logger.getLogger(ParallelScanner.class);
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+    private final DAO dao;
+
+    private final ExecutorFactory executorFactory;
+
+    private final Class<T> clazz;
+
+    private final ScanOptions options;
+
+    private volatile boolean cancelled;
+
+    ParallelScanner(DAO dao, ExecutorFactory executorFactory, Class<T> clazz, ScanOptions options) {
+        this.dao = dao;
+        this.executorFactory = executorFactory;
+        this.clazz = clazz;
+        this.options = options;
+    }
+
+    ScanResult scan(String tableName, String keyColumn, int partitionCount, Consumer<T> consumer) {
+        if (partitionCount <= 0) {
+            throw new IllegalArgumentException("Invalid partition count " + partitionCount);
+        }
+
+        String key = keyColumn != null ? keyColumn : findPrimaryKey(tableName);
+        List<Object> boundaries = getBoundaries(tableName, key, partitionCount);
+
+        List<ScanResult.Partition> partitions = new ArrayList<>();
+        for (int i = 0; i <= boundaries.size(); i++) {
+            partitions.add(new ScanResult.Partition(i,
+                    i == 0 ? null : boundaries.get(i - 1),
+                    i == boundaries.size() ? null : boundaries.get(i)));
+        }
+
+        LOG.debug(() -> "Scanning " + tableName + " by " + key + " in " + partitions.size() + " partitions");
+
+        // ORDERED 模式下每个分区有自己的队列，按顺序读取；否则共用一个队列
+        List<BlockingQueue<Object>> queues = new ArrayList<>();
+        if (options.isOrdered()) {
+            partitions.forEach(p -> queues.add(new ArrayBlockingQueue<>(options.getBufferSize())));
+        } else {
+            queues.add(new ArrayBlockingQueue<>(options.getBufferSize() * partitions.size()));
+        }
+
+        // 缺省不超过连接池大小，否则 ORDERED 模式下后面的分区可能占满连接并等待队列，第一个分区拿不到连接
+        int threads = options.getParallelism() > 0 ? options.getParallelism() :
+                AsyncDAO.getPoolSize(executorFactory.getDataSource());
+        threads = Math.min(threads, partitions.size());
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "dao-parallel-scan-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            for (ScanResult.Partition partition : partitions) {
+                BlockingQueue<Object> queue = queues.get(options.isOrdered() ? partition.getIndex() : 0);
+                pool.execute(() -> scanPartition(tableName, key, partition, queue));
+            }
+
+            if (options.isOrdered()) {
+                for (BlockingQueue<Object> queue : queues) {
+                    consume(queue, 1, consumer);
+                }
+            } else {
+                consume(queues.get(0), partitions.size(), consumer);
+            }
+        } catch (InterruptedException e) {
+            cancelled = true;
+            Thread.currentThread().interrupt();
+            throw new DAOException("Scan interrupted", e);
+        } catch (RuntimeException | Error e) {
+            cancelled = true;
+            throw e;
+        } finally {
+            pool.shutdown();
+        }
+
+        return new ScanResult(partitions);
+    }
+
+    // 从队列中取出记录交给 consumer，直到收到指定数量的分区结束标记
+    @SuppressWarnings("unchecked")
+    private void consume(BlockingQueue<Object> queue, int partitions, Consumer<T> consumer)
+            throws InterruptedException {
+
+        int finished = 0;
+        while (finished < partitions) {
+            Object item = queue.take();
+            if (item instanceof PartitionEnd) {
+                finished++;
+            } else {
+                consumer.accept((T) item);
+            }
+        }
+    }
+
+    private void scanPartition(
+            String tableName, String key, ScanResult.Partition partition, BlockingQueue<Object> queue) {
+
+        List<Object> params = new ArrayList<>();
+        String sql = "select * from " + tableName + getCondition(key, partition, params);
+        long count = 0;
+
+        try {
+            Executor executor = executorFactory.getExecutor(true);
+            RowIterator iterator;
+            try {
+                iterator = executor.queryIterator(sql, params, null, QueryOptions.STREAMING);
+            } catch (RuntimeException e) {
+                executor.close();
+                throw e;
+            }
+
+            try (Stream<T> stream = iterator.stream(clazz)) {
+                Iterator<T> items = stream.iterator();
+                while (!cancelled && items.hasNext()) {
+                    if (!put(queue, items.next())) {
+                        break;
+                    }
+                    count++;
+                }
+            }
+        } catch (Throwable e) {
+            LOG.error("Failed scanning " + partition + " of " + tableName, e);
+            partition.setError(e);
+        } finally {
+            partition.setRowCount(count);
+            put(queue, new PartitionEnd());
+        }
+    }
+
+    // 队列满时等待，直到放入成功或者扫描被取消
+    private boolean put(BlockingQueue<Object> queue, Object item) {
+        try {
+            while (!cancelled) {
+                if (queue.offer(item, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    private String getCondition(String key, ScanResult.Partition partition, List<Object> params) {
+        List<String> conditions = new ArrayList<>();
+
+        if (partition.getLowerBound() != null) {
+            conditions.add(key + " >= ?");
+            params.add(partition.getLowerBound());
+        }
+        if (partition.getUpperBound() != null) {
+            // 分区字段为 null 的记录不属于任何范围，放在第一个分区中
+            conditions.add(partition.getLowerBound() == null ?
+                    "(" + key + " < ? or " + key + " is null)" : key + " < ?");
+            params.add(partition.getUpperBound());
+        }
+
+        return conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions);
+    }
+
+    ////////////////////////////////////////////////////////////////
+
+    private String findPrimaryKey(String tableName) {
+        Executor executor = executorFactory.getExecutor(true);
+        ColumnInfo[] infos;
+        try {
+            infos = executor.getColumnInfos(tableName);
+        } finally {
+            executor.close();
+        }
+
+        List<String> keys = Arrays.stream(infos)
+                .filter(ColumnInfo::isPrimary).map(ColumnInfo::getColumnName).collect(Collectors.toList());
+
+        if (keys.size() != 1) {
+            throw new DAOException("Table " + tableName + " does not have a single-column primary key, " +
+                    "please specify the key column");
+        }
+        return keys.get(0);
+    }
+
+    /**
+     * 计算分区边界。数字类型的主键按最小值和最大值均分，其他类型按记录位置取分位值。
+     *
+     * @return 从小到大排列的分区边界，不包含重复值。边界个数为分区数减一，表中记录很少时可能更少
+     */
+    private List<Object> getBoundaries(String tableName, String key, int partitionCount) {
+        List<Object> boundaries = new ArrayList<>();
+        if (partitionCount == 1) {
+            return boundaries;
+        }
+
+        Row row = dao.queryFirst("select min(" + key + ") min_key, max(" + key + ") max_key from " + tableName);
+        Object min = row.get("min_key");
+        Object max = row.get("max_key");
+
+        if (min == null || max == null) {
+            return boundaries;      // 空表
+        }
+
+        if (min instanceof Number && max instanceof Number) {
+            BigDecimal minValue = toBigDecimal((Number) min);
+            BigDecimal maxValue = toBigDecimal((Number) max);
+            boolean integral = isIntegral(minValue) && isIntegral(maxValue);
+            BigDecimal range = maxValue.subtract(minValue);
+
+            for (int i = 1; i < partitionCount; i++) {
+                BigDecimal step = range.multiply(BigDecimal.valueOf(i));
+                BigDecimal boundary = minValue.add(integral ?
+                        step.divide(BigDecimal.valueOf(partitionCount), 0, RoundingMode.FLOOR) :
+                        step.divide(BigDecimal.valueOf(partitionCount), 10, RoundingMode.FLOOR));
+                addBoundary(boundaries, boundary.compareTo(minValue) > 0 ? boundary : null);
+            }
+        } else {
+            int count = dao.count("select count(*) from " + tableName);
+            String sql = "select " + key + " from " + tableName + " order by " + key;
+
+            for (int i = 1; i < partitionCount; i++) {
+                int position = (int) ((long) count * i / partitionCount);
+                List<Row> rows = dao.queryRange(sql, position, position + 1);
+                addBoundary(boundaries, rows.isEmpty() ? null : rows.get(0).values().iterator().next());
+            }
+        }
+
+        return boundaries;
+    }
+
+    private void addBoundary(List<Object> boundaries, Object boundary) {
+        if (boundary != null && (boundaries.isEmpty() || !boundaries.get(boundaries.size() - 1).equals(boundary))) {
+            boundaries.add(boundary);
+        }
+    }
+
+    private static BigDecimal toBigDecimal(Number number) {
+        if (number instanceof BigDecimal) {
+            return (BigDecimal) number;
+        } else if (number instanceof BigInteger) {
+            return new BigDecimal((BigInteger) number);
+        } else if (number instanceof Double || number instanceof Float) {
+            return BigDecimal.valueOf(number.doubleValue());
+        } else {
+            return BigDecimal.valueOf(number.longValue());
+        }
+    }
+
+    private static boolean isIntegral(BigDecimal value) {
+        return value.signum() == 0 || value.stripTrailingZeros().scale() <= 0;
+    }
+
+    ////////////////////////////////////////////////////////////////
+
+    // 分区结束标记
+    private static class PartitionEnd {
+
+    }
+}
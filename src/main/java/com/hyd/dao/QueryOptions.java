@@ -0,0 +1,69 @@
+package com.hyd.dao;
+
+/**
+ * 查询选项，用于指定单次查询的读取方式。
+ * <p/>
+ * 缺省情况下 {@link DAO#queryIterator(String, Object...)} 使用流式读取：语句为只读、只向前的游标，
+ * fetchSize 由数据库方言决定（例如 MySQL 使用 Integer.MIN_VALUE 逐行读取，H2/HSQLDB
+ * 根据每行的宽度计算）。因此遍历大量记录时内存占用不会随记录数增长。
+ * <p/>
+ * 注意：MySQL 在流式读取结束（迭代器关闭）之前，同一个连接上不能执行其他语句。
+ *
+ * @author yiding.he
+ */
+public class QueryOptions {
+
+    /**
+     * 流式读取，fetchSize 自动决定
+     */
+    public static final QueryOptions STREAMING = new QueryOptions(true, 0);
+
+    /**
+     * 由 JDBC 驱动决定读取方式（旧版本的行为）
+     */
+    public static final QueryOptions DRIVER_DEFAULT = new QueryOptions(false, 0);
+
+    private final boolean streaming;
+
+    private final int fetchSize;
+
+    private QueryOptions(boolean streaming, int fetchSize) {
+        this.streaming = streaming;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * 流式读取，并指定 fetchSize
+     *
+     * @param fetchSize 每次从数据库读取的记录数，0 表示自动决定
+     *
+     * @return 查询选项
+     */
+    public static QueryOptions streaming(int fetchSize) {
+        return new QueryOptions(true, fetchSize);
+    }
+
+    /**
+     * 非流式读取，只指定 fetchSize
+     *
+     * @param fetchSize 每次从数据库读取的记录数，0 表示由 JDBC 驱动决定
+     *
+     * @return 查询选项
+     */
+    public static QueryOptions fetchSize(int fetchSize) {
+        return new QueryOptions(false, fetchSize);
+    }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryOptions{streaming=" + streaming + ", fetchSize=" + fetchSize + '}';
+    }
+}
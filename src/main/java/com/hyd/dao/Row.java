@@ -1,19 +1,27 @@
 package com.hyd.dao;
 
+import com.hyd.dao.database.RowSchema;
 import com.hyd.dao.log.Logger;
 import com.hyd.dao.util.CaseInsensitiveHashMap;
 
+import java.io.Serializable;
+import java.math.BigDecimal;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Map;
+import java.util.*;
 
 /**
  * 表示查询结果中的一行。在所有的方法中，字段名不分大小写。
+ * <p/>
+ * 查询结果中的字段值保存在一个数组中，字段名到数组位置的索引由 {@link RowSchema} 提供，
+ * 同一个查询结果的所有行共用一个 RowSchema。不在查询结果中的字段（例如手工 put 进来的）
+ * 保存在另外一个 Map 中。
  *
  * @author yiding.he
  */
-public class Row extends CaseInsensitiveHashMap<Object> implements Map<String, Object> {
+public class Row extends AbstractMap<String, Object> implements Map<String, Object>, Serializable, Cloneable {
+
+    private static final long serialVersionUID = 1L;
 
     /**
      * 缺省日期格式
@@ -22,6 +30,274 @@ public class Row extends CaseInsensitiveHashMap<Object> implements Map<String, O
 
     private static final Logger LOG = Logger.getLogger(Row.class);
 
+    private final RowSchema schema;
+
+    private final Object[] values;
+
+    private boolean[] removed;      // 被删除的查询结果字段，需要时才创建
+
+    private CaseInsensitiveHashMap<Object> extra;   // 查询结果以外的字段，需要时才创建
+
+    private transient Set<Entry<String, Object>> entrySet;
+
+    public Row() {
+        this(null, null);
+    }
+
+    /**
+     * 构造方法
+     *
+     * @param schema 查询结果的字段结构
+     * @param values 字段值，顺序与 schema 中的字段一致。本对象将直接使用该数组
+     */
+    public Row(RowSchema schema, Object[] values) {
+        this.schema = schema;
+        this.values = values;
+    }
+
+    ////////////////////////////////////////////////////////////////
+
+    // 查找查询结果中的字段位置，不存在或已被删除则返回 -1
+    private int indexOf(Object key) {
+        if (schema == null || !(key instanceof String)) {
+            return -1;
+        }
+
+        int index = schema.indexOf((String) key);
+        return index < 0 || (removed != null && removed[index]) ? -1 : index;
+    }
+
+    private CaseInsensitiveHashMap<Object> extra() {
+        if (extra == null) {
+            extra = new CaseInsensitiveHashMap<>();
+        }
+        return extra;
+    }
+
+    private void removeAt(int index) {
+        if (removed == null) {
+            removed = new boolean[values.length];
+        }
+        removed[index] = true;
+        values[index] = null;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int index = indexOf(key);
+        if (index >= 0) {
+            return values[index];
+        }
+        return extra == null || !(key instanceof String) ? null : extra.get((String) key);
+    }
+
+    public Object get(String key) {
+        return get((Object) key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (!(key instanceof String)) {
+            return false;
+        }
+        return indexOf(key) >= 0 || (extra != null && extra.containsKey(key));
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        int index = schema == null ? -1 : schema.indexOf(key);
+        if (index >= 0) {
+            Object old = values[index];
+            values[index] = value;
+            if (removed != null) {
+                removed[index] = false;
+            }
+            return old;
+        }
+        return extra().put(key, value);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        int index = indexOf(key);
+        if (index >= 0) {
+            Object old = values[index];
+            removeAt(index);
+            return old;
+        }
+        return extra == null || !(key instanceof String) ? null : extra.remove(((String) key).toLowerCase());
+    }
+
+    @Override
+    public int size() {
+        int size = extra == null ? 0 : extra.size();
+        if (schema != null) {
+            for (int i = 0; i < values.length; i++) {
+                if (schema.getLabel(i) != null && (removed == null || !removed[i])) {
+                    size++;
+                }
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        if (schema != null) {
+            for (int i = 0; i < values.length; i++) {
+                removeAt(i);
+            }
+        }
+        extra = null;
+    }
+
+    /**
+     * 复制本对象，复制出来的对象与本对象共用 RowSchema，但字段值相互独立
+     *
+     * @return 新的 Row 对象
+     */
+    @Override
+    public Row clone() {
+        Row row = new Row(schema, values == null ? null : values.clone());
+        row.removed = removed == null ? null : removed.clone();
+        if (extra != null) {
+            row.extra().putAll(extra);
+        }
+        return row;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<Entry<String, Object>>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    return Row.this.size();
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    /**
+     * 先遍历查询结果中的字段，再遍历其他字段
+     */
+    private class EntryIterator implements Iterator<Entry<String, Object>> {
+
+        private int next = -1;
+
+        private int current = -1;
+
+        private Iterator<Entry<String, Object>> extraIterator;
+
+        private EntryIterator() {
+            advance();
+        }
+
+        private void advance() {
+            next++;
+            while (schema != null && next < values.length
+                    && (schema.getLabel(next) == null || (removed != null && removed[next]))) {
+                next++;
+            }
+        }
+
+        private boolean inSchema() {
+            return schema != null && next < values.length;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (inSchema()) {
+                return true;
+            }
+            if (extraIterator == null && extra != null) {
+                extraIterator = extra.entrySet().iterator();
+            }
+            return extraIterator != null && extraIterator.hasNext();
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            if (inSchema()) {
+                current = next;
+                advance();
+                return new SchemaEntry(current);
+            }
+
+            current = -1;
+            return extraIterator.next();
+        }
+
+        @Override
+        public void remove() {
+            if (current >= 0) {
+                removeAt(current);
+                current = -1;
+            } else if (extraIterator != null) {
+                extraIterator.remove();
+            } else {
+                throw new IllegalStateException();
+            }
+        }
+    }
+
+    private class SchemaEntry implements Entry<String, Object> {
+
+        private final int index;
+
+        private SchemaEntry(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public String getKey() {
+            return schema.getLabel(index);
+        }
+
+        @Override
+        public Object getValue() {
+            return values[index];
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            Object old = values[index];
+            values[index] = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            return Objects.equals(getKey(), e.getKey()) && Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////
+
     public Double getDoubleObject(String key) {
         Object value = get(key);
         if (value == null) {
@@ -30,6 +306,8 @@ public class Row extends CaseInsensitiveHashMap<Object> implements Map<String, O
             return Double.parseDouble((String) value);
         } else if (value instanceof Double) {
             return (Double) value;
+        } else if (value instanceof Number) {
+            return ((Number) value).doubleValue();
         } else if (value instanceof Date) {
             return (double) ((Date) value).getTime();
         } else {
@@ -60,6 +338,12 @@ public class Row extends CaseInsensitiveHashMap<Object> implements Map<String, O
             return null;
         } else if (value instanceof String) {
             return Long.parseLong((String) value);
+        } else if (value instanceof Long) {
+            return (Long) value;
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        } else if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).longValueExact();
         } else if (value instanceof Double) {
             return ((Double) value).longValue();
         } else if (value instanceof Date) {
@@ -100,6 +384,12 @@ public class Row extends CaseInsensitiveHashMap<Object> implements Map<String, O
             return null;
         } else if (value instanceof String) {
             return Integer.parseInt((String) value);
+        } else if (value instanceof Integer) {
+            return (Integer) value;
+        } else if (value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return Math.toIntExact(((Number) value).longValue());
+        } else if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).intValueExact();
         } else if (value instanceof Double) {
             return ((Double) value).intValue();
         } else if (value instanceof Date) {
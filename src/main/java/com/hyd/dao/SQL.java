@@ -511,17 +511,36 @@ public class SQL {
 
         @Override
         public Command toCommand() {
+            return toCommand(null, null, this.orderBy);
+        }
+
+        /**
+         * 生成语句，在原有条件之外附加一个条件（原有条件整体加括号），并使用指定的排序方式
+         *
+         * @param extraCondition 附加的条件，为 null 表示没有
+         * @param extraParams    附加条件的参数
+         * @param orderBy        排序方式
+         *
+         * @return 语句
+         */
+        Command toCommand(String extraCondition, List<Object> extraParams, String orderBy) {
             this.params.clear();
             this.statement = "select " + this.columns + " from " + this.from + " ";
 
-            this.statement += generateWhereBlock();
+            String where = generateWhereBlock();
+            if (extraCondition != null) {
+                where = where.trim().isEmpty() ? " where " + extraCondition :
+                        " where (" + where.trim().substring("where".length()) + ") and " + extraCondition;
+                this.params.addAll(extraParams);
+            }
+            this.statement += where;
 
             if (!isEmpty(this.groupBy)) {
                 this.statement += " group by " + this.groupBy;
             }
 
-            if (!isEmpty(this.orderBy)) {
-                this.statement += " order by " + this.orderBy;
+            if (!isEmpty(orderBy)) {
+                this.statement += " order by " + orderBy;
             }
 
             return new Command(this.statement, this.params);
@@ -0,0 +1,86 @@
+package com.hyd.dao;
+
+/**
+ * 并行扫描的选项，参考 {@link DAO#parallelScan(String, String, int, Class, java.util.function.Consumer, ScanOptions)}
+ *
+ * @author yiding.he
+ */
+public class ScanOptions {
+
+    /**
+     * 缺省的缓冲区大小（每个分区最多读取多少条尚未处理的记录）
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1000;
+
+    /**
+     * 不保证顺序：哪个分区先读到记录就先处理
+     */
+    public static final ScanOptions UNORDERED = new ScanOptions(false, DEFAULT_BUFFER_SIZE, 0);
+
+    /**
+     * 按分区顺序处理：第一个分区的记录全部处理完之后才处理第二个分区，以此类推。
+     * 分区内部的顺序由数据库决定。
+     */
+    public static final ScanOptions ORDERED = new ScanOptions(true, DEFAULT_BUFFER_SIZE, 0);
+
+    private final boolean ordered;
+
+    private final int bufferSize;
+
+    private final int parallelism;
+
+    private ScanOptions(boolean ordered, int bufferSize, int parallelism) {
+        this.ordered = ordered;
+        this.bufferSize = bufferSize;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * 指定缓冲区大小。处理速度跟不上读取速度时，读取线程会在缓冲区满时等待，
+     * 所以内存占用不会超过 分区数 × 缓冲区大小 条记录。
+     *
+     * @param bufferSize 每个分区的缓冲区大小
+     *
+     * @return 新的选项
+     */
+    public ScanOptions bufferSize(int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Invalid buffer size " + bufferSize);
+        }
+        return new ScanOptions(ordered, bufferSize, parallelism);
+    }
+
+    /**
+     * 指定同时读取的分区数，即同时占用的数据库连接数。缺省与分区数相同，但不超过连接池的最大连接数
+     * （无法获得连接池大小时为 {@link AsyncDAO#DEFAULT_POOL_SIZE}）。
+     * <p/>
+     * 本值不能超过连接池的最大连接数，否则在 ORDERED 模式下可能因为等待连接而无法继续。
+     *
+     * @param parallelism 同时读取的分区数，0 表示使用缺省值
+     *
+     * @return 新的选项
+     */
+    public ScanOptions parallelism(int parallelism) {
+        if (parallelism < 0) {
+            throw new IllegalArgumentException("Invalid parallelism " + parallelism);
+        }
+        return new ScanOptions(ordered, bufferSize, parallelism);
+    }
+
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    @Override
+    public String toString() {
+        return "ScanOptions{ordered=" + ordered + ", bufferSize=" + bufferSize + ", parallelism=" + parallelism + '}';
+    }
+}
@@ -0,0 +1,113 @@
+package com.hyd.dao;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 并行扫描的结果，包含每个分区的记录数和错误信息
+ *
+ * @author yiding.he
+ */
+public class ScanResult {
+
+    private final List<Partition> partitions;
+
+    ScanResult(List<Partition> partitions) {
+        this.partitions = Collections.unmodifiableList(partitions);
+    }
+
+    public List<Partition> getPartitions() {
+        return partitions;
+    }
+
+    /**
+     * @return 所有分区读取的记录总数
+     */
+    public long getRowCount() {
+        return partitions.stream().mapToLong(Partition::getRowCount).sum();
+    }
+
+    public boolean hasErrors() {
+        return partitions.stream().anyMatch(p -> p.getError() != null);
+    }
+
+    /**
+     * @return 读取失败的分区
+     */
+    public List<Partition> getFailedPartitions() {
+        return partitions.stream().filter(p -> p.getError() != null).collect(Collectors.toList());
+    }
+
+    @Override
+    public String toString() {
+        return "ScanResult{partitions=" + partitions + '}';
+    }
+
+    ////////////////////////////////////////////////////////////////
+
+    /**
+     * 一个分区，包含主键值范围 [lowerBound, upperBound)
+     */
+    public static class Partition {
+
+        private final int index;
+
+        private final Object lowerBound;
+
+        private final Object upperBound;
+
+        private volatile long rowCount;
+
+        private volatile Throwable error;
+
+        Partition(int index, Object lowerBound, Object upperBound) {
+            this.index = index;
+            this.lowerBound = lowerBound;
+            this.upperBound = upperBound;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * @return 范围下限（包含），第一个分区为 null
+         */
+        public Object getLowerBound() {
+            return lowerBound;
+        }
+
+        /**
+         * @return 范围上限（不包含），最后一个分区为 null
+         */
+        public Object getUpperBound() {
+            return upperBound;
+        }
+
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        void setRowCount(long rowCount) {
+            this.rowCount = rowCount;
+        }
+
+        /**
+         * @return 读取失败的原因，成功则为 null
+         */
+        public Throwable getError() {
+            return error;
+        }
+
+        void setError(Throwable error) {
+            this.error = error;
+        }
+
+        @Override
+        public String toString() {
+            return "Partition{index=" + index + ", lowerBound=" + lowerBound + ", upperBound=" + upperBound +
+                    ", rowCount=" + rowCount + (error == null ? "" : ", error=" + error) + '}';
+        }
+    }
+}
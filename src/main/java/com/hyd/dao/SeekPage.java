@@ -0,0 +1,29 @@
+package com.hyd.dao;
+
+import java.util.ArrayList;
+
+/**
+ * 键集分页（seek 分页）的查询结果，参考 {@link DAO#querySeek(SQL.Select, String, int, String)}
+ *
+ * @author yiding.he
+ */
+public class SeekPage<T> extends ArrayList<T> {
+
+    private final String nextToken;
+
+    public SeekPage(int initialCapacity, String nextToken) {
+        super(initialCapacity);
+        this.nextToken = nextToken;
+    }
+
+    /**
+     * @return 用于查询下一页的标记，如果没有下一页则为 null
+     */
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    public boolean hasNext() {
+        return nextToken != null;
+    }
+}
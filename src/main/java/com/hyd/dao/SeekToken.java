@@ -0,0 +1,146 @@
+package com.hyd.dao;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * 键集分页的翻页标记，内容是排序方式和上一页最后一条记录的排序字段值，编码为 URL 安全的 Base64 字符串。
+ * <p/>
+ * 标记只包含基本类型的值，不使用 Java 序列化，所以可以放心地从客户端接收。
+ *
+ * @author yiding.he
+ */
+class SeekToken {
+
+    private static final int VERSION = 1;
+
+    private static final int MAX_VALUES = 255;     // 值的个数用一个无符号字节保存
+
+    private SeekToken() {
+
+    }
+
+    static String encode(String orderKeys, Object[] values) {
+        if (values.length > MAX_VALUES) {
+            throw new DAOException("Seek pagination supports at most " + MAX_VALUES + " order keys");
+        }
+
+        try {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bos);
+
+            out.writeByte(VERSION);
+            out.writeUTF(orderKeys);
+            out.writeByte(values.length);
+
+            for (Object value : values) {
+                writeValue(out, value);
+            }
+
+            out.flush();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bos.toByteArray());
+        } catch (IOException e) {
+            throw new DAOException("Failed encoding seek token", e);
+        }
+    }
+
+    /**
+     * 解析翻页标记
+     *
+     * @param orderKeys 本次查询的排序方式，必须与生成标记时的一致
+     * @param keyCount  排序字段的个数
+     * @param token     翻页标记
+     *
+     * @return 上一页最后一条记录的排序字段值，个数与 keyCount 相同
+     *
+     * @throws DAOException 如果标记不正确
+     */
+    static Object[] decode(String orderKeys, int keyCount, String token) {
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(token.getBytes(StandardCharsets.US_ASCII));
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+
+            if (in.readByte() != VERSION || !in.readUTF().equals(orderKeys)) {
+                throw new DAOException("Seek token does not match order keys '" + orderKeys + "'");
+            }
+
+            // 先检查个数再分配数组，客户端提供的标记可能是任意内容
+            int count = in.readUnsignedByte();
+            if (count != keyCount) {
+                throw new DAOException("Seek token does not match order keys '" + orderKeys + "'");
+            }
+
+            Object[] values = new Object[count];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = readValue(in);
+            }
+            return values;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new DAOException("Invalid seek token '" + token + "'", e);
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            out.writeByte('L');
+            out.writeLong(((Number) value).longValue());
+        } else if (value instanceof BigDecimal || value instanceof BigInteger) {
+            out.writeByte('B');
+            out.writeUTF(value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString());
+        } else if (value instanceof Double || value instanceof Float) {
+            out.writeByte('F');
+            out.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof String) {
+            out.writeByte('S');
+            out.writeUTF((String) value);
+        } else if (value instanceof Timestamp) {
+            out.writeByte('T');
+            out.writeLong(((Timestamp) value).getTime());
+            out.writeInt(((Timestamp) value).getNanos());
+        } else if (value instanceof java.sql.Date) {
+            out.writeByte('d');
+            out.writeLong(((Date) value).getTime());
+        } else if (value instanceof Date) {
+            out.writeByte('D');
+            out.writeLong(((Date) value).getTime());
+        } else if (value instanceof Boolean) {
+            out.writeByte('Z');
+            out.writeBoolean((Boolean) value);
+        } else if (value == null) {
+            throw new DAOException("Seek pagination does not support null values in order keys");
+        } else {
+            throw new DAOException("Unsupported order key type " + value.getClass().getName());
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case 'L':
+                return in.readLong();
+            case 'B':
+                return new BigDecimal(in.readUTF());
+            case 'F':
+                return in.readDouble();
+            case 'S':
+                return in.readUTF();
+            case 'T':
+                Timestamp timestamp = new Timestamp(in.readLong());
+                timestamp.setNanos(in.readInt());
+                return timestamp;
+            case 'd':
+                return new java.sql.Date(in.readLong());
+            case 'D':
+                return new Date(in.readLong());
+            case 'Z':
+                return in.readBoolean();
+            default:
+                throw new IOException("Unknown value type " + type);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.hyd.dao.cache;
+
+import com.hyd.dao.util.SqlTableExtractor;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * DAO 使用的数据缓存。通过 DAO 修改数据之后，DAO 调用这里的方法使相关的缓存失效。
+ *
+ * @author yiding.he
+ */
+public interface DataCache {
+
+    /**
+     * 使涉及指定表的缓存失效
+     *
+     * @param dsName 数据源名称
+     * @param tables 表名
+     */
+    void invalidate(String dsName, Collection<String> tables);
+
+    /**
+     * 使指定数据源的所有缓存失效
+     *
+     * @param dsName 数据源名称
+     */
+    void invalidateAll(String dsName);
+
+    /**
+     * 清空缓存
+     */
+    void clear();
+
+    /**
+     * 根据执行的语句使缓存失效。无法识别语句修改的表时，整个数据源的缓存失效
+     *
+     * @param dsName 数据源名称
+     * @param sql    执行的语句
+     */
+    default void invalidate(String dsName, String sql) {
+        Set<String> tables = SqlTableExtractor.getTables(sql);
+        if (tables == null) {
+            invalidateAll(dsName);
+        } else {
+            invalidate(dsName, tables);
+        }
+    }
+
+    /**
+     * 使指定的一条记录的缓存失效，缺省使整个表的缓存失效
+     *
+     * @param dsName 数据源名称
+     * @param table  表名
+     * @param key    主键值
+     */
+    default void invalidateKey(String dsName, String table, Object key) {
+        invalidate(dsName, Collections.singleton(table));
+    }
+}
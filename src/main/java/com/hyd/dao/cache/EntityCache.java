@@ -0,0 +1,259 @@
+package com.hyd.dao.cache;
+
+import com.hyd.dao.util.MapCacheUtils;
+import com.hyd.dao.util.SqlTableExtractor;
+import com.hyd.dao.util.TypeUtil;
+
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 按主键缓存 {@link com.hyd.dao.DAO#find(Class, String, Object)} 查询到的记录。
+ * <p/>
+ * 同一个（数据源，表，主键）的记录在有效期内只查询一次，之后返回同一个对象，所以调用者不应修改它。
+ * 通过 DAO 执行 deleteByKey 时只有该记录失效；insert、delete 和其他修改语句使整个表的记录失效。
+ * 事务中的 find 不使用缓存，所以事务中修改过的记录不会从缓存中读到旧的值。
+ * <p/>
+ * 通过 {@link com.hyd.dao.DataSources#setEntityCache(String, EntityCache)} 启用。本对象是线程安全的。
+ *
+ * @author yiding.he
+ */
+public class EntityCache implements DataCache {
+
+    /**
+     * 缓存对象的引用方式
+     */
+    public enum ValueStrength {
+
+        /**
+         * 强引用，直到淘汰或过期
+         */
+        STRONG,
+
+        /**
+         * 软引用，内存不足时可以被回收
+         */
+        SOFT,
+
+        /**
+         * 弱引用，调用者不再持有对象时就可以被回收
+         */
+        WEAK
+    }
+
+    public static final int DEFAULT_MAX_SIZE = 10000;
+
+    public static final long DEFAULT_TTL_MILLIS = 60000;
+
+    private final long ttlMillis;
+
+    private final ValueStrength valueStrength;
+
+    private final Map<RowKey, Entry> entries;
+
+    // 使整个表（或整个数据源）失效时递增，缓存的记录保存其读取时的值
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    // 表中有任何记录失效时递增，用于判断读取期间是否发生了修改
+    private final Map<String, AtomicLong> writeCounters = new ConcurrentHashMap<>();
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    public EntityCache() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_TTL_MILLIS, ValueStrength.STRONG);
+    }
+
+    /**
+     * 构造方法
+     *
+     * @param maxSize       最多缓存多少条记录，超过时淘汰最近最少使用的
+     * @param ttlMillis     记录的有效期（毫秒）
+     * @param valueStrength 缓存对象的引用方式
+     */
+    public EntityCache(int maxSize, long ttlMillis, ValueStrength valueStrength) {
+        if (maxSize <= 0 || ttlMillis <= 0) {
+            throw new IllegalArgumentException("Invalid cache size " + maxSize + " or ttl " + ttlMillis);
+        }
+        this.ttlMillis = ttlMillis;
+        this.valueStrength = valueStrength;
+        this.entries = MapCacheUtils.newLRUCache(maxSize, true);
+    }
+
+    /**
+     * 从缓存中获取记录，如果没有则查询并缓存。查询结果为 null 时不缓存
+     *
+     * @param dsName     数据源名称
+     * @param tableName  表名
+     * @param key        主键值
+     * @param clazz      包装类
+     * @param findAction 查询记录的操作
+     *
+     * @return 记录
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String dsName, String tableName, Object key, Class<T> clazz, Supplier<T> findAction) {
+        String table = SqlTableExtractor.normalizeTableName(tableName);
+        String tableKey = dsName + ":" + table;
+        RowKey rowKey = new RowKey(dsName, table, TypeUtil.normalizeKey(key));
+
+        Class<?> type = clazz == null ? Object.class : clazz;      // 没有包装类时查询结果为 Row 对象
+
+        Entry entry = entries.get(rowKey);
+        if (entry != null && entry.isValid(dsName, tableKey)) {
+            Supplier<Object> reference = entry.values.get(type);
+            Object value = reference == null ? null : reference.get();
+            if (value != null) {
+                hitCount.incrementAndGet();
+                return (T) value;
+            }
+        }
+
+        missCount.incrementAndGet();
+
+        // 计数必须在查询之前获取，查询期间有修改时不缓存本次的结果
+        long dsGeneration = counter(generations, dsName).get();
+        long tableGeneration = counter(generations, tableKey).get();
+        long writes = counter(writeCounters, tableKey).get();
+
+        T value = findAction.get();
+
+        if (value != null && dsGeneration == counter(generations, dsName).get()
+                && writes == counter(writeCounters, tableKey).get()) {
+
+            synchronized (entries) {
+                Entry current = entries.get(rowKey);
+                if (current == null || !current.isValid(dsName, tableKey)) {
+                    current = new Entry(dsGeneration, tableGeneration);
+                    entries.put(rowKey, current);
+                }
+                current.values.put(type, reference(value));
+            }
+        }
+
+        return value;
+    }
+
+    @Override
+    public void invalidate(String dsName, Collection<String> tables) {
+        for (String table : tables) {
+            String tableKey = dsName + ":" + SqlTableExtractor.normalizeTableName(table);
+            counter(generations, tableKey).incrementAndGet();
+            counter(writeCounters, tableKey).incrementAndGet();
+        }
+    }
+
+    @Override
+    public void invalidateKey(String dsName, String tableName, Object key) {
+        String table = SqlTableExtractor.normalizeTableName(tableName);
+        counter(writeCounters, dsName + ":" + table).incrementAndGet();
+        entries.remove(new RowKey(dsName, table, TypeUtil.normalizeKey(key)));
+    }
+
+    @Override
+    public void invalidateAll(String dsName) {
+        counter(generations, dsName).incrementAndGet();
+    }
+
+    @Override
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "EntityCache{size=" + size() + ", hits=" + getHitCount() + ", misses=" + getMissCount() + '}';
+    }
+
+    ////////////////////////////////////////////////////////////////
+
+    private static AtomicLong counter(Map<String, AtomicLong> counters, String key) {
+        return counters.computeIfAbsent(key, k -> new AtomicLong());
+    }
+
+    private Supplier<Object> reference(Object value) {
+        switch (valueStrength) {
+            case SOFT:
+                return new SoftReference<>(value)::get;
+            case WEAK:
+                return new WeakReference<>(value)::get;
+            default:
+                return () -> value;
+        }
+    }
+
+    private class Entry {
+
+        private final Map<Class<?>, Supplier<Object>> values = new ConcurrentHashMap<>();
+
+        private final long dsGeneration;
+
+        private final long tableGeneration;
+
+        private final long expireTime;
+
+        private Entry(long dsGeneration, long tableGeneration) {
+            this.dsGeneration = dsGeneration;
+            this.tableGeneration = tableGeneration;
+            this.expireTime = System.currentTimeMillis() + ttlMillis;
+        }
+
+        private boolean isValid(String dsName, String tableKey) {
+            return System.currentTimeMillis() <= expireTime
+                    && dsGeneration == counter(generations, dsName).get()
+                    && tableGeneration == counter(generations, tableKey).get();
+        }
+    }
+
+    private static class RowKey {
+
+        private final String dsName;
+
+        private final String table;
+
+        private final Object key;
+
+        private RowKey(String dsName, String table, Object key) {
+            this.dsName = dsName;
+            this.table = table;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RowKey)) {
+                return false;
+            }
+            RowKey rowKey = (RowKey) o;
+            return Objects.equals(dsName, rowKey.dsName) && table.equals(rowKey.table) &&
+                    Objects.equals(key, rowKey.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dsName, table, key);
+        }
+    }
+}
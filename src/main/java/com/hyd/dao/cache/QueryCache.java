@@ -0,0 +1,293 @@
+package com.hyd.dao.cache;
+
+import com.hyd.dao.util.MapCacheUtils;
+import com.hyd.dao.util.SqlTableExtractor;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 查询结果缓存，适用于很少修改、但读取频繁的表（例如配置表）。
+ * <p/>
+ * 缓存以（数据源，SQL 语句，参数，包装类，查询范围）为键，有数量上限和有效期。每个缓存的结果
+ * 记录它所涉及的表；通过 DAO 修改这些表（execute、insert、delete 等）时，结果自动失效。
+ * 无法识别所涉及的表的查询不会被缓存，无法识别所修改的表的语句会使整个数据源的缓存失效。
+ * 不通过 DAO 的修改（例如其他进程）只能等待缓存过期。
+ * <p/>
+ * 缓存的结果列表每次返回一个副本，但列表中的元素是共用的，调用者不应修改。
+ * <p/>
+ * 通过 {@link com.hyd.dao.DataSources#setQueryCache(String, QueryCache)} 启用，多个数据源可以共用一个缓存。
+ * 本对象是线程安全的。
+ *
+ * @author yiding.he
+ */
+public class QueryCache implements DataCache {
+
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    public static final long DEFAULT_TTL_MILLIS = 60000;
+
+    private final long ttlMillis;
+
+    private final Map<Key, Entry> entries;
+
+    // 每个表（以及每个数据源）的版本号，修改时递增，缓存的结果记录查询时的版本号
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    private volatile Set<String> cacheableTables;
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    private final AtomicLong invalidationCount = new AtomicLong();
+
+    public QueryCache() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_TTL_MILLIS);
+    }
+
+    /**
+     * 构造方法
+     *
+     * @param maxSize   最多缓存多少个查询结果，超过时淘汰最近最少使用的
+     * @param ttlMillis 查询结果的有效期（毫秒）
+     */
+    public QueryCache(int maxSize, long ttlMillis) {
+        if (maxSize <= 0 || ttlMillis <= 0) {
+            throw new IllegalArgumentException("Invalid cache size " + maxSize + " or ttl " + ttlMillis);
+        }
+        this.ttlMillis = ttlMillis;
+        this.entries = MapCacheUtils.newLRUCache(maxSize, true);
+    }
+
+    /**
+     * 指定只缓存哪些表的查询。缺省缓存所有能够识别所涉及的表的查询
+     *
+     * @param tables 表名，为空表示不限制
+     */
+    public void setCacheableTables(String... tables) {
+        if (tables == null || tables.length == 0) {
+            this.cacheableTables = null;
+        } else {
+            Set<String> set = new HashSet<>();
+            for (String table : tables) {
+                set.add(SqlTableExtractor.normalizeTableName(table));
+            }
+            this.cacheableTables = set;
+        }
+    }
+
+    /**
+     * 从缓存中获取查询结果，如果没有则执行查询并缓存
+     *
+     * @param dsName      数据源名称
+     * @param sql         查询语句
+     * @param params      参数
+     * @param clazz       包装类
+     * @param startPos    开始位置
+     * @param endPos      结束位置
+     * @param queryAction 执行查询的操作
+     *
+     * @return 查询结果
+     */
+    public <T> List<T> get(
+            String dsName, String sql, List<Object> params, Class<T> clazz,
+            int startPos, int endPos, Supplier<List<T>> queryAction) {
+
+        Set<String> tables = SqlTableExtractor.getTables(sql);
+        if (tables == null || !isCacheable(tables)) {
+            return queryAction.get();
+        }
+
+        Key key = new Key(dsName, normalize(sql), params, clazz, startPos, endPos);
+        Entry entry = entries.get(key);
+
+        if (entry != null && entry.isValid()) {
+            hitCount.incrementAndGet();
+            return new ArrayList<>(entry.getValue());
+        }
+
+        missCount.incrementAndGet();
+
+        // 版本号必须在查询之前获取，这样查询期间发生的修改会使本次的结果失效
+        String[] versionKeys = new String[tables.size() + 1];
+        versionKeys[0] = dsName;
+        int i = 1;
+        for (String table : tables) {
+            versionKeys[i++] = versionKey(dsName, table);
+        }
+        long[] versionValues = new long[versionKeys.length];
+        for (int j = 0; j < versionKeys.length; j++) {
+            versionValues[j] = getVersion(versionKeys[j]).get();
+        }
+
+        List<T> result = queryAction.get();
+        if (result != null) {
+            entries.put(key, new Entry(new ArrayList<>(result), versionKeys, versionValues));
+        }
+        return result;
+    }
+
+    private boolean isCacheable(Set<String> tables) {
+        Set<String> cacheable = this.cacheableTables;
+        return cacheable == null || cacheable.containsAll(tables);
+    }
+
+    /**
+     * 使涉及指定表的查询结果失效
+     *
+     * @param dsName 数据源名称
+     * @param tables 表名
+     */
+    @Override
+    public void invalidate(String dsName, Collection<String> tables) {
+        for (String table : tables) {
+            getVersion(versionKey(dsName, SqlTableExtractor.normalizeTableName(table))).incrementAndGet();
+        }
+        invalidationCount.incrementAndGet();
+    }
+
+    /**
+     * 使指定数据源的所有查询结果失效
+     *
+     * @param dsName 数据源名称
+     */
+    @Override
+    public void invalidateAll(String dsName) {
+        getVersion(dsName).incrementAndGet();
+        invalidationCount.incrementAndGet();
+    }
+
+    /**
+     * 清空缓存，不影响统计数字
+     */
+    @Override
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getInvalidationCount() {
+        return invalidationCount.get();
+    }
+
+    /**
+     * @return 命中率，没有查询过时为 0
+     */
+    public double getHitRate() {
+        long hits = hitCount.get();
+        long total = hits + missCount.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryCache{size=" + size() + ", hits=" + getHitCount() + ", misses=" + getMissCount() +
+                ", invalidations=" + getInvalidationCount() + '}';
+    }
+
+    ////////////////////////////////////////////////////////////////
+
+    private AtomicLong getVersion(String versionKey) {
+        return versions.computeIfAbsent(versionKey, k -> new AtomicLong());
+    }
+
+    private static String versionKey(String dsName, String table) {
+        return dsName + ":" + table;
+    }
+
+    private static String normalize(String sql) {
+        return sql.trim().replaceAll("\\s+", " ");
+    }
+
+    private class Entry {
+
+        private final List<?> value;
+
+        private final String[] versionKeys;
+
+        private final long[] versionValues;
+
+        private final long expireTime;
+
+        private Entry(List<?> value, String[] versionKeys, long[] versionValues) {
+            this.value = value;
+            this.versionKeys = versionKeys;
+            this.versionValues = versionValues;
+            this.expireTime = System.currentTimeMillis() + ttlMillis;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> List<T> getValue() {
+            return (List<T>) value;
+        }
+
+        private boolean isValid() {
+            if (System.currentTimeMillis() > expireTime) {
+                return false;
+            }
+            for (int i = 0; i < versionKeys.length; i++) {
+                if (getVersion(versionKeys[i]).get() != versionValues[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static class Key {
+
+        private final String dsName;
+
+        private final String sql;
+
+        private final List<Object> params;
+
+        private final Class<?> clazz;
+
+        private final int startPos;
+
+        private final int endPos;
+
+        private Key(String dsName, String sql, List<Object> params, Class<?> clazz, int startPos, int endPos) {
+            this.dsName = dsName;
+            this.sql = sql;
+            this.params = params == null ? Collections.emptyList() : new ArrayList<>(params);
+            this.clazz = clazz;
+            this.startPos = startPos;
+            this.endPos = endPos;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return startPos == key.startPos && endPos == key.endPos &&
+                    Objects.equals(dsName, key.dsName) && sql.equals(key.sql) &&
+                    params.equals(key.params) && Objects.equals(clazz, key.clazz);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dsName, sql, params, clazz, startPos, endPos);
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package com.hyd.dao.database;
 
 import com.hyd.dao.DAOException;
+import com.hyd.dao.NumericMode;
+import com.hyd.dao.cache.EntityCache;
+import com.hyd.dao.cache.QueryCache;
+import com.hyd.dao.database.dialect.Dialect;
+import com.hyd.dao.database.dialect.Dialects;
 import com.hyd.dao.database.executor.DefaultExecutor;
 import com.hyd.dao.database.executor.Executor;
 
@@ -19,6 +24,14 @@ public class ExecutorFactory {
 
     private String dataSourceName;
 
+    private volatile NumericMode numericMode = NumericMode.BIGDECIMAL;
+
+    private volatile Dialect dialect;       // 同一个数据源的方言只需要判断一次
+
+    private volatile QueryCache queryCache;
+
+    private volatile EntityCache entityCache;
+
     /**
      * 构造方法
      *
@@ -29,6 +42,49 @@ public class ExecutorFactory {
         this.dataSource = dataSource;
     }
 
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public NumericMode getNumericMode() {
+        return numericMode;
+    }
+
+    /**
+     * 设置查询结果中数字类型字段的处理方式，对之后创建的 Executor 对象有效
+     *
+     * @param numericMode 数字类型字段的处理方式
+     */
+    public void setNumericMode(NumericMode numericMode) {
+        this.numericMode = numericMode == null ? NumericMode.BIGDECIMAL : numericMode;
+    }
+
+    public QueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    /**
+     * 设置查询结果缓存
+     *
+     * @param queryCache 查询结果缓存，为 null 表示不缓存
+     */
+    public void setQueryCache(QueryCache queryCache) {
+        this.queryCache = queryCache;
+    }
+
+    public EntityCache getEntityCache() {
+        return entityCache;
+    }
+
+    /**
+     * 设置按主键查询的记录缓存
+     *
+     * @param entityCache 记录缓存，为 null 表示不缓存
+     */
+    public void setEntityCache(EntityCache entityCache) {
+        this.entityCache = entityCache;
+    }
+
     /**
      * 构造一个 Executor 对象。如果 standalone 为 true，即使当前处于事务当中，这个
      * Executor 对象也会使用新的数据库连接，从而独立于事务执行数据库操作。
@@ -78,12 +134,39 @@ public class ExecutorFactory {
 
         try {
             Connection connection = getConnection(autoCommit);
-            return new DefaultExecutor(dataSourceName, connection);
+            Executor executor = new DefaultExecutor(dataSourceName, connection, getDialect(connection));
+            executor.setNumericMode(numericMode);
+            return executor;
         } catch (SQLException e) {
             throw new DAOException(e);
         }
     }
 
+    /**
+     * 获取数据源的方言。第一次调用时根据连接的元数据判断，之后直接返回
+     *
+     * @param connection 数据源的一个连接
+     *
+     * @return 数据库方言
+     *
+     * @throws SQLException 如果获取连接的元数据失败
+     */
+    public Dialect getDialect(Connection connection) throws SQLException {
+        if (dialect == null) {
+            dialect = Dialects.of(connection);
+        }
+        return dialect;
+    }
+
+    /**
+     * 指定数据源的方言，不再自动判断
+     *
+     * @param dialect 数据库方言，为 null 表示自动判断
+     */
+    public void setDialect(Dialect dialect) {
+        this.dialect = dialect;
+    }
+
     /**
      * 直接获取一个数据库连接（这是一个不安全的方法！）
      *
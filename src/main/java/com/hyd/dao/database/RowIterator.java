@@ -1,8 +1,9 @@
 package com.hyd.dao.database;
 
 import com.hyd.dao.DAOException;
+import com.hyd.dao.NumericMode;
 import com.hyd.dao.Row;
-import com.hyd.dao.database.type.TypeConverter;
+import com.hyd.dao.database.type.BeanMapper;
 import com.hyd.dao.log.Logger;
 import com.hyd.dao.util.ResultSetUtil;
 
@@ -12,7 +13,11 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * <p>查询结果迭代器。当查询返回大量结果，又没有足够的内存进行缓存时，可以使用 DAO.queryIterator
@@ -44,8 +49,14 @@ public class RowIterator implements Closeable {
 
     private Consumer<Row> rowPreProcessor;
 
+    private RowSchema schema;
+
+    private NumericMode numericMode = NumericMode.BIGDECIMAL;
+
     private boolean closed;
 
+    private Runnable closeHandler;
+
     public RowIterator(ResultSet rs) {
         this(rs, null);
     }
@@ -59,10 +70,23 @@ public class RowIterator implements Closeable {
         }
     }
 
+    public void setNumericMode(NumericMode numericMode) {
+        this.numericMode = numericMode;
+    }
+
     public void setRowPreProcessor(Consumer<Row> rowPreProcessor) {
         this.rowPreProcessor = rowPreProcessor;
     }
 
+    /**
+     * 设置迭代器关闭之后要执行的操作
+     *
+     * @param closeHandler 关闭之后要执行的操作
+     */
+    public void setCloseHandler(Runnable closeHandler) {
+        this.closeHandler = closeHandler;
+    }
+
     /**
      * 获得是否还有查询结果
      *
@@ -96,7 +120,11 @@ public class RowIterator implements Closeable {
      */
     public Row getRow() {
         try {
-            Row row = ResultSetUtil.readRow(rs);
+            if (schema == null) {
+                schema = RowSchema.of(rs, numericMode);
+            }
+
+            Row row = ResultSetUtil.readRow(rs, schema);
             if (this.rowPreProcessor != null) {
                 this.rowPreProcessor.accept(row);
             }
@@ -142,9 +170,36 @@ public class RowIterator implements Closeable {
             }
 
             closed = true;
+
+            if (closeHandler != null) {
+                closeHandler.run();
+            }
         }
     }
 
+    /**
+     * 将迭代器转换为 Stream，参考 {@link #stream(Class)}
+     *
+     * @return 查询记录的 Stream
+     */
+    public Stream<Row> stream() {
+        return stream(null);
+    }
+
+    /**
+     * 将迭代器转换为 Stream。记录在 Stream 处理时才逐条读取，读完或者处理出错时迭代器自动关闭。
+     * <p/>
+     * 如果没有读完（例如使用了 findFirst()/limit()），需要关闭 Stream 才能释放数据库连接，
+     * 所以请使用 try-with-resources 语句。
+     *
+     * @param type 包装类，为 null 或 Row.class 时返回 Row 对象
+     *
+     * @return 查询记录的 Stream
+     */
+    public <T> Stream<T> stream(Class<T> type) {
+        return StreamSupport.stream(new RowSpliterator<>(type), false).onClose(this::close);
+    }
+
     @SuppressWarnings("unchecked")
     public <T> void iterate(Class<T> type, Consumer<T> consumer) {
 
@@ -153,11 +208,14 @@ public class RowIterator implements Closeable {
         }
 
         try {
+            BeanMapper<T> mapper = null;
             while (this.next()) {
                 try {
                     Row row = this.getRow();
-                    T t = (T) TypeConverter.convertRow(type, row);
-                    consumer.accept(t);
+                    if (mapper == null) {
+                        mapper = BeanMapper.of(type, row.keySet());
+                    }
+                    consumer.accept(mapper.map(row));
                 } catch (Exception e) {
                     throw new DAOException(e);
                 }
@@ -178,4 +236,48 @@ public class RowIterator implements Closeable {
             close();
         }
     }
+
+    ////////////////////////////////////////////////////////////////
+
+    private class RowSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+        private final Class<T> type;
+
+        private BeanMapper<T> mapper;
+
+        private RowSpliterator(Class<T> type) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.type = type == Row.class ? null : type;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super T> action) {
+            try {
+                if (!next()) {
+                    return false;
+                }
+                action.accept(type == null ? (T) getRow() : readObject());
+                return true;
+            } catch (RuntimeException | Error e) {
+                close();
+                throw e;
+            }
+        }
+
+        // 有包装类时直接从 ResultSet 读取对象，不生成中间的 Row 对象
+        private T readObject() {
+            try {
+                if (mapper == null) {
+                    if (schema == null) {
+                        schema = RowSchema.of(rs, numericMode);
+                    }
+                    mapper = ResultSetUtil.createBeanMapper(schema, type);
+                }
+                return mapper.read(rs);
+            } catch (IOException | SQLException e) {
+                throw new DAOException("failed to read record", e);
+            }
+        }
+    }
 }
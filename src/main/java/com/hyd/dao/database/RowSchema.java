@@ -0,0 +1,189 @@
+package com.hyd.dao.database;
+
+import com.hyd.dao.NumericMode;
+import com.hyd.dao.util.ResultSetUtil;
+import com.hyd.dao.util.TypeUtil;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 查询结果的字段结构。每个 ResultSet 只需要生成一次，由读取该 ResultSet 的所有行共用，
+ * 避免逐行调用 ResultSetMetaData 的方法和转换字段名大小写。
+ * <p/>
+ * 同一个查询结果的所有 {@link com.hyd.dao.Row} 对象共用本对象中的字段名索引，
+ * 每个 Row 只需保存一个值数组。本对象生成后不可修改。
+ *
+ * @author yiding.he
+ */
+public class RowSchema implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String[] labels;
+
+    private final int[] columnTypes;
+
+    private final Map<String, Integer> index;
+
+    private final NumericMode numericMode;
+
+    private transient TypeUtil.ValueConverter[] converters;
+
+    /**
+     * 根据 ResultSet 的字段信息生成结构
+     *
+     * @param rs 查询结果
+     *
+     * @return 查询结果的字段结构
+     *
+     * @throws SQLException 如果获取字段信息失败
+     */
+    public static RowSchema of(ResultSet rs) throws SQLException {
+        return of(rs, NumericMode.BIGDECIMAL);
+    }
+
+    /**
+     * 根据 ResultSet 的字段信息生成结构
+     *
+     * @param rs          查询结果
+     * @param numericMode 数字类型字段的处理方式
+     *
+     * @return 查询结果的字段结构
+     *
+     * @throws SQLException 如果获取字段信息失败
+     */
+    public static RowSchema of(ResultSet rs, NumericMode numericMode) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int columnCount = meta.getColumnCount();
+
+        String[] labels = new String[columnCount];
+        int[] columnTypes = new int[columnCount];
+
+        for (int i = 0; i < columnCount; i++) {
+            String label = meta.getColumnLabel(i + 1).toLowerCase().intern();
+
+            // 分页语句包装出来的字段不属于查询结果
+            labels[i] = label.equals(ResultSetUtil.PAGNATION_WRAPPER_COLUMN_NAME) ||
+                    label.equals(ResultSetUtil.WINDOW_COUNT_COLUMN_NAME) ? null : label;
+            columnTypes[i] = meta.getColumnType(i + 1);
+        }
+
+        return new RowSchema(labels, columnTypes, numericMode);
+    }
+
+    public RowSchema(String[] labels, int[] columnTypes) {
+        this(labels, columnTypes, NumericMode.BIGDECIMAL);
+    }
+
+    public RowSchema(String[] labels, int[] columnTypes, NumericMode numericMode) {
+        this.labels = labels.clone();
+        this.columnTypes = columnTypes;
+        this.numericMode = numericMode;
+
+        // 重名的字段以最后一个为准，前面的按需要忽略的字段处理，这样 Row 中每个字段名只出现一次
+        Map<String, Integer> index = new HashMap<>(labels.length * 2);
+        for (int i = this.labels.length - 1; i >= 0; i--) {
+            if (this.labels[i] != null && index.putIfAbsent(this.labels[i], i) != null) {
+                this.labels[i] = null;
+            }
+        }
+        this.index = Collections.unmodifiableMap(index);
+    }
+
+    private TypeUtil.ValueConverter[] getConverters() {
+        if (converters == null) {
+            TypeUtil.ValueConverter[] array = new TypeUtil.ValueConverter[columnTypes.length];
+            for (int i = 0; i < columnTypes.length; i++) {
+                array[i] = TypeUtil.getValueConverter(columnTypes[i], numericMode);
+            }
+            converters = array;
+        }
+        return converters;
+    }
+
+    /**
+     * 查找字段位置，字段名不分大小写
+     *
+     * @param label 字段名
+     *
+     * @return 字段位置，从 0 开始。如果字段不存在则返回 -1
+     */
+    public int indexOf(String label) {
+        Integer i = index.get(label);
+        if (i == null) {
+            i = index.get(label.toLowerCase());
+        }
+        return i == null ? -1 : i;
+    }
+
+    public int getColumnCount() {
+        return labels.length;
+    }
+
+    /**
+     * 获取字段名（小写）
+     *
+     * @param index 字段位置，从 0 开始
+     *
+     * @return 字段名。如果该字段需要忽略，则返回 null
+     */
+    public String getLabel(int index) {
+        return labels[index];
+    }
+
+    /**
+     * 获取所有字段名（小写），需要忽略的字段为 null
+     *
+     * @return 所有字段名
+     */
+    public String[] getLabels() {
+        return labels;
+    }
+
+    /**
+     * 获取字段的 SQL 类型
+     *
+     * @param index 字段位置，从 0 开始
+     *
+     * @return 字段的 SQL 类型，参考 {@link java.sql.Types}
+     */
+    public int getColumnType(int index) {
+        return columnTypes[index];
+    }
+
+    public int[] getColumnTypes() {
+        return columnTypes;
+    }
+
+    public NumericMode getNumericMode() {
+        return numericMode;
+    }
+
+    /**
+     * 从 ResultSet 的当前行读取字段值，并转换为 Java 类型
+     *
+     * @param rs    已经移至当前行的查询结果
+     * @param index 字段位置，从 0 开始
+     *
+     * @return 转换后的值
+     *
+     * @throws SQLException 如果读取失败
+     * @throws IOException  如果读取 LOB 字段失败
+     */
+    public Object readValue(ResultSet rs, int index) throws SQLException, IOException {
+        return getConverters()[index].convert(rs.getObject(index + 1));
+    }
+
+    @Override
+    public String toString() {
+        return "RowSchema{labels=" + Arrays.toString(labels) + ", columnTypes=" + Arrays.toString(columnTypes) + '}';
+    }
+}
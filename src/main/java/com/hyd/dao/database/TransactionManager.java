@@ -6,7 +6,9 @@ import com.hyd.dao.log.Logger;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -39,6 +41,12 @@ public class TransactionManager {
 
     private static ThreadLocal<Map<Integer, Integer>> isolations = new ThreadLocal<Map<Integer, Integer>>();
 
+    /**
+     * 每一层事务结束（提交或回退）之后要执行的操作
+     */
+    private static ThreadLocal<Map<Integer, List<Runnable>>> completionActions =
+            ThreadLocal.withInitial(HashMap::new);
+
     /**
      * 判断当前线程是否处于事务当中
      *
@@ -107,6 +115,35 @@ public class TransactionManager {
         return isolationMap.containsKey(level) ? isolationMap.get(level) : DEFAULT_ISOLATION_LEVEL;
     }
 
+    /**
+     * 登记当前级别事务结束（提交或回退）之后要执行的操作。如果当前不处于事务中，则立即执行
+     *
+     * @param action 要执行的操作
+     */
+    public static void afterCompletion(Runnable action) {
+        if (!isInTransaction()) {
+            action.run();
+            return;
+        }
+
+        completionActions.get().computeIfAbsent(getLevel(), l -> new ArrayList<>()).add(action);
+    }
+
+    private static void runCompletionActions(int level) {
+        List<Runnable> actions = completionActions.get().remove(level);
+        if (actions == null) {
+            return;
+        }
+
+        for (Runnable action : actions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                LOG.error("Transaction completion action failed", e);
+            }
+        }
+    }
+
     /**
      * 开始一个事务
      */
@@ -141,6 +178,7 @@ public class TransactionManager {
 
         LOG.info(() -> "Transaction level " + _level + " commited.");
         level.set(_level - 1);
+        runCompletionActions(_level);
     }
 
     /**
@@ -159,6 +197,7 @@ public class TransactionManager {
 
         LOG.info(() -> "Transaction level " + _level + " rollbacked.");
         level.set(_level - 1);
+        runCompletionActions(_level);
     }
 
     /**
@@ -18,15 +18,18 @@ public class DeleteCommandBuilder {
     }
 
     public static Command build(Connection conn, String tableName, Object object) throws SQLException {
-        FQN fqn = new FQN(conn, tableName);
-        ColumnInfo[] infos = CommandBuilderHelper.getHelper(conn).getColumnInfos(fqn.getSchema("%"), fqn.getName());
-        return buildCommand(tableName, infos, object, conn);
+        return build(CommandBuilderHelper.getHelper(conn), tableName, object);
+    }
+
+    public static Command build(CommandBuilderHelper helper, String tableName, Object object) throws SQLException {
+        FQN fqn = helper.getFQN(tableName);
+        ColumnInfo[] infos = helper.getColumnInfos(fqn.getSchema("%"), fqn.getName());
+        return buildCommand(tableName, infos, object, helper);
     }
 
     private static Command buildCommand(
-            String tableName, ColumnInfo[] infos, Object object, Connection conn) throws SQLException {
+            String tableName, ColumnInfo[] infos, Object object, CommandBuilderHelper helper) throws SQLException {
 
-        final CommandBuilderHelper helper = CommandBuilderHelper.getHelper(conn);
         String command = "delete from " + tableName;
         String whereMarks = "";
         List<Object> whereParams = new ArrayList<Object>();
@@ -53,9 +56,11 @@ public class DeleteCommandBuilder {
     }
 
     public static Command buildByKey(Connection connection, String tableName, Object key) throws SQLException {
-        FQN fqn = new FQN(connection, tableName);
-        final CommandBuilderHelper helper = CommandBuilderHelper.getHelper(connection);
+        return buildByKey(CommandBuilderHelper.getHelper(connection), tableName, key);
+    }
 
+    public static Command buildByKey(CommandBuilderHelper helper, String tableName, Object key) throws SQLException {
+        FQN fqn = helper.getFQN(tableName);
         ColumnInfo[] infos = helper.getColumnInfos(fqn.getSchema("%"), fqn.getName());
 
         String statement = "delete from " + tableName + " where ";
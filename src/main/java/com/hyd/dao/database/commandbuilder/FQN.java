@@ -17,12 +17,22 @@ public class FQN {
     private String name;
 
     public FQN(Connection conn, String fqn) throws SQLException {
+        this(fqn != null && fqn.contains(".") ? null : conn.getMetaData().getUserName(), fqn);
+    }
+
+    /**
+     * 构造方法
+     *
+     * @param defaultSchema 当 fqn 中不包含 schema 时使用的 schema
+     * @param fqn           表名，可以是 schema.table 的形式
+     */
+    public FQN(String defaultSchema, String fqn) {
         if (Str.isEmpty(fqn)) {
             throw new IllegalArgumentException("FQN parameter cannot be empty");
         }
 
         if (!fqn.contains(".")) {
-            schema = conn.getMetaData().getUserName();
+            schema = defaultSchema;
             name = fqn;
         } else {
             String[] splitted = fqn.split("[.]");
@@ -4,7 +4,6 @@ import com.hyd.dao.BatchCommand;
 import com.hyd.dao.DAO;
 import com.hyd.dao.DAOException;
 import com.hyd.dao.database.ColumnInfo;
-import com.hyd.dao.database.DatabaseType;
 import com.hyd.dao.database.commandbuilder.helper.CommandBuilderHelper;
 import com.hyd.dao.util.Str;
 
@@ -40,8 +39,28 @@ public class InsertCommandBuilder {
             return BatchCommand.EMPTY;
         }
 
-        final CommandBuilderHelper helper = CommandBuilderHelper.getHelper(conn);
-        ColumnInfo[] infos = getBatchColumnInfo(conn, tableName, helper, objects.get(0));
+        return buildBatch(CommandBuilderHelper.getHelper(conn), tableName, objects);
+    }
+
+    /**
+     * 构造一个批处理命令
+     *
+     * @param helper    与数据库连接绑定的 CommandBuilderHelper 对象
+     * @param tableName 表名
+     * @param objects   要插入的记录对象
+     *
+     * @return 批处理插入命令
+     *
+     * @throws java.sql.SQLException 如果获取数据库信息失败
+     */
+    public static BatchCommand buildBatch(
+            CommandBuilderHelper helper, String tableName, List objects) throws SQLException {
+
+        if (objects == null || objects.isEmpty()) {
+            return BatchCommand.EMPTY;
+        }
+
+        ColumnInfo[] infos = getBatchColumnInfo(tableName, helper, objects.get(0));
 
         String statement = "insert into " + helper.getTableNameForSql(tableName) + "(";
         String values = "";
@@ -73,11 +92,34 @@ public class InsertCommandBuilder {
         return bc;
     }
 
+    /**
+     * 根据批处理插入命令生成一次插入多行的语句，例如 insert into t(a,b) values (?,?),(?,?)
+     *
+     * @param command  由 {@link #buildBatch(CommandBuilderHelper, String, List)} 生成的批处理命令
+     * @param rowCount 行数
+     *
+     * @return 插入语句，参数依次为每一行的参数
+     */
+    public static String buildMultiRowStatement(BatchCommand command, int rowCount) {
+        String statement = command.getCommand();
+        if (rowCount <= 1) {
+            return statement;
+        }
+
+        String row = statement.substring(statement.lastIndexOf(") values (") + ") values ".length());
+        StringBuilder sb = new StringBuilder(statement.length() + (row.length() + 1) * (rowCount - 1));
+        sb.append(statement);
+        for (int i = 1; i < rowCount; i++) {
+            sb.append(',').append(row);
+        }
+        return sb.toString();
+    }
+
     // 获取要批量插入的表字段信息
-    private static ColumnInfo[] getBatchColumnInfo(Connection conn, String tableName,
+    private static ColumnInfo[] getBatchColumnInfo(String tableName,
                                                    CommandBuilderHelper helper, Object sample) throws SQLException {
 
-        FQN fqn = new FQN(conn, tableName);
+        FQN fqn = helper.getFQN(tableName);
         ColumnInfo[] infos = helper.getColumnInfos(fqn.getSchema("%"), fqn.getName());
         List list = CommandBuilderHelper.generateParams(infos, sample);
 
@@ -102,12 +144,24 @@ public class InsertCommandBuilder {
      * @throws SQLException 如果获取数据库信息失败
      */
     public static Command build(Connection connection, String tableName, Object object) throws SQLException {
-        FQN fqn = new FQN(connection, tableName);
-
-        CommandBuilderHelper helper = CommandBuilderHelper.getHelper(connection);
+        return build(CommandBuilderHelper.getHelper(connection), tableName, object);
+    }
 
+    /**
+     * 构造一条插入命令
+     *
+     * @param helper    与数据库连接绑定的 CommandBuilderHelper 对象
+     * @param tableName 表名
+     * @param object    要插入的对象
+     *
+     * @return 插入命令
+     *
+     * @throws SQLException 如果获取数据库信息失败
+     */
+    public static Command build(CommandBuilderHelper helper, String tableName, Object object) throws SQLException {
+        FQN fqn = helper.getFQN(tableName);
         ColumnInfo[] infos = helper.getColumnInfos(fqn.getSchema(), fqn.getName());
-        return buildCommand(tableName, infos, object, connection);
+        return buildCommand(tableName, infos, object, helper);
     }
 
     /**
@@ -116,22 +170,20 @@ public class InsertCommandBuilder {
      * @param tableName 表名
      * @param infos     表的字段信息
      * @param object    要插入的对象
-     * @param conn      数据库连接
+     * @param helper    与数据库连接绑定的 CommandBuilderHelper 对象
      *
      * @return 插入命令
      *
      * @throws java.sql.SQLException 如果获取数据库类型失败
      */
     private static Command buildCommand(
-            String tableName, ColumnInfo[] infos, Object object, Connection conn
+            String tableName, ColumnInfo[] infos, Object object, CommandBuilderHelper helper
     ) throws SQLException {
 
-        DatabaseType databaseType = DatabaseType.of(conn);
+        boolean sequenceSupported = helper.getDialect().isSequenceSupported();
         List params = CommandBuilderHelper.generateParams(infos, object);
         List<Object> finalParams = new ArrayList<>();
 
-        final CommandBuilderHelper helper = CommandBuilderHelper.getHelper(conn);
-
         String command = "insert into " + tableName + "(";
         String questionMarks = "";
 
@@ -153,11 +205,11 @@ public class InsertCommandBuilder {
 
             // 如果属性值是一个 sequence 占位符，那么生成相应的 SQL，而 value 就不必作为参数了。
             if (infos[i].isAutoIncrement()) {
-                if (databaseType.isSequenceSupported() && infos[i].getSequenceName() == null) {
+                if (sequenceSupported && infos[i].getSequenceName() == null) {
                     throw new DAOException("没有指定全局序列");
                 }
 
-                if (infos[i].getSequenceName() != null && databaseType.isSequenceSupported()) {
+                if (infos[i].getSequenceName() != null && sequenceSupported) {
                     questionMarks += infos[i].getSequenceName() + ".nextval,";
                 }
 
@@ -5,6 +5,7 @@ import com.hyd.dao.database.ColumnInfo;
 import com.hyd.dao.database.commandbuilder.helper.CommandBuilderHelper;
 import com.hyd.dao.database.type.TypeConverter;
 import com.hyd.dao.util.BeanUtil;
+import com.hyd.dao.util.Str;
 
 import java.sql.Connection;
 import java.sql.SQLException;
@@ -31,31 +32,113 @@ public class QueryCommandBuilder {
      * @throws SQLException 如果获取数据库连接信息失败
      */
     public static Command buildByKey(Connection connection, String tableName, Object key) throws SQLException {
-        FQN fqn = new FQN(connection, tableName);
-        ColumnInfo[] infos = CommandBuilderHelper.getHelper(connection).getColumnInfos(fqn.getSchema("%"), fqn.getName());
+        return buildByKey(CommandBuilderHelper.getHelper(connection), tableName, key);
+    }
 
-        String statement = "select * from " + tableName + " where ";
-        boolean primaryFound = false;
+    /**
+     * 根据主键值构建查询语句
+     *
+     * @param helper    与数据库连接绑定的 CommandBuilderHelper 对象
+     * @param tableName 表名
+     * @param key       主键值
+     *
+     * @return 查询语句
+     *
+     * @throws SQLException 如果获取数据库连接信息失败
+     */
+    public static Command buildByKey(CommandBuilderHelper helper, String tableName, Object key) throws SQLException {
+        ColumnInfo primary = getPrimaryKey(helper, tableName);
+        String statement = "select * from " + tableName + " where " +
+                helper.getColumnNameForSql(primary.getColumnName()) + "=?";
+
+        List values = new ArrayList();
+        values.add(key);
+        return new Command(statement, values);
+    }
+
+    /**
+     * 根据多个主键值构建查询语句
+     *
+     * @param helper    与数据库连接绑定的 CommandBuilderHelper 对象
+     * @param tableName 表名
+     * @param keys      主键值
+     * @param keyOnly   是否只查询主键字段
+     *
+     * @return 查询语句
+     *
+     * @throws SQLException 如果获取数据库连接信息失败
+     */
+    public static Command buildByKeys(
+            CommandBuilderHelper helper, String tableName, List<?> keys, boolean keyOnly) throws SQLException {
+
+        String keyColumn = helper.getColumnNameForSql(getSinglePrimaryKey(helper, tableName).getColumnName());
+        String statement = "select " + (keyOnly ? keyColumn : "*") + " from " + tableName +
+                " where " + keyColumn + " in (" + Str.repeat("?", ",", keys.size()) + ")";
+
+        return new Command(statement, new ArrayList<>(keys));
+    }
+
+    /**
+     * 查找表的主键字段。如果主键由多个字段组成，则返回第一个
+     *
+     * @param helper    与数据库连接绑定的 CommandBuilderHelper 对象
+     * @param tableName 表名
+     *
+     * @return 主键字段
+     *
+     * @throws SQLException 如果获取数据库连接信息失败
+     * @throws DAOException 如果表没有主键
+     */
+    public static ColumnInfo getPrimaryKey(CommandBuilderHelper helper, String tableName) throws SQLException {
+        FQN fqn = helper.getFQN(tableName);
+        ColumnInfo[] infos = helper.getColumnInfos(fqn.getSchema("%"), fqn.getName());
 
         for (ColumnInfo info : infos) {
             if (info.isPrimary()) {
-                statement += CommandBuilderHelper.getHelper(connection).getColumnNameForSql(info.getColumnName()) + "=?";
-                primaryFound = true;
-                break;
+                return info;
             }
         }
-        if (!primaryFound) {
-            throw new DAOException("Primary key not found in table \"" + tableName + "\"");
+        throw new DAOException("Primary key not found in table \"" + tableName + "\"");
+    }
+
+    /**
+     * 查找表的主键字段，主键必须只有一个字段
+     *
+     * @param helper    与数据库连接绑定的 CommandBuilderHelper 对象
+     * @param tableName 表名
+     *
+     * @return 主键字段
+     *
+     * @throws SQLException 如果获取数据库连接信息失败
+     * @throws DAOException 如果表没有主键，或者主键由多个字段组成
+     */
+    public static ColumnInfo getSinglePrimaryKey(CommandBuilderHelper helper, String tableName) throws SQLException {
+        FQN fqn = helper.getFQN(tableName);
+        ColumnInfo[] infos = helper.getColumnInfos(fqn.getSchema("%"), fqn.getName());
+
+        ColumnInfo primary = null;
+        for (ColumnInfo info : infos) {
+            if (info.isPrimary()) {
+                if (primary != null) {
+                    throw new DAOException("Table \"" + tableName + "\" has a composite primary key, " +
+                            "which is not supported");
+                }
+                primary = info;
+            }
         }
 
-        List values = new ArrayList();
-        values.add(key);
-        return new Command(statement, values);
+        if (primary == null) {
+            throw new DAOException("Primary key not found in table \"" + tableName + "\"");
+        }
+        return primary;
     }
 
     public static Command build(Connection connection, String tableName, Object obj) throws SQLException {
-        FQN fqn = new FQN(connection, tableName);
-        final CommandBuilderHelper helper = CommandBuilderHelper.getHelper(connection);
+        return build(CommandBuilderHelper.getHelper(connection), tableName, obj);
+    }
+
+    public static Command build(CommandBuilderHelper helper, String tableName, Object obj) throws SQLException {
+        FQN fqn = helper.getFQN(tableName);
         ColumnInfo[] infos = helper.getColumnInfos(fqn.getSchema("%"), fqn.getName());
 
         List values = new ArrayList();
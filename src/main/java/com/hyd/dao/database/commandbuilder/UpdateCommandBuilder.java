@@ -0,0 +1,132 @@
+package com.hyd.dao.database.commandbuilder;
+
+import com.hyd.dao.BatchCommand;
+import com.hyd.dao.DAO;
+import com.hyd.dao.DAOException;
+import com.hyd.dao.database.ColumnInfo;
+import com.hyd.dao.database.commandbuilder.helper.CommandBuilderHelper;
+
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * 根据主键生成 update 语句
+ */
+public class UpdateCommandBuilder {
+
+    private UpdateCommandBuilder() {
+
+    }
+
+    /**
+     * 构造批处理更新命令，语句为 update t set c1=?,c2=?... where pk=?
+     *
+     * @param helper      与数据库连接绑定的 CommandBuilderHelper 对象
+     * @param tableName   表名
+     * @param objects     要更新的记录对象，主键必须有值。Map 对象只更新其中包含的字段
+     * @param nonNullOnly 是否只更新值不为 null 的字段。要更新的字段相同的记录放在同一个批处理命令中
+     *
+     * @return 批处理命令。nonNullOnly 为 false 且没有 Map 对象时只有一个
+     *
+     * @throws SQLException 如果获取数据库信息失败
+     */
+    public static List<BatchCommand> buildBatches(
+            CommandBuilderHelper helper, String tableName, List objects, boolean nonNullOnly) throws SQLException {
+
+        if (objects == null || objects.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        FQN fqn = helper.getFQN(tableName);
+        ColumnInfo[] infos = helper.getColumnInfos(fqn.getSchema("%"), fqn.getName());
+
+        List<ColumnInfo> columns = new ArrayList<>();
+        List<ColumnInfo> keys = new ArrayList<>();
+        for (ColumnInfo info : infos) {
+            if (info.isPrimary()) {
+                keys.add(info);
+            } else if (info.getDataType() != DAO.SYSDATE_TYPE) {
+                columns.add(info);
+            }
+        }
+
+        if (keys.isEmpty()) {
+            throw new NoPrimaryKeyException("no primary key found in table \"" + tableName + "\"");
+        }
+        if (columns.isEmpty()) {
+            throw new DAOException("no column to update in table \"" + tableName + "\"");
+        }
+
+        // 要更新的字段 -> 批处理命令，保持记录出现的顺序
+        Map<BitSet, BatchCommand> commands = new LinkedHashMap<>();
+
+        for (Object object : objects) {
+            List<Object> values = new ArrayList<>(columns.size());
+            BitSet shape = new BitSet(columns.size());
+            for (int i = 0; i < columns.size(); i++) {
+                Object value = CommandBuilderHelper.generateParamValue(object, columns.get(i));
+                values.add(value);
+                if (object instanceof Map && !containsColumn((Map) object, columns.get(i))) {
+                    continue;   // Map 中没有的字段保持不变
+                }
+                if (!nonNullOnly || value != null) {
+                    shape.set(i);
+                }
+            }
+
+            if (shape.isEmpty()) {
+                continue;   // 没有要更新的字段
+            }
+
+            List<Object> params = new ArrayList<>(shape.cardinality() + keys.size());
+            for (int i = shape.nextSetBit(0); i >= 0; i = shape.nextSetBit(i + 1)) {
+                params.add(values.get(i));
+            }
+            for (ColumnInfo key : keys) {
+                Object value = CommandBuilderHelper.generateParamValue(object, key);
+                if (value == null) {
+                    throw new DAOException("primary key \"" + key.getColumnName() + "\" is null, cannot update");
+                }
+                params.add(value);
+            }
+
+            BatchCommand command = commands.get(shape);
+            if (command == null) {
+                command = buildCommand(helper, tableName, columns, keys, shape);
+                commands.put(shape, command);
+            }
+            command.addParams(params);
+        }
+
+        return new ArrayList<>(commands.values());
+    }
+
+    // 与 CommandBuilderHelper.generateParamValue() 一样按小写或大写的字段名查找
+    private static boolean containsColumn(Map map, ColumnInfo column) {
+        return map.containsKey(column.getColumnName().toLowerCase())
+                || map.containsKey(column.getColumnName().toUpperCase());
+    }
+
+    private static BatchCommand buildCommand(
+            CommandBuilderHelper helper, String tableName,
+            List<ColumnInfo> columns, List<ColumnInfo> keys, BitSet shape) throws SQLException {
+
+        List<ColumnInfo> paramInfos = new ArrayList<>();
+        StringJoiner sets = new StringJoiner(",");
+        for (int i = shape.nextSetBit(0); i >= 0; i = shape.nextSetBit(i + 1)) {
+            sets.add(helper.getColumnNameForSql(columns.get(i).getColumnName()) + "=?");
+            paramInfos.add(columns.get(i));
+        }
+
+        StringJoiner conditions = new StringJoiner(" and ");
+        for (ColumnInfo key : keys) {
+            conditions.add(helper.getColumnNameForSql(key.getColumnName()) + "=?");
+            paramInfos.add(key);
+        }
+
+        BatchCommand command = new BatchCommand(
+                "update " + helper.getTableNameForSql(tableName) + " set " + sets + " where " + conditions);
+        command.setColumnInfos(paramInfos.toArray(new ColumnInfo[0]));
+        return command;
+    }
+}
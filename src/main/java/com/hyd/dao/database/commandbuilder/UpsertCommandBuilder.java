@@ -0,0 +1,96 @@
+package com.hyd.dao.database.commandbuilder;
+
+import com.hyd.dao.BatchCommand;
+import com.hyd.dao.DAO;
+import com.hyd.dao.DAOException;
+import com.hyd.dao.database.ColumnInfo;
+import com.hyd.dao.database.commandbuilder.helper.CommandBuilderHelper;
+import com.hyd.dao.database.dialect.Dialect;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 创建“插入或更新”语句，具体语法由方言决定（参考 {@link Dialect#getUpsertSql(String, String[], String[])}），
+ * 用于判断记录是否存在的字段为表的主键
+ */
+public class UpsertCommandBuilder {
+
+    private UpsertCommandBuilder() {
+
+    }
+
+    /**
+     * 构造一个批处理命令，所有记录使用同一条语句
+     *
+     * @param helper    与数据库连接绑定的 CommandBuilderHelper 对象
+     * @param tableName 表名
+     * @param objects   要插入或更新的记录对象
+     *
+     * @return 批处理命令
+     *
+     * @throws SQLException 如果获取数据库信息失败
+     */
+    public static BatchCommand buildBatch(
+            CommandBuilderHelper helper, String tableName, List objects) throws SQLException {
+
+        if (objects == null || objects.isEmpty()) {
+            return BatchCommand.EMPTY;
+        }
+
+        FQN fqn = helper.getFQN(tableName);
+        ColumnInfo[] allInfos = helper.getColumnInfos(fqn.getSchema("%"), fqn.getName());
+
+        List<ColumnInfo> infos = new ArrayList<>();
+        List<String> columns = new ArrayList<>();
+        List<String> keyColumns = new ArrayList<>();
+        for (ColumnInfo info : allInfos) {
+            if (info.getDataType() == DAO.SYSDATE_TYPE) {
+                continue;
+            }
+            infos.add(info);
+            columns.add(info.getColumnName());
+            if (info.isPrimary()) {
+                keyColumns.add(info.getColumnName());
+            }
+        }
+
+        if (keyColumns.isEmpty()) {
+            throw new NoPrimaryKeyException("no primary key found in table \"" + tableName + "\"");
+        }
+
+        Dialect dialect = helper.getDialect();
+        String statement = dialect.getUpsertSql(tableName,
+                columns.toArray(new String[0]), keyColumns.toArray(new String[0]));
+
+        if (statement == null) {
+            throw new DAOException("Upsert is not supported by dialect " + dialect.getName());
+        }
+
+        ColumnInfo[] infoArray = infos.toArray(new ColumnInfo[0]);
+        BatchCommand bc = new BatchCommand(statement);
+        bc.setColumnInfos(infoArray);
+
+        for (Object object : objects) {
+            bc.addParams(CommandBuilderHelper.generateParams(infoArray, object));
+        }
+        return bc;
+    }
+
+    /**
+     * 构造一条“插入或更新”命令
+     *
+     * @param helper    与数据库连接绑定的 CommandBuilderHelper 对象
+     * @param tableName 表名
+     * @param object    要插入或更新的记录对象
+     *
+     * @return 只有一组参数的批处理命令
+     *
+     * @throws SQLException 如果获取数据库信息失败
+     */
+    public static BatchCommand build(CommandBuilderHelper helper, String tableName, Object object) throws SQLException {
+        return buildBatch(helper, tableName, Collections.singletonList(object));
+    }
+}
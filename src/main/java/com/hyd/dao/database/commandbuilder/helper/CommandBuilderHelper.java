@@ -5,7 +5,9 @@ import com.hyd.dao.DAOException;
 import com.hyd.dao.DataConversionException;
 import com.hyd.dao.Sequence;
 import com.hyd.dao.database.ColumnInfo;
-import com.hyd.dao.database.DatabaseType;
+import com.hyd.dao.database.commandbuilder.FQN;
+import com.hyd.dao.database.dialect.Dialect;
+import com.hyd.dao.database.dialect.Dialects;
 import com.hyd.dao.log.Logger;
 import com.hyd.dao.util.BeanUtil;
 import com.hyd.dao.util.Locker;
@@ -19,28 +21,38 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
- * 用于构造 SQL 命令的帮助类，隐藏不同数据库之间的区别
+ * 用于构造 SQL 命令的帮助类，隐藏不同数据库之间的区别。
+ * <p/>
+ * 与数据库有关的部分由 {@link Dialect} 提供。本对象与一个数据库连接绑定，
+ * 可以在同一个连接上构造多个命令。
  */
 public class CommandBuilderHelper {
 
     private static final Logger LOG = Logger.getLogger(CommandBuilderHelper.class);
 
     // 缓存已经生成的字段info
-    private static Map<String, ColumnInfo[]> cache = new HashMap<>();
+    private static Map<String, ColumnInfo[]> cache = new ConcurrentHashMap<>();
 
     protected Connection connection;
 
+    protected final Dialect dialect;
+
+    private String userName;        // 连接的用户名，作为缺省的 schema
+
     /**
      * 构造函数
      *
      * @param connection 数据库连接
+     * @param dialect    数据库方言
      */
-    protected CommandBuilderHelper(Connection connection) {
+    protected CommandBuilderHelper(Connection connection, Dialect dialect) {
         this.connection = connection;
+        this.dialect = dialect;
     }
 
     /**
@@ -53,19 +65,47 @@ public class CommandBuilderHelper {
      * @throws SQLException 如果获取数据库连接信息失败
      */
     public static CommandBuilderHelper getHelper(Connection conn) throws SQLException {
-        DatabaseType databaseType = DatabaseType.of(conn);
-        switch (databaseType) {
-            case Oracle:
-                return new OracleCommandBuilderHelper(conn);
-            case HSQLDB:
-                return new HSQLDBCommandBuildHelper(conn);
-            case MySQL:
-                return new MySqlCommandBuilderHelper(conn);
-            case SQLServer:
-                return new SQLServerCommandBuilderHelper(conn);
-            default:
-                return new CommandBuilderHelper(conn);
+        return getHelper(conn, Dialects.of(conn));
+    }
+
+    /**
+     * 获取一个 CommandBuilderHelper 对象
+     *
+     * @param conn    数据库连接
+     * @param dialect 已知的数据库方言
+     *
+     * @return CommandBuilderHelper 对象
+     */
+    public static CommandBuilderHelper getHelper(Connection conn, Dialect dialect) {
+        return new CommandBuilderHelper(conn, dialect);
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    public Dialect getDialect() {
+        return dialect;
+    }
+
+    /**
+     * 解析表名。如果表名中不包含 schema，则以连接的用户名作为 schema
+     *
+     * @param tableName 表名，可以是 schema.table 的形式
+     *
+     * @return 解析后的表名
+     *
+     * @throws SQLException 如果获取连接的用户名失败
+     */
+    public FQN getFQN(String tableName) throws SQLException {
+        if (tableName != null && tableName.contains(".")) {
+            return new FQN((String) null, tableName);
+        }
+
+        if (userName == null) {
+            userName = connection.getMetaData().getUserName();
         }
+        return new FQN(userName, tableName);
     }
 
     /**
@@ -188,7 +228,7 @@ public class CommandBuilderHelper {
     }
 
     protected ColumnMeta getColumnMeta() {
-        return ColumnMeta.Oracle;
+        return dialect.getColumnMeta();
     }
 
     private boolean isPrimaryKey(String typeName, List<String> keyNames, String columnName) {
@@ -197,21 +237,21 @@ public class CommandBuilderHelper {
     }
 
     protected String getSchema(String schema) {
-        return schema;
+        return dialect.getSchemaForMeta(schema);
     }
 
     protected String getCatalog() throws SQLException {
-        return connection.getCatalog();
+        return dialect.getCatalogForMeta(connection);
     }
 
     // 当查询 meta 数据需要时，修正表名
     protected String getTableNameForMeta(String tableName) {
-        return tableName;
+        return dialect.getTableNameForMeta(tableName);
     }
 
     // 当组合 SQL 语句需要时，修正表名
     public String getTableNameForSql(String tableName) {
-        return tableName;
+        return dialect.getTableNameForSql(tableName);
     }
 
     /**
@@ -224,7 +264,7 @@ public class CommandBuilderHelper {
      * @throws SQLException when fails
      */
     public String getColumnNameForSql(String column) throws SQLException {
-        return column;
+        return dialect.getColumnNameForSql(column);
     }
 
     /**
@@ -351,16 +391,16 @@ public class CommandBuilderHelper {
     }
 
     public String getSysdateMark() {
-        return "CURRENT_TIMESTAMP";
+        return dialect.getSysdateMark();
     }
 
     // 根据当前的 SQL 语句生成带查询范围的语句
     public String getRangedSql(String sql, int startPos, int endPos) {
-        return null;
+        return dialect.getRangedSql(sql, startPos, endPos);
     }
 
     // 根据当前的 SQL 语句生成返回查询结果数量的语句
     public String getCountSql(String sql) {
-        return "select count(*) cnt from (" + sql + ")";
+        return dialect.getCountSql(sql);
     }
 }
@@ -0,0 +1,21 @@
+package com.hyd.dao.database.dialect;
+
+import java.sql.DatabaseMetaData;
+
+/**
+ * 未知数据库使用的方言，所有行为都采用 {@link Dialect} 中的缺省实现
+ *
+ * @author yiding.he
+ */
+public class DefaultDialect implements Dialect {
+
+    @Override
+    public String getName() {
+        return "Default";
+    }
+
+    @Override
+    public boolean matches(DatabaseMetaData meta) {
+        return false;
+    }
+}
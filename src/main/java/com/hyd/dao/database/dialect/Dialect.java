@@ -0,0 +1,305 @@
+package com.hyd.dao.database.dialect;
+
+import com.hyd.dao.database.DatabaseType;
+import com.hyd.dao.database.commandbuilder.helper.ColumnMeta;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * 数据库方言，描述不同数据库在 SQL 语法和元数据上的区别。
+ * <p/>
+ * 方言通过 {@link java.util.ServiceLoader} 加载：实现本接口，然后在
+ * META-INF/services/com.hyd.dao.database.dialect.Dialect 文件中登记实现类即可支持新的数据库，
+ * 不需要修改 {@link DatabaseType} 或 CommandBuilderHelper。每个数据源只会判断一次方言，
+ * 参考 {@link Dialects}。
+ * <p/>
+ * 方言对象会被多个线程共用，实现类必须是无状态的。
+ *
+ * @author yiding.he
+ */
+public interface Dialect {
+
+    /**
+     * @return 方言名称，用于日志和配置
+     */
+    String getName();
+
+    /**
+     * 判断本方言是否适用于指定的数据库
+     *
+     * @param meta 数据库元数据
+     *
+     * @return 如果适用则返回 true
+     *
+     * @throws SQLException 如果读取元数据失败
+     */
+    boolean matches(DatabaseMetaData meta) throws SQLException;
+
+    /**
+     * 多个方言都适用时，优先级高的会被选中。自定义方言可以返回大于 0 的值来替代内置方言。
+     *
+     * @return 优先级，缺省为 0
+     */
+    default int getPriority() {
+        return 0;
+    }
+
+    /**
+     * @return 对应的数据库类型，用于兼容按 {@link DatabaseType} 判断的代码
+     */
+    default DatabaseType getDatabaseType() {
+        return DatabaseType.Others;
+    }
+
+    ////////////////////////////////////////////////////////////////
+    // 分页和统计
+
+    /**
+     * 根据查询语句生成带查询范围的语句
+     *
+     * @param sql      查询语句
+     * @param startPos 开始位置（0 开始，包含）
+     * @param endPos   结束位置（不包含）
+     *
+     * @return 带查询范围的语句，缺省使用 limit/offset（SQLite、PostgreSQL 等大多数数据库都支持）。
+     * 如果数据库不支持，则返回 null，此时将在客户端跳过多余的记录
+     */
+    default String getRangedSql(String sql, int startPos, int endPos) {
+        int size = endPos - startPos;
+        return "select range_wrapper.* from (" + sql + ") range_wrapper limit " + size + " offset " + startPos;
+    }
+
+    /**
+     * 当 {@link #getRangedSql(String, int, int)} 返回 null、需要在客户端跳过记录时，查询使用的 ResultSet 类型
+     *
+     * @return ResultSet 类型，缺省为 {@link ResultSet#TYPE_FORWARD_ONLY}
+     */
+    default int getResultSetTypeForSkipping() {
+        return ResultSet.TYPE_FORWARD_ONLY;
+    }
+
+    /**
+     * 根据查询语句生成返回查询结果数量的语句
+     *
+     * @param sql 查询语句
+     *
+     * @return 查询结果数量的语句，结果字段名为 cnt
+     */
+    default String getCountSql(String sql) {
+        return "select count(*) cnt from (" + sql + ")";
+    }
+
+    /**
+     * 生成键集分页（seek 分页）的条件，即“排在指定记录之后”。缺省生成可移植的展开形式：
+     * <pre>
+     * k1 > ? or (k1 = ? and k2 > ?) or ...
+     * </pre>
+     * 降序的字段使用 &lt;。
+     *
+     * @param columns    排序字段
+     * @param descending 每个排序字段是否为降序
+     * @param values     上一页最后一条记录的排序字段值
+     * @param params     用于添加条件的参数
+     *
+     * @return 条件语句
+     */
+    default String getSeekCondition(String[] columns, boolean[] descending, Object[] values, List<Object> params) {
+        StringBuilder condition = new StringBuilder("(");
+
+        for (int i = 0; i < columns.length; i++) {
+            condition.append(i == 0 ? "(" : " or (");
+            for (int j = 0; j < i; j++) {
+                condition.append(columns[j]).append(" = ? and ");
+                params.add(values[j]);
+            }
+            condition.append(columns[i]).append(descending[i] ? " < ?)" : " > ?)");
+            params.add(values[i]);
+        }
+
+        return condition.append(")").toString();
+    }
+
+    ////////////////////////////////////////////////////////////////
+    // 流式读取
+
+    /**
+     * 流式查询执行之前设置语句。语句已经是只读、只向前的。
+     *
+     * @param statement 语句
+     * @param fetchSize 调用者指定的 fetchSize，0 表示自动决定
+     *
+     * @throws SQLException 如果设置失败
+     */
+    default void prepareStreaming(Statement statement, int fetchSize) throws SQLException {
+        if (fetchSize > 0) {
+            statement.setFetchSize(fetchSize);
+        }
+    }
+
+    /**
+     * 流式查询执行之后、读取记录之前调整查询结果。仅当调用者没有指定 fetchSize 时调用，
+     * 缺省根据每行的宽度计算 fetchSize。
+     *
+     * @param rs 查询结果
+     *
+     * @throws SQLException 如果设置失败
+     */
+    default void tuneStreaming(ResultSet rs) throws SQLException {
+        rs.setFetchSize(Dialects.getFetchSizeByRowWidth(rs.getMetaData()));
+    }
+
+    /**
+     * 在查询语句中加上窗口函数 count(*) over()，使每条记录都带有总记录数，
+     * 字段名为 {@link com.hyd.dao.util.ResultSetUtil#WINDOW_COUNT_COLUMN_NAME}
+     *
+     * @param sql 查询语句
+     *
+     * @return 加上总记录数的语句。如果数据库不支持窗口函数，则返回 null
+     */
+    default String getWindowCountSql(String sql) {
+        return null;
+    }
+
+    /**
+     * 从数据库的统计信息中查询表的估算记录数的语句，带有一个表名参数
+     *
+     * @return 查询语句。如果数据库没有统计信息，则返回 null
+     */
+    default String getEstimateCountSql() {
+        return null;
+    }
+
+    ////////////////////////////////////////////////////////////////
+    // 语句生成
+
+    /**
+     * 当组合 SQL 语句需要时，修正表名（例如加上引号）
+     *
+     * @param tableName 表名
+     *
+     * @return 修正后的表名
+     */
+    default String getTableNameForSql(String tableName) {
+        return tableName;
+    }
+
+    /**
+     * 当组合 SQL 语句需要时，修正字段名（例如加上引号）
+     *
+     * @param column 字段名
+     *
+     * @return 修正后的字段名
+     */
+    default String getColumnNameForSql(String column) {
+        return column;
+    }
+
+    /**
+     * @return 表示当前时间的 SQL 表达式
+     */
+    default String getSysdateMark() {
+        return "CURRENT_TIMESTAMP";
+    }
+
+    /**
+     * @return 是否支持 sequence
+     */
+    default boolean isSequenceSupported() {
+        return false;
+    }
+
+    /**
+     * 生成“插入或更新”语句，参数顺序与 columns 一致
+     *
+     * @param tableName  表名
+     * @param columns    所有要插入的字段名
+     * @param keyColumns 用于判断记录是否存在的字段名（通常是主键）
+     *
+     * @return 语句。如果数据库不支持，则返回 null
+     */
+    default String getUpsertSql(String tableName, String[] columns, String[] keyColumns) {
+        return null;
+    }
+
+    /**
+     * @return 是否支持一条 insert 语句插入多行（insert into t(..) values (..),(..)）
+     */
+    default boolean isMultiRowInsertSupported() {
+        return true;
+    }
+
+    /**
+     * @return 一条语句中最多可以包含的参数个数，批量插入时据此拆分语句
+     */
+    default int getMaxParameters() {
+        return 2000;
+    }
+
+    /**
+     * @return 一条 insert 语句最多可以插入的行数
+     */
+    default int getMaxRowsPerInsert() {
+        return 1000;
+    }
+
+    /**
+     * @return 一条语句连同参数的最大字节数，多行插入时据此拆分语句。小于等于 0 表示没有限制
+     */
+    default int getMaxStatementBytes() {
+        return 0;
+    }
+
+    /**
+     * @return in (...) 中最多可以包含的值个数，按主键批量查询时据此拆分语句
+     */
+    default int getMaxInListSize() {
+        return Math.min(1000, getMaxParameters());
+    }
+
+    ////////////////////////////////////////////////////////////////
+    // 元数据
+
+    /**
+     * 当查询元数据需要时，修正 schema 参数
+     *
+     * @param schema schema 名称
+     *
+     * @return 修正后的 schema 名称
+     */
+    default String getSchemaForMeta(String schema) {
+        return schema;
+    }
+
+    /**
+     * 当查询元数据需要时，获取 catalog 参数
+     *
+     * @param connection 数据库连接
+     *
+     * @return catalog 名称
+     *
+     * @throws SQLException 如果获取失败
+     */
+    default String getCatalogForMeta(Connection connection) throws SQLException {
+        return connection.getCatalog();
+    }
+
+    /**
+     * 当查询元数据需要时，修正表名
+     *
+     * @param tableName 表名
+     *
+     * @return 修正后的表名
+     */
+    default String getTableNameForMeta(String tableName) {
+        return tableName;
+    }
+
+    default ColumnMeta getColumnMeta() {
+        return ColumnMeta.Oracle;
+    }
+}
@@ -0,0 +1,136 @@
+package com.hyd.dao.database.dialect;
+
+import com.hyd.dao.log.Logger;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * 加载和选择数据库方言。
+ * <p/>
+ * 方言列表在第一次使用时通过 {@link ServiceLoader} 加载，按优先级排序；没有方言适用时使用
+ * {@link DefaultDialect}。判断方言需要读取数据库元数据，所以调用者应当缓存结果，
+ * 例如 ExecutorFactory 对每个数据源只判断一次。
+ *
+ * @author yiding.he
+ */
+public class Dialects {
+
+    private static final Logger LOG = Logger.getLogger(Dialects.class);
+
+    public static final Dialect DEFAULT = new DefaultDialect();
+
+    // 流式读取时每次读取的数据量目标（字节），以及 fetchSize 的范围
+    private static final int FETCH_BUFFER_SIZE = 1024 * 1024;
+
+    private static final int MIN_FETCH_SIZE = 100;
+
+    private static final int MAX_FETCH_SIZE = 10000;
+
+    // 长度未知或者过长的字段（例如 CLOB、无长度的 VARCHAR）按此宽度计算
+    private static final int MAX_COLUMN_WIDTH = 1024;
+
+    private static volatile List<Dialect> dialects;
+
+    private Dialects() {
+
+    }
+
+    /**
+     * @return 所有已加载的方言，按优先级从高到低排列
+     */
+    public static List<Dialect> getDialects() {
+        if (dialects == null) {
+            synchronized (Dialects.class) {
+                if (dialects == null) {
+                    dialects = load();
+                }
+            }
+        }
+        return dialects;
+    }
+
+    private static List<Dialect> load() {
+        List<Dialect> list = new ArrayList<>();
+        ServiceLoader.load(Dialect.class, Dialects.class.getClassLoader()).forEach(list::add);
+        list.sort(Comparator.comparingInt(Dialect::getPriority).reversed());
+        return list;
+    }
+
+    /**
+     * 根据数据库连接选择方言
+     *
+     * @param connection 数据库连接
+     *
+     * @return 适用的方言，不会为 null
+     *
+     * @throws SQLException 如果读取数据库元数据失败
+     */
+    public static Dialect of(Connection connection) throws SQLException {
+        DatabaseMetaData meta = connection.getMetaData();
+
+        for (Dialect dialect : getDialects()) {
+            if (dialect.matches(meta)) {
+                LOG.debug("Using dialect " + dialect.getName() + " for " + meta.getDatabaseProductName());
+                return dialect;
+            }
+        }
+
+        return DEFAULT;
+    }
+
+    /**
+     * 根据名称查找方言
+     *
+     * @param name 方言名称，不分大小写
+     *
+     * @return 方言。如果找不到则返回 null
+     */
+    public static Dialect byName(String name) {
+        if (DEFAULT.getName().equalsIgnoreCase(name)) {
+            return DEFAULT;
+        }
+        return getDialects().stream().filter(d -> d.getName().equalsIgnoreCase(name)).findFirst().orElse(null);
+    }
+
+    /**
+     * 判断数据库产品名称是否与正则表达式相符，供方言实现使用
+     *
+     * @param meta    数据库元数据
+     * @param pattern 正则表达式
+     *
+     * @return 如果相符则返回 true
+     *
+     * @throws SQLException 如果读取元数据失败
+     */
+    public static boolean productNameMatches(DatabaseMetaData meta, String pattern) throws SQLException {
+        String productName = meta.getDatabaseProductName();
+        return productName != null && productName.matches(pattern);
+    }
+
+    /**
+     * 根据每行的宽度估算 fetchSize，使每次读取的数据量大约为 1MB，供方言实现使用
+     *
+     * @param meta 查询结果的元数据
+     *
+     * @return fetchSize，在 100 到 10000 之间
+     *
+     * @throws SQLException 如果读取元数据失败
+     */
+    public static int getFetchSizeByRowWidth(ResultSetMetaData meta) throws SQLException {
+        long rowWidth = 0;
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            int width = meta.getColumnDisplaySize(i);
+            rowWidth += width <= 0 || width > MAX_COLUMN_WIDTH ? MAX_COLUMN_WIDTH : Math.max(width, 8);
+        }
+
+        long fetchSize = FETCH_BUFFER_SIZE / Math.max(rowWidth, 1);
+        return (int) Math.max(MIN_FETCH_SIZE, Math.min(MAX_FETCH_SIZE, fetchSize));
+    }
+}
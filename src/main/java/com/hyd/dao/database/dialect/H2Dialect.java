@@ -0,0 +1,35 @@
+package com.hyd.dao.database.dialect;
+
+import com.hyd.dao.util.Str;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+/**
+ * H2 方言。元数据的处理方式与 HSQLDB 相同
+ *
+ * @author yiding.he
+ */
+public class H2Dialect extends HSQLDBDialect {
+
+    @Override
+    public String getName() {
+        return "H2";
+    }
+
+    @Override
+    public boolean matches(DatabaseMetaData meta) throws SQLException {
+        return Dialects.productNameMatches(meta, ".*H2.*");
+    }
+
+    @Override
+    public String getEstimateCountSql() {
+        return "select row_count_estimate from information_schema.tables where table_name = upper(?)";
+    }
+
+    @Override
+    public String getUpsertSql(String tableName, String[] columns, String[] keyColumns) {
+        return "merge into " + tableName + "(" + String.join(",", columns) + ") key ("
+                + String.join(",", keyColumns) + ") values (" + Str.repeat("?", ",", columns.length) + ")";
+    }
+}
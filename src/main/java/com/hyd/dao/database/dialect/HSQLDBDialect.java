@@ -0,0 +1,56 @@
+package com.hyd.dao.database.dialect;
+
+import com.hyd.dao.database.DatabaseType;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+/**
+ * HSQLDB 方言
+ *
+ * @author yiding.he
+ */
+public class HSQLDBDialect implements Dialect {
+
+    @Override
+    public String getName() {
+        return "HSQLDB";
+    }
+
+    @Override
+    public boolean matches(DatabaseMetaData meta) throws SQLException {
+        return Dialects.productNameMatches(meta, ".*HSQL.*");
+    }
+
+    @Override
+    public DatabaseType getDatabaseType() {
+        return DatabaseType.HSQLDB;
+    }
+
+    @Override
+    public String getRangedSql(String sql, int startPos, int endPos) {
+        int size = endPos - startPos;
+        return "select range_wrapper.* from (" + sql + ") range_wrapper offset " + startPos + " limit " + size;
+    }
+
+    @Override
+    public String getSysdateMark() {
+        return "CURRENT_DATE";
+    }
+
+    @Override
+    public String getSchemaForMeta(String schema) {
+        return "PUBLIC";
+    }
+
+    @Override
+    public String getCatalogForMeta(Connection connection) {
+        return null;
+    }
+
+    @Override
+    public String getTableNameForMeta(String tableName) {
+        return tableName.toUpperCase();
+    }
+}
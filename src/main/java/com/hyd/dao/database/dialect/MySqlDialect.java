@@ -0,0 +1,118 @@
+package com.hyd.dao.database.dialect;
+
+import com.hyd.dao.database.DatabaseType;
+import com.hyd.dao.database.commandbuilder.helper.ColumnMeta;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * MySQL 方言
+ *
+ * @author yiding.he
+ */
+public class MySqlDialect implements Dialect {
+
+    @Override
+    public String getName() {
+        return "MySQL";
+    }
+
+    @Override
+    public boolean matches(DatabaseMetaData meta) throws SQLException {
+        return Dialects.productNameMatches(meta, ".*MySQL.*");
+    }
+
+    @Override
+    public DatabaseType getDatabaseType() {
+        return DatabaseType.MySQL;
+    }
+
+    @Override
+    public String getRangedSql(String sql, int startPos, int endPos) {
+        int size = endPos - startPos;
+        return "select range_wrapper.* from (" + sql + ") range_wrapper limit " + startPos + ", " + size;
+    }
+
+    /**
+     * MySQL 驱动缺省会读取全部结果。只有 fetchSize 为 Integer.MIN_VALUE 时才逐行读取；
+     * 如果连接参数中有 useCursorFetch=true，则可以使用调用者指定的 fetchSize 分批读取。
+     */
+    @Override
+    public void prepareStreaming(Statement statement, int fetchSize) throws SQLException {
+        if (fetchSize > 0 && isCursorFetch(statement)) {
+            statement.setFetchSize(fetchSize);
+        } else {
+            statement.setFetchSize(Integer.MIN_VALUE);
+        }
+    }
+
+    @Override
+    public void tuneStreaming(ResultSet rs) {
+        // 逐行读取，不需要调整
+    }
+
+    private boolean isCursorFetch(Statement statement) throws SQLException {
+        String url = statement.getConnection().getMetaData().getURL();
+        return url != null && url.toLowerCase().contains("usecursorfetch=true");
+    }
+
+    @Override
+    public String getEstimateCountSql() {
+        return "select table_rows from information_schema.tables where table_schema = database() and table_name = ?";
+    }
+
+    @Override
+    public String getCountSql(String sql) {
+        return "select count(*) cnt from (" + sql + ") count_sql_wrapper";
+    }
+
+    @Override
+    public String getTableNameForSql(String tableName) {
+        return "`" + tableName + "`";
+    }
+
+    @Override
+    public String getColumnNameForSql(String column) {
+        return "`" + column + "`";
+    }
+
+    @Override
+    public String getUpsertSql(String tableName, String[] columns, String[] keyColumns) {
+        StringBuilder sb = new StringBuilder("insert into ").append(getTableNameForSql(tableName)).append("(");
+        StringBuilder values = new StringBuilder();
+        StringBuilder updates = new StringBuilder();
+
+        for (String column : columns) {
+            String quoted = getColumnNameForSql(column);
+            sb.append(quoted).append(",");
+            values.append("?,");
+            updates.append(quoted).append("=values(").append(quoted).append("),");
+        }
+
+        sb.setLength(sb.length() - 1);
+        values.setLength(values.length() - 1);
+        updates.setLength(updates.length() - 1);
+        return sb.append(") values (").append(values).append(") on duplicate key update ").append(updates).toString();
+    }
+
+    @Override
+    public int getMaxParameters() {
+        return 65535;
+    }
+
+    /**
+     * 语句长度不能超过 max_allowed_packet，这里按 5.7 版本的缺省值 4MB 估算
+     */
+    @Override
+    public int getMaxStatementBytes() {
+        return 4 * 1024 * 1024;
+    }
+
+    @Override
+    public ColumnMeta getColumnMeta() {
+        return ColumnMeta.MySQL;
+    }
+}
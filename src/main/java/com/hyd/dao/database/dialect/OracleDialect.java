@@ -0,0 +1,118 @@
+package com.hyd.dao.database.dialect;
+
+import com.hyd.dao.database.DatabaseType;
+import com.hyd.dao.util.ResultSetUtil;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Oracle 方言
+ *
+ * @author yiding.he
+ */
+public class OracleDialect implements Dialect {
+
+    @Override
+    public String getName() {
+        return "Oracle";
+    }
+
+    @Override
+    public boolean matches(DatabaseMetaData meta) throws SQLException {
+        return Dialects.productNameMatches(meta, ".*Oracle.*");
+    }
+
+    @Override
+    public DatabaseType getDatabaseType() {
+        return DatabaseType.Oracle;
+    }
+
+    @Override
+    public String getRangedSql(String sql, int startPos, int endPos) {
+        startPos += 1;
+
+        String sql_prefix = "select * from ( select pagnation_wrapper.*, rownum " +
+                ResultSetUtil.PAGNATION_WRAPPER_COLUMN_NAME + " from (";
+        String sql_suffix = ") pagnation_wrapper) where " +
+                ResultSetUtil.PAGNATION_WRAPPER_COLUMN_NAME + " between " + startPos + " and " + endPos;
+        return sql_prefix + sql + sql_suffix;
+    }
+
+    @Override
+    public String getWindowCountSql(String sql) {
+        return "select window_wrapper.*, count(*) over () " + ResultSetUtil.WINDOW_COUNT_COLUMN_NAME +
+                " from (" + sql + ") window_wrapper";
+    }
+
+    @Override
+    public String getEstimateCountSql() {
+        return "select num_rows from user_tables where table_name = upper(?)";
+    }
+
+    @Override
+    public String getColumnNameForSql(String column) {
+        return "\"" + column.toUpperCase() + "\"";
+    }
+
+    @Override
+    public String getSysdateMark() {
+        return "sysdate";
+    }
+
+    @Override
+    public boolean isSequenceSupported() {
+        return true;
+    }
+
+    @Override
+    public String getUpsertSql(String tableName, String[] columns, String[] keyColumns) {
+        List<String> keys = Arrays.asList(keyColumns);
+        List<String> selects = new ArrayList<>(), conditions = new ArrayList<>(), updates = new ArrayList<>();
+        List<String> inserts = new ArrayList<>(), values = new ArrayList<>();
+
+        for (String column : columns) {
+            String quoted = getColumnNameForSql(column);
+            selects.add("? " + quoted);
+            inserts.add(quoted);
+            values.add("s." + quoted);
+            if (keys.contains(column)) {
+                conditions.add("t." + quoted + "=s." + quoted);
+            } else {
+                updates.add("t." + quoted + "=s." + quoted);
+            }
+        }
+
+        return "merge into " + tableName + " t using (select " + String.join(",", selects) + " from dual) s on (" +
+                String.join(" and ", conditions) + ")" +
+                (updates.isEmpty() ? "" : " when matched then update set " + String.join(",", updates)) +
+                " when not matched then insert (" + String.join(",", inserts) + ") values (" +
+                String.join(",", values) + ")";
+    }
+
+    @Override
+    public boolean isMultiRowInsertSupported() {
+        return false;
+    }
+
+    @Override
+    public int getMaxParameters() {
+        return 65535;
+    }
+
+    /**
+     * Oracle 的 in 列表最多只能有 1000 个值（ORA-01795）
+     */
+    @Override
+    public int getMaxInListSize() {
+        return 1000;
+    }
+
+    @Override
+    public String getTableNameForMeta(String tableName) {
+        return tableName.toUpperCase();
+    }
+}
@@ -0,0 +1,40 @@
+package com.hyd.dao.database.dialect;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+/**
+ * SQL Server 2012 及以后版本的方言，使用 offset ... fetch 分页。
+ * <p/>
+ * SQL Server 不允许子查询中有 order by，所以分页语句不包装原语句，而是直接在后面加上
+ * offset/fetch；原语句没有 order by 时加上 order by (select null)。最外层已经有 top 或
+ * offset 的语句不能再加 offset/fetch，这时不生成分页语句，改为在结果集中跳过记录。
+ *
+ * @author yiding.he
+ */
+public class SQLServer2012Dialect extends SQLServerDialect {
+
+    static final int MAJOR_VERSION = 11;
+
+    @Override
+    public String getName() {
+        return "SQLServer2012";
+    }
+
+    @Override
+    public boolean matches(DatabaseMetaData meta) throws SQLException {
+        return Dialects.productNameMatches(meta, ".*Microsoft SQL Server.*")
+                && meta.getDatabaseMajorVersion() >= MAJOR_VERSION;
+    }
+
+    @Override
+    public String getRangedSql(String sql, int startPos, int endPos) {
+        if (hasTopLevelTopOrOffset(sql)) {
+            return null;
+        }
+
+        int size = endPos - startPos;
+        String orderBy = hasTopLevelOrderBy(sql) ? "" : " order by (select null)";
+        return sql + orderBy + " offset " + startPos + " rows fetch next " + size + " rows only";
+    }
+}
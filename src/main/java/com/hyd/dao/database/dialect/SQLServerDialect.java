@@ -0,0 +1,120 @@
+package com.hyd.dao.database.dialect;
+
+import com.hyd.dao.database.DatabaseType;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.regex.Pattern;
+
+/**
+ * SQL Server 2012 以前版本的方言，不支持分页语句。2012 及以后的版本参考 {@link SQLServer2012Dialect}
+ *
+ * @author yiding.he
+ */
+public class SQLServerDialect implements Dialect {
+
+    private static final Pattern ORDER_BY = Pattern.compile("(?i)order\\s+by\\b");
+
+    private static final Pattern OFFSET = Pattern.compile("(?i)\\boffset\\b");
+
+    private static final Pattern TOP = Pattern.compile("(?i)top\\b");
+
+    @Override
+    public String getName() {
+        return "SQLServer";
+    }
+
+    @Override
+    public boolean matches(DatabaseMetaData meta) throws SQLException {
+        return Dialects.productNameMatches(meta, ".*Microsoft SQL Server.*")
+                && meta.getDatabaseMajorVersion() < SQLServer2012Dialect.MAJOR_VERSION;
+    }
+
+    @Override
+    public DatabaseType getDatabaseType() {
+        return DatabaseType.SQLServer;
+    }
+
+    @Override
+    public String getRangedSql(String sql, int startPos, int endPos) {
+        return null;
+    }
+
+    /**
+     * SQL Server 必须是 TYPE_SCROLL_SENSITIVE，否则调用 ResultSet.absolute() 就会报错
+     */
+    @Override
+    public int getResultSetTypeForSkipping() {
+        return ResultSet.TYPE_SCROLL_SENSITIVE;
+    }
+
+    @Override
+    public String getEstimateCountSql() {
+        return "select sum(rows) from sys.partitions where object_id = object_id(?) and index_id in (0, 1)";
+    }
+
+    /**
+     * SQL Server 的派生表必须有别名，而且一般不能包含 order by，所以去掉最外层的 order by 再包装。
+     * order by 后面有 offset 时不能去掉，这种情况下子查询允许有 order by
+     */
+    @Override
+    public String getCountSql(String sql) {
+        int orderBy = indexOfTopLevelOrderBy(sql);
+        if (orderBy >= 0 && !OFFSET.matcher(sql.substring(orderBy)).find()) {
+            sql = sql.substring(0, orderBy);
+        }
+        return "select count(*) cnt from (" + sql + ") count_wrapper";
+    }
+
+    @Override
+    public int getMaxParameters() {
+        return 2100;
+    }
+
+    @Override
+    public String getSchemaForMeta(String schema) {
+        return "%";
+    }
+
+    // 判断语句最外层是否有 order by，忽略括号和引号中的内容
+    static boolean hasTopLevelOrderBy(String sql) {
+        return indexOfTopLevelOrderBy(sql) >= 0;
+    }
+
+    // 查找语句最外层 order by 的位置，忽略括号和引号中的内容。没有则返回 -1
+    static int indexOfTopLevelOrderBy(String sql) {
+        return indexOfTopLevel(sql, ORDER_BY);
+    }
+
+    // 判断语句最外层是否有 top 或 offset，这样的语句不能再加上 offset/fetch
+    static boolean hasTopLevelTopOrOffset(String sql) {
+        return indexOfTopLevel(sql, TOP) >= 0 || indexOfTopLevel(sql, OFFSET) >= 0;
+    }
+
+    // 查找语句最外层以单词开头的关键字的位置，忽略括号和引号中的内容。没有则返回 -1
+    private static int indexOfTopLevel(String sql, Pattern keyword) {
+        int depth = 0;
+        char quote = 0;
+
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"' || c == '[') {
+                quote = c == '[' ? ']' : c;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (depth == 0 && Character.isLetter(c)
+                    && (i == 0 || !Character.isLetterOrDigit(sql.charAt(i - 1)))
+                    && keyword.matcher(sql).region(i, sql.length()).lookingAt()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,56 @@
+package com.hyd.dao.database.dialect;
+
+import com.hyd.dao.util.Str;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * SQLite 方言，使用 limit/offset 分页
+ *
+ * @author yiding.he
+ */
+public class SQLiteDialect implements Dialect {
+
+    @Override
+    public String getName() {
+        return "SQLite";
+    }
+
+    @Override
+    public boolean matches(DatabaseMetaData meta) throws SQLException {
+        return Dialects.productNameMatches(meta, ".*SQLite.*");
+    }
+
+    @Override
+    public int getMaxParameters() {
+        return 999;
+    }
+
+    /**
+     * 多行 values 按复合查询处理，受 SQLITE_MAX_COMPOUND_SELECT（缺省 500）限制
+     */
+    @Override
+    public int getMaxRowsPerInsert() {
+        return 500;
+    }
+
+    /**
+     * 需要 SQLite 3.24 以上版本
+     */
+    @Override
+    public String getUpsertSql(String tableName, String[] columns, String[] keyColumns) {
+        List<String> keys = Arrays.asList(keyColumns);
+        String updates = Arrays.stream(columns)
+                .filter(column -> !keys.contains(column))
+                .map(column -> column + "=excluded." + column)
+                .collect(Collectors.joining(","));
+
+        return "insert into " + tableName + "(" + String.join(",", columns) + ") values (" +
+                Str.repeat("?", ",", columns.length) + ") on conflict(" + String.join(",", keyColumns) + ") " +
+                (updates.isEmpty() ? "do nothing" : "do update set " + updates);
+    }
+}
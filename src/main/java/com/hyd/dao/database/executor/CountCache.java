@@ -0,0 +1,101 @@
+package com.hyd.dao.database.executor;
+
+import com.hyd.dao.util.MapCacheUtils;
+import com.hyd.dao.util.Str;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * 分页查询的总记录数缓存，用于 {@link com.hyd.dao.CountStrategy#CACHED}。
+ * 以数据源、语句（忽略多余的空白）和参数为 key，缓存时间由系统属性 "dao.page.count.cache.ttl" 指定。
+ * 缓存只会过期，通过 DAO 执行的写操作不会使其失效。
+ *
+ * @author yiding.he
+ */
+class CountCache {
+
+    static final long TTL = Long.parseLong(
+            Str.defaultIfEmpty(System.getProperty("dao.page.count.cache.ttl"), "60000"));
+
+    private static final int SIZE = 1000;
+
+    private static final Pattern WHITESPACES = Pattern.compile("\\s+");
+
+    private static final Map<Key, Entry> CACHE = MapCacheUtils.newLRUCache(SIZE, true);
+
+    private CountCache() {
+
+    }
+
+    static Key key(String dsName, String sql, List<?> params) {
+        return new Key(dsName, WHITESPACES.matcher(sql.trim()).replaceAll(" "), params);
+    }
+
+    /**
+     * @return 缓存的记录数，如果没有缓存或者已经过期则返回 null
+     */
+    static Integer get(Key key) {
+        Entry entry = CACHE.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expireTime < System.currentTimeMillis()) {
+            CACHE.remove(key);
+            return null;
+        }
+        return entry.count;
+    }
+
+    static void put(Key key, int count) {
+        CACHE.put(key, new Entry(count, System.currentTimeMillis() + TTL));
+    }
+
+    static class Key {
+
+        private final String dsName;
+
+        private final String sql;
+
+        private final Object[] params;     // 数组参数按内容比较
+
+        private Key(String dsName, String sql, List<?> params) {
+            this.dsName = dsName;
+            this.sql = sql;
+            this.params = params == null ? new Object[0] : params.toArray();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Objects.equals(dsName, key.dsName) && sql.equals(key.sql) &&
+                    Arrays.deepEquals(params, key.params);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dsName, sql, Arrays.deepHashCode(params));
+        }
+    }
+
+    private static class Entry {
+
+        private final int count;
+
+        private final long expireTime;
+
+        private Entry(int count, long expireTime) {
+            this.count = count;
+            this.expireTime = expireTime;
+        }
+    }
+}
@@ -1,20 +1,28 @@
 package com.hyd.dao.database.executor;
 
 import com.hyd.dao.*;
+import com.hyd.dao.database.ColumnInfo;
 import com.hyd.dao.database.DatabaseType;
 import com.hyd.dao.database.RowIterator;
+import com.hyd.dao.database.RowSchema;
 import com.hyd.dao.database.commandbuilder.Command;
 import com.hyd.dao.database.commandbuilder.DeleteCommandBuilder;
 import com.hyd.dao.database.commandbuilder.InsertCommandBuilder;
 import com.hyd.dao.database.commandbuilder.QueryCommandBuilder;
+import com.hyd.dao.database.commandbuilder.UpdateCommandBuilder;
+import com.hyd.dao.database.commandbuilder.UpsertCommandBuilder;
 import com.hyd.dao.database.commandbuilder.helper.CommandBuilderHelper;
+import com.hyd.dao.database.dialect.Dialect;
 import com.hyd.dao.database.function.FunctionHelper;
+import com.hyd.dao.database.type.BeanMapper;
+import com.hyd.dao.log.CommandTracer;
 import com.hyd.dao.log.Logger;
 import com.hyd.dao.sp.SpParam;
 import com.hyd.dao.sp.SpParamType;
 import com.hyd.dao.sp.StorageProsedureHelper;
 import com.hyd.dao.util.Arr;
 import com.hyd.dao.util.ResultSetUtil;
+import com.hyd.dao.util.SqlTableExtractor;
 import com.hyd.dao.util.Str;
 import com.hyd.dao.util.TypeUtil;
 
@@ -42,40 +50,71 @@ public class DefaultExecutor extends Executor {
 
     private ResultSet rs;
 
+    private boolean statementCached;    // st 是否为缓存的语句，缓存的语句在 Executor 关闭时才关闭
+
+    private StatementCache statementCache;      // 第一次需要缓存语句时才创建
+
+    private CommandBuilderHelper helper;
+
     public DefaultExecutor(String dsName, Connection connection) throws SQLException {
         super(dsName, connection);
     }
 
+    public DefaultExecutor(String dsName, Connection connection, Dialect dialect) {
+        super(dsName, connection, dialect);
+    }
+
+    // 同一个连接上构造的所有命令共用一个 helper
+    private CommandBuilderHelper getHelper() {
+        if (helper == null) {
+            helper = CommandBuilderHelper.getHelper(connection, dialect);
+        }
+        return helper;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
-    public Page queryPage(Class clazz, String sql, List params, int pageSize, int pageIndex) {
+    public Page queryPage(Class clazz, String sql, List params, int pageSize, int pageIndex, CountStrategy countStrategy) {
 
         // startPos 从 0 开始算起，包含
         int startPos = pageIndex * pageSize;
 
-        // endPos 不包含
-        int endPos = startPos + pageSize;
+        // endPos 不包含。不查询总记录数时多读一条，用来判断是否有下一页
+        int endPos = startPos + pageSize + (countStrategy == CountStrategy.NONE ? 1 : 0);
+
+        // 使用窗口函数时总记录数和分页结果一起查询，前提是数据库同时支持窗口函数和分页语句
+        String windowSql = countStrategy == CountStrategy.WINDOW ? dialect.getWindowCountSql(sql) : null;
 
         String rangedSql = null;
         try {
-            rangedSql = getRangedSql(sql, startPos, endPos);
+            rangedSql = windowSql == null ? null : getRangedSql(windowSql, startPos, endPos);
+            if (rangedSql == null) {
+                windowSql = null;
+                rangedSql = getRangedSql(sql, startPos, endPos);
+            }
+
+            CountStrategy strategy = countStrategy == CountStrategy.WINDOW && windowSql == null ?
+                    CountStrategy.EXACT : countStrategy;
 
             printCommand(rangedSql == null ? sql : rangedSql, params);
-            executeQuery(rangedSql == null ? sql : rangedSql, params);
+            executeQuery(rangedSql == null ? sql : rangedSql, params, true,
+                    getResultSetType(rangedSql == null && startPos > 0));
 
             // 如果生成了分页语句，则读取所有结果，否则读取部分结果。
             Page result;
-            if (rangedSql != null) {
-                result = ResultSetUtil.readPageResultSet(rs, clazz, -1, -1);
+            if (windowSql != null) {
+                result = readWindowPage(clazz);
+            } else if (rangedSql != null) {
+                result = ResultSetUtil.readPageResultSet(rs, clazz, -1, -1, numericMode);
             } else {
-                result = ResultSetUtil.readPageResultSet(rs, clazz, pageSize, pageIndex);
+                result = ResultSetUtil.readResultSet(rs, clazz, startPos, endPos, numericMode, new Page<>());
             }
 
-            result.setTotal(queryCount(sql, params));
             result.setPageSize(pageSize);
             result.setPageIndex(pageIndex);
+            setPageTotal(result, sql, params, startPos, strategy);
 
-            LOG.debug(findCaller() + "|Query result：" + result.size() + "/" + result.getTotal() + " records.");
+            LOG.debug(() -> caller() + "|Query result：" + result.size() + "/" + result.getTotal() + " records.");
             return result;
         } catch (Exception e) {
             throw new DAOException("Query failed:", e, rangedSql == null ? sql : rangedSql, params);
@@ -84,6 +123,97 @@ public class DefaultExecutor extends Executor {
         }
     }
 
+    // 读取带有窗口函数总记录数的查询结果，总记录数放在 Page.total 中；没有记录时 total 为 -1
+    private Page readWindowPage(Class<?> clazz) throws Exception { // NOSONAR
+        RowSchema schema = RowSchema.of(rs, numericMode);
+        int countIndex = rs.findColumn(ResultSetUtil.WINDOW_COUNT_COLUMN_NAME);
+        BeanMapper<?> mapper = clazz == null ? null : ResultSetUtil.createBeanMapper(schema, clazz);
+
+        Page<Object> page = new Page<>();
+        int total = -1;
+        while (rs.next()) {
+            if (total < 0) {
+                total = rs.getInt(countIndex);
+            }
+            page.add(mapper != null ? mapper.read(rs) : ResultSetUtil.readRow(rs, schema));
+        }
+
+        page.setTotal(total);
+        return page;
+    }
+
+    private void setPageTotal(Page result, String sql, List params, int startPos, CountStrategy countStrategy) {
+        switch (countStrategy) {
+            case NONE:
+                boolean hasNext = result.size() > result.getPageSize();
+                if (hasNext) {
+                    result.remove(result.size() - 1);
+                }
+                // 没有下一页时，如果当前页有记录（或者是第一页），那么总记录数就是准确的
+                result.setHasNext(hasNext);
+                result.setTotal(startPos + result.size() + (hasNext ? 1 : 0));
+                result.setTotalExact(!hasNext && (!result.isEmpty() || startPos == 0));
+                return;
+
+            case CACHED:
+                CountCache.Key key = CountCache.key(info.getDsName(), sql, params);
+                Integer cached = CountCache.get(key);
+                if (cached != null) {
+                    result.setTotal(cached);
+                    result.setTotalExact(false);
+                } else {
+                    int total = queryCount(sql, params);
+                    CountCache.put(key, total);
+                    result.setTotal(total);
+                }
+                return;
+
+            case WINDOW:
+                // 超出最后一页时没有记录，也就无法得到总记录数
+                if (result.getTotal() < 0) {
+                    result.setTotal(queryCount(sql, params));
+                }
+                return;
+
+            case ESTIMATE:
+                Integer estimate = queryEstimateCount(sql);
+                if (estimate != null) {
+                    result.setTotal(estimate);
+                    result.setTotalExact(false);
+                } else {
+                    result.setTotal(queryCount(sql, params));
+                }
+                return;
+
+            default:
+                result.setTotal(queryCount(sql, params));
+        }
+    }
+
+    /**
+     * 从数据库的统计信息中获取估算的总记录数，仅适用于没有条件的单表查询
+     *
+     * @param sql 查询语句
+     *
+     * @return 估算的总记录数。如果不适用或者数据库没有统计信息，则返回 null
+     */
+    private Integer queryEstimateCount(String sql) {
+        String table = SqlTableExtractor.getWholeTable(sql);
+        String estimateSql = dialect.getEstimateCountSql();
+        if (table == null || estimateSql == null) {
+            return null;
+        }
+
+        List<Object> params = Collections.singletonList(table.substring(table.lastIndexOf('.') + 1));
+        List<?> list = query(null, estimateSql, params, -1, -1);
+        if (list.isEmpty()) {
+            return null;
+        }
+
+        Object value = ((Row) list.get(0)).values().iterator().next();
+        return value instanceof Number ? ((Number) value).intValue() : null;
+    }
+
     /**
      * 获得一个包装好的分页查询语句，针对不同数据库应有不同实现。
      *
@@ -94,7 +224,7 @@ public class DefaultExecutor extends Executor {
      * @return 包装好的分页查询语句。对于未知类型的数据库，返回 null。
      */
     private String getRangedSql(String sql, int startPos, int endPos) throws SQLException {
-        return CommandBuilderHelper.getHelper(connection).getRangedSql(sql, startPos, endPos);
+        return getHelper().getRangedSql(sql, startPos, endPos);
     }
 
     /**
@@ -122,18 +252,30 @@ public class DefaultExecutor extends Executor {
     }
 
     private String getCountSql(String sql) throws SQLException {
-        return CommandBuilderHelper.getHelper(connection).getCountSql(sql);
+        return getHelper().getCountSql(sql);
     }
 
     @Override
-    public RowIterator queryIterator(String sql, List<Object> params, Consumer<Row> preProcessor) {
+    public RowIterator queryIterator(
+            String sql, List<Object> params, Consumer<Row> preProcessor, QueryOptions options) {
         printCommand(sql, params);
         try {
-            executeQuery(sql, params);
+            if (options.isStreaming()) {
+                executeStreamingQuery(sql, params, options.getFetchSize());
+            } else {
+                // 迭代器的 ResultSet 在返回之后仍然要使用，所以不能使用缓存的语句
+                executeQuery(sql, params, false);
+                if (options.getFetchSize() > 0) {
+                    rs.setFetchSize(options.getFetchSize());
+                }
+            }
         } catch (SQLException e) {
             throw new DAOException("Query failed:", e, sql, params);
         }
-        return new RowIterator(rs, preProcessor);
+        RowIterator iterator = new RowIterator(rs, preProcessor);
+        iterator.setNumericMode(numericMode);
+        iterator.setCloseHandler(() -> info.setClosed(true));   // 迭代器关闭时连接也已关闭
+        return iterator;
     }
 
     /**
@@ -156,16 +298,17 @@ public class DefaultExecutor extends Executor {
                     null : getRangedSql(sql, startPosition, endPosition);
 
             printCommand(rangedSql == null ? sql : rangedSql, params);
-            executeQuery(rangedSql == null ? sql : rangedSql, params);
+            executeQuery(rangedSql == null ? sql : rangedSql, params, true,
+                    getResultSetType(rangedSql == null && startPosition > 0));
 
             List<Object> result;
             if (rangedSql != null) {
-                result = ResultSetUtil.readResultSet(rs, clazz, -1, -1);
+                result = ResultSetUtil.readResultSet(rs, clazz, -1, -1, numericMode);
             } else {
-                result = ResultSetUtil.readResultSet(rs, clazz, startPosition, endPosition);
+                result = ResultSetUtil.readResultSet(rs, clazz, startPosition, endPosition, numericMode);
             }
 
-            LOG.debug(findCaller() + "|Query result: " + result.size() + " records.");
+            LOG.debug(() -> caller() + "|Query result: " + result.size() + " records.");
             return result;
         } catch (Exception e) {
             throw new DAOException("Query failed:", e, rangedSql == null ? sql : rangedSql, params);
@@ -174,11 +317,27 @@ public class DefaultExecutor extends Executor {
         }
     }
 
+    @Override
+    public ColumnarResult queryColumnar(String sql, List<Object> params) {
+        printCommand(sql, params);
+        try {
+            executeQuery(sql, params);
+            ColumnarResult result = ColumnarResult.read(rs);
+
+            LOG.debug(() -> caller() + "|Query result: " + result.getRowCount() + " records.");
+            return result;
+        } catch (Exception e) {
+            throw new DAOException("Query failed:", e, sql, params);
+        } finally {
+            closeButConnection();
+        }
+    }
+
     @Override
     @SuppressWarnings({"unchecked"})
     public <T> T find(Class<T> wrapperClass, Object key, String tableName) {
         try {
-            Command command = QueryCommandBuilder.buildByKey(connection, tableName, key);
+            Command command = QueryCommandBuilder.buildByKey(getHelper(), tableName, key);
             List list = query(wrapperClass, command.getStatement(), command.getParams(), 0, 1);
             return (T) (list.isEmpty() ? null : list.get(0));
         } catch (SQLException e) {
@@ -186,10 +345,96 @@ public class DefaultExecutor extends Executor {
         }
     }
 
+    @Override
+    @SuppressWarnings({"unchecked"})
+    public <K, T> Map<K, T> findAll(Class<T> wrapperClass, Collection<K> keys, String tableName) {
+        Map<Object, K> distinctKeys;
+        Map<Object, Object> found = new HashMap<>();
+
+        try {
+            ColumnInfo keyInfo = QueryCommandBuilder.getSinglePrimaryKey(getHelper(), tableName);
+            String keyColumn = keyInfo.getColumnName();
+            int keyType = keyInfo.getDataType();
+            distinctKeys = getDistinctKeys(keys, keyType);
+            BeanMapper<T> mapper = null;
+
+            for (List<K> chunk : getKeyChunks(distinctKeys.values())) {
+                Command command = QueryCommandBuilder.buildByKeys(getHelper(), tableName, chunk, false);
+                List<Row> rows = query(null, command.getStatement(), command.getParams(), -1, -1);
+
+                for (Row row : rows) {
+                    if (wrapperClass != null && wrapperClass != Row.class && mapper == null) {
+                        mapper = BeanMapper.of(wrapperClass, row.keySet());
+                    }
+                    found.put(TypeUtil.normalizeKey(row.get(keyColumn), keyType), mapper == null ? row : mapper.map(row));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DAOException("Query failed:", e);
+        }
+
+        Map<K, T> result = new LinkedHashMap<>();
+        distinctKeys.forEach((normalized, key) -> {
+            Object value = found.get(normalized);
+            if (value != null) {
+                result.put(key, (T) value);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public boolean existsAll(Collection<?> keys, String tableName) {
+        try {
+            ColumnInfo keyInfo = QueryCommandBuilder.getSinglePrimaryKey(getHelper(), tableName);
+            String keyColumn = keyInfo.getColumnName();
+            int keyType = keyInfo.getDataType();
+            Map<Object, ?> distinctKeys = getDistinctKeys(keys, keyType);
+
+            for (List<?> chunk : getKeyChunks(distinctKeys.values())) {
+                Command command = QueryCommandBuilder.buildByKeys(getHelper(), tableName, chunk, true);
+                List<?> rows = query(null, command.getStatement(), command.getParams(), -1, -1);
+
+                Set<Object> found = new HashSet<>();
+                rows.forEach(row -> found.add(TypeUtil.normalizeKey(((Row) row).get(keyColumn), keyType)));
+                for (Object key : chunk) {
+                    if (!found.contains(TypeUtil.normalizeKey(key, keyType))) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            throw new DAOException("Query failed:", e);
+        }
+    }
+
+    // 去掉重复的主键值（数字字段的 1、1L 和 "1" 视为重复），保持原来的顺序
+    private static <K> Map<Object, K> getDistinctKeys(Collection<K> keys, int keyType) {
+        Map<Object, K> distinctKeys = new LinkedHashMap<>();
+        for (K key : keys) {
+            if (key != null) {
+                distinctKeys.putIfAbsent(TypeUtil.normalizeKey(key, keyType), key);
+            }
+        }
+        return distinctKeys;
+    }
+
+    // 按照 in (...) 的长度限制将主键分批
+    private <K> List<List<K>> getKeyChunks(Collection<K> keys) {
+        int chunkSize = Math.max(1, Math.min(dialect.getMaxInListSize(), dialect.getMaxParameters()));
+        List<K> list = new ArrayList<>(keys);
+        List<List<K>> chunks = new ArrayList<>();
+        for (int i = 0; i < list.size(); i += chunkSize) {
+            chunks.add(list.subList(i, Math.min(i + chunkSize, list.size())));
+        }
+        return chunks;
+    }
+
     @Override
     public boolean exists(Object obj, String tableName) {
         try {
-            Command command = QueryCommandBuilder.build(connection, tableName, obj);
+            Command command = QueryCommandBuilder.build(getHelper(), tableName, obj);
             return !query(null, command.getStatement(), command.getParams(), -1, -1).isEmpty();
         } catch (SQLException e) {
             throw new DAOException("Delete failed: " + e.getMessage(), e);
@@ -198,16 +443,25 @@ public class DefaultExecutor extends Executor {
 
     // 执行语句并将结果赋值给 this.rs
     private void executeQuery(String sql, List<Object> params) throws SQLException {
+        executeQuery(sql, params, true);
+    }
+
+    private void executeQuery(String sql, List<Object> params, boolean cacheable) throws SQLException {
+        executeQuery(sql, params, cacheable, ResultSet.TYPE_FORWARD_ONLY);
+    }
+
+    private void executeQuery(
+            String sql, List<Object> params, boolean cacheable, int resultSetType) throws SQLException {
 
         // PreparerdStatement 可以不用就不用，以免占用过多 Oracle 的指针。
         if (params == null || params.isEmpty()) {
-            st = createNormalStatement();
+            st = createNormalStatement(resultSetType);
             if (TIMEOUT != -1) {
                 st.setQueryTimeout(TIMEOUT);
             }
             rs = st.executeQuery(sql);
         } else {
-            PreparedStatement ps = createPreparedStatement(sql);
+            PreparedStatement ps = createPreparedStatement(sql, cacheable, resultSetType);
             st = ps;
             insertParams(params);
             if (TIMEOUT != -1) {
@@ -217,6 +471,37 @@ public class DefaultExecutor extends Executor {
         }
     }
 
+    /**
+     * 执行流式查询。语句总是只读、只向前的，不使用缓存，由方言设置 fetchSize 等读取方式
+     *
+     * @param sql       查询语句
+     * @param params    参数
+     * @param fetchSize 调用者指定的 fetchSize，0 表示自动决定
+     *
+     * @throws SQLException 如果查询失败
+     */
+    private void executeStreamingQuery(String sql, List<Object> params, int fetchSize) throws SQLException {
+        statementCached = false;
+        boolean prepared = params != null && !params.isEmpty();
+
+        if (prepared) {
+            st = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            insertParams(params);
+        } else {
+            st = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        }
+
+        if (TIMEOUT != -1) {
+            st.setQueryTimeout(TIMEOUT);
+        }
+        dialect.prepareStreaming(st, fetchSize);
+
+        rs = prepared ? ((PreparedStatement) st).executeQuery() : st.executeQuery(sql);
+        if (fetchSize <= 0) {
+            dialect.tuneStreaming(rs);
+        }
+    }
+
     ////////////////////////////////////////////////////////////////
 
     @Override
@@ -230,26 +515,18 @@ public class DefaultExecutor extends Executor {
         try {
             // 执行语句
             List<List<Object>> params = command.getParams();
+            List<Integer> paramTypes = getBatchParamTypes(command.getCommand(), command.getColumnInfos());
             PreparedStatement ps = createPreparedStatement(command.getCommand());
             st = ps;
 
             for (List<Object> param : params) {
-                insertBatchParams(command, param);
+                insertParams(param, paramTypes);
                 ps.addBatch();
             }
 
-            int counter = 0;
-            int[] counts = ps.executeBatch();
-            for (int count : counts) {
-                if (count == Statement.SUCCESS_NO_INFO) {
-                    counter++;
-                } else {
-                    counter += count;
-                }
-            }
-
-            return counter;
+            return sumUpdateCounts(ps.executeBatch());
         } catch (SQLException e) {
+            discardStatement();     // 批处理失败后语句的状态不确定，不再使用
             throw new DAOException("Insert Failed: " + e.getMessage(),
                     e, command.getCommand(), command.getParams());
         } finally {
@@ -261,51 +538,92 @@ public class DefaultExecutor extends Executor {
     public int execute(IteratorBatchCommand command) {
 
         int batchSize = command.getBatchSize();
-        int counter = 0;
         if (batchSize < 1) {
             throw new IllegalStateException("Batch command size must > 0");
         }
 
+        String sql = command.getCommand();
+        info.setLastCommand(sql);
+        info.setLastExecuteTime(System.currentTimeMillis());
+        LOG.debug(() -> "Execute iterator batch(" + info.getDsName() + "):" + sql.replace('\n', ' ') +
+                "[" + batchSize + " per batch]");
+
         Iterator<List<Object>> params = command.getParams();
-        List<List<Object>> buffer = new ArrayList<>(batchSize);
+        IteratorBatchCommand.ProgressListener listener = command.getProgressListener();
+        List<Integer> paramTypes = getBatchParamTypes(sql, command.getColumnInfos());
+        List<Object> current = null;
+
+        try {
+            // 整个过程只使用一个语句，每批执行后重新填充
+            PreparedStatement ps = createPreparedStatement(sql);
+            st = ps;
+
+            long start = System.nanoTime(), chunkStart = start;
+            long rows = 0;
+            int counter = 0, chunk = 0, chunkRows = 0;
+
+            while (params.hasNext()) {
+                current = params.next();
+                insertParams(current, paramTypes);
+                ps.addBatch();
+                chunkRows++;
 
-        while (params.hasNext()) {
-            List<Object> next = params.next();
+                if (chunkRows >= batchSize || !params.hasNext()) {
+                    counter += sumUpdateCounts(ps.executeBatch());
+                    ps.clearBatch();
+                    rows += chunkRows;
+                    chunk++;
 
-            buffer.add(next);
-            if (buffer.size() >= batchSize) {
-                counter += execute(new BatchCommand(command.getCommand(), buffer));
-                buffer = new ArrayList<>(batchSize);
+                    long now = System.nanoTime();
+                    if (listener != null) {
+                        listener.onProgress(new BatchProgress(chunk, chunkRows, now - chunkStart, rows, now - start));
+                    }
+                    chunkStart = now;
+                    chunkRows = 0;
+                }
             }
-        }
 
-        // flush final data
-        if (!buffer.isEmpty()) {
-            counter += execute(new BatchCommand(command.getCommand(), buffer));
+            return counter;
+        } catch (SQLException e) {
+            discardStatement();     // 批处理失败后语句的状态不确定，不再使用
+            throw new DAOException("Batch execution failed: " + e.getMessage(), e, sql, current);
+        } finally {
+            closeButConnection();
         }
+    }
 
+    // 批处理的执行结果中可能包含 SUCCESS_NO_INFO，按一条记录计算
+    private static int sumUpdateCounts(int[] counts) {
+        int counter = 0;
+        for (int count : counts) {
+            if (count == Statement.SUCCESS_NO_INFO) {
+                counter++;
+            } else {
+                counter += count;
+            }
+        }
         return counter;
     }
 
     /**
-     * 为批处理命令填入参数值
+     * 获取批处理语句的参数类型，每个批处理命令只需要获取一次
      *
-     * @param command 批处理命令
-     * @param params  参数
+     * @param sql         批处理语句
+     * @param columnInfos 参数对应的字段信息，可能为 null
      *
-     * @throws SQLException 如果填入参数失败
+     * @return 参数类型。如果没有字段信息则返回 null
      */
-    private void insertBatchParams(BatchCommand command, List<Object> params) throws SQLException {
-        int length = Str.countMatches(command.getCommand(), "?");
-
-        List<Integer> paramTypes = new ArrayList<>();
-        if (command.getColumnInfos() != null) {
-            for (int i = 0; i < length; i++) {
-                paramTypes.add(command.getColumnInfos()[i].getDataType());
-            }
+    private List<Integer> getBatchParamTypes(String sql, ColumnInfo[] columnInfos) {
+        if (columnInfos == null) {
+            return null;
         }
 
-        insertParams(params, paramTypes);
+        int length = Math.min(Str.countMatches(sql, "?"), columnInfos.length);
+        List<Integer> paramTypes = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            paramTypes.add(columnInfos[i].getDataType());
+        }
+        return paramTypes;
     }
 
     @Override
@@ -377,7 +695,7 @@ public class DefaultExecutor extends Executor {
     public void insert(Object object, String tableName) {
         Command command = new Command();
         try {
-            command = InsertCommandBuilder.build(connection, tableName, object);
+            command = InsertCommandBuilder.build(getHelper(), tableName, object);
             execute(command.getStatement(), command.getParams());
         } catch (SQLException e) {
             throw new DAOException("Execution failed: " + e.getMessage(), e, command.getStatement(), command.getParams());
@@ -386,11 +704,135 @@ public class DefaultExecutor extends Executor {
 
     @Override
     public void insertList(List list, String table) {
+        insertList(list, table, InsertMode.BATCH);
+    }
+
+    @Override
+    public void insertList(List list, String table, InsertMode mode) {
+        BatchCommand command;
         try {
-            execute(InsertCommandBuilder.buildBatch(connection, table, list));
+            command = InsertCommandBuilder.buildBatch(getHelper(), table, list);
         } catch (SQLException e) {
             throw new DAOException("Insert Failed: " + e.getMessage(), e);
         }
+
+        if (mode == InsertMode.MULTI_ROW && dialect.isMultiRowInsertSupported() && command != BatchCommand.EMPTY) {
+            insertMultiRow(command);
+        } else {
+            execute(command);
+        }
+    }
+
+    /**
+     * 用多行 insert 语句执行批处理插入命令。每条语句的行数由方言的参数个数、行数和语句长度限制决定，
+     * 行数达到上限的语句共用一个 PreparedStatement
+     *
+     * @param command 批处理插入命令
+     *
+     * @return 插入的记录数
+     */
+    private int insertMultiRow(BatchCommand command) {
+        int columnCount = command.getColumnInfos().length;
+        int maxRows = Math.min(dialect.getMaxRowsPerInsert(), dialect.getMaxParameters() / Math.max(1, columnCount));
+        if (maxRows <= 1) {
+            return execute(command);
+        }
+
+        printBatchCommand(command);
+
+        List<Integer> rowTypes = new ArrayList<>(columnCount);
+        for (ColumnInfo info : command.getColumnInfos()) {
+            rowTypes.add(info.getDataType());
+        }
+
+        List<List<Object>> rows = command.getParams();
+        String fullStatement = InsertCommandBuilder.buildMultiRowStatement(command, maxRows);
+        PreparedStatement full = null;
+        boolean fullCached = false;
+        String sql = fullStatement;
+        int counter = 0;
+
+        try {
+            int start = 0;
+            while (start < rows.size()) {
+                int end = getMultiRowEnd(rows, start, maxRows, command.getCommand().length());
+                int rowCount = end - start;
+
+                List<Object> params = new ArrayList<>(rowCount * columnCount);
+                List<Integer> paramTypes = new ArrayList<>(rowCount * columnCount);
+                for (int i = start; i < end; i++) {
+                    params.addAll(rows.get(i));
+                    paramTypes.addAll(rowTypes);
+                }
+
+                if (rowCount == maxRows) {
+                    sql = fullStatement;
+                    if (full == null) {
+                        full = createPreparedStatement(fullStatement);
+                        fullCached = statementCached;
+                    }
+                    st = full;
+                    statementCached = fullCached;
+                } else {
+                    sql = InsertCommandBuilder.buildMultiRowStatement(command, rowCount);
+                    st = createPreparedStatement(sql, false, ResultSet.TYPE_FORWARD_ONLY);
+                }
+
+                insertParams(params, paramTypes);
+                counter += ((PreparedStatement) st).executeUpdate();
+
+                if (st != full) {
+                    closeButConnection();
+                }
+                start = end;
+            }
+
+            return counter;
+        } catch (SQLException e) {
+            if (st == full) {
+                discardStatement();
+                fullCached = false;
+            } else {
+                closeButConnection();
+            }
+            throw new DAOException("Insert Failed: " + e.getMessage(), e, sql, command.getParams());
+        } finally {
+            st = full;
+            statementCached = fullCached;
+            closeButConnection();
+        }
+    }
+
+    // 在不超过语句长度限制的前提下，从 start 开始的多少行可以放在一条语句中
+    private int getMultiRowEnd(List<List<Object>> rows, int start, int maxRows, int rowSqlLength) {
+        int end = Math.min(rows.size(), start + maxRows);
+        int maxBytes = dialect.getMaxStatementBytes();
+        if (maxBytes <= 0) {
+            return end;
+        }
+
+        long bytes = 0;
+        for (int i = start; i < end; i++) {
+            long rowBytes = rowSqlLength;
+            for (Object value : rows.get(i)) {
+                rowBytes += estimateParamBytes(value);
+            }
+            bytes += rowBytes;
+            if (bytes > maxBytes && i > start) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private static int estimateParamBytes(Object value) {
+        if (value instanceof String) {
+            return ((String) value).length() * 3 + 2;
+        } else if (value instanceof byte[]) {
+            return ((byte[]) value).length * 2 + 3;
+        } else {
+            return 32;
+        }
     }
 
     @Override
@@ -402,30 +844,67 @@ public class DefaultExecutor extends Executor {
     public int delete(Object obj, String tableName) {
         Command command = new Command();
         try {
-            command = DeleteCommandBuilder.build(connection, tableName, obj);
+            command = DeleteCommandBuilder.build(getHelper(), tableName, obj);
             return execute(command.getStatement(), command.getParams());
         } catch (SQLException e) {
             throw new DAOException("Delete failed: " + e.getMessage(), e, command.getStatement(), command.getParams());
         }
     }
 
+    @Override
+    public int upsert(Object object, String tableName) {
+        return upsertList(Collections.singletonList(object), tableName);
+    }
+
+    @Override
+    public int upsertList(List list, String tableName) {
+        BatchCommand command;
+        try {
+            command = UpsertCommandBuilder.buildBatch(getHelper(), tableName, list);
+        } catch (SQLException e) {
+            throw new DAOException("Upsert failed: " + e.getMessage(), e);
+        }
+        return execute(command);
+    }
+
+    @Override
+    public int updateList(List list, String tableName, boolean nonNullOnly) {
+        List<BatchCommand> commands;
+        try {
+            commands = UpdateCommandBuilder.buildBatches(getHelper(), tableName, list, nonNullOnly);
+        } catch (SQLException e) {
+            throw new DAOException("Update failed: " + e.getMessage(), e);
+        }
+
+        int counter = 0;
+        for (BatchCommand command : commands) {
+            counter += execute(command);
+        }
+        return counter;
+    }
+
     @Override
     public int deleteByKey(Object key, String tableName) {
         try {
-            Command command = DeleteCommandBuilder.buildByKey(connection, tableName, key);
+            Command command = DeleteCommandBuilder.buildByKey(getHelper(), tableName, key);
             return execute(command.getStatement(), command.getParams());
         } catch (SQLException e) {
             throw new DAOException("Delete failed: " + e.getMessage(), e);
         }
     }
 
+    @Override
+    public ColumnInfo[] getColumnInfos(String tableName) {
+        return getHelper().getColumnInfos(tableName);
+    }
+
     ////////////////////////////////////////////////////////////////
 
     @Override
     public List call(String name, Object[] params) {
         try {
             SpParam[] spParams = StorageProsedureHelper.createSpParams(name, params, connection);
-            LOG.debug(findCaller() + "(procedure)" + name + Arrays.asList(spParams));
+            LOG.debug(() -> caller() + "(procedure)" + name + Arrays.asList(spParams));
             CallableStatement cs = StorageProsedureHelper.createCallableStatement(name, spParams, connection);
             if (TIMEOUT != -1) {
                 cs.setQueryTimeout(TIMEOUT);
@@ -441,7 +920,7 @@ public class DefaultExecutor extends Executor {
     public List callFunction(String name, Object[] params) {
 
         try {
-            LOG.debug(findCaller() + "(function)" + name + Arrays.asList(params));
+            LOG.debug(() -> caller() + "(function)" + name + Arrays.asList(params));
             SpParam[] spParams = FunctionHelper.createFunctionParams(name, params, connection);
             int resultType = spParams[0].getSqlType();
 
@@ -516,74 +995,103 @@ public class DefaultExecutor extends Executor {
      * @throws SQLException 如果创建失败
      */
     private Statement createNormalStatement() throws SQLException {
-        return connection.createStatement(getResultSetType(), ResultSet.CONCUR_READ_ONLY);
+        return createNormalStatement(ResultSet.TYPE_FORWARD_ONLY);
+    }
+
+    private Statement createNormalStatement(int resultSetType) throws SQLException {
+        statementCached = false;
+        return connection.createStatement(resultSetType, ResultSet.CONCUR_READ_ONLY);
     }
 
     private PreparedStatement createPreparedStatement(String sql) throws SQLException {
-        return connection.prepareStatement(sql, getResultSetType(), ResultSet.CONCUR_READ_ONLY);
+        return createPreparedStatement(sql, true, ResultSet.TYPE_FORWARD_ONLY);
     }
 
-    private int getResultSetType() {
+    /**
+     * 创建一个 PreparedStatement 对象，或者从缓存中取出相同语句的对象
+     *
+     * @param sql           SQL 语句
+     * @param cacheable     是否可以使用缓存
+     * @param resultSetType ResultSet 类型
+     *
+     * @return PreparedStatement 对象
+     *
+     * @throws SQLException 如果创建失败
+     */
+    private PreparedStatement createPreparedStatement(
+            String sql, boolean cacheable, int resultSetType) throws SQLException {
+        statementCached = cacheable && StatementCache.DEFAULT_SIZE > 0;
 
-        // Oracle 可以指定为 TYPE_FORWARD_ONLY（这样效率更高），而且在查询时可以调用 ResultSet.absolute() 方法；
-        // http://download.oracle.com/docs/cd/B10500_01/java.920/a96654/resltset.htm#1023726
-        // 但是 SQLServer 就必须是 TYPE_SCROLL_SENSITIVE，否则调用 ResultSet.absolute() 就会报错。
+        if (!statementCached) {
+            return connection.prepareStatement(sql, resultSetType, ResultSet.CONCUR_READ_ONLY);
+        }
 
-        if (databaseType == DatabaseType.SQLServer) {
-            return ResultSet.TYPE_SCROLL_SENSITIVE;
-        } else {
-            return ResultSet.TYPE_FORWARD_ONLY;
+        if (statementCache == null) {
+            statementCache = new StatementCache(StatementCache.DEFAULT_SIZE);
         }
-    }
 
-    ////////////////////////////////////////////////////////////////
+        PreparedStatement ps = statementCache.get(sql, resultSetType);
+        if (ps != null) {
+            info.statementCacheHit();
+            ps.clearParameters();
+            return ps;
+        }
 
-    private void printCommand(String sql, List params) {
-        info.setLastCommand(sql);
-        info.setLastExecuteTime(new java.util.Date());
+        info.statementCacheMiss();
+        ps = connection.prepareStatement(sql, resultSetType, ResultSet.CONCUR_READ_ONLY);
+        statementCache.put(sql, resultSetType, ps);
+        return ps;
+    }
 
-        LOG.debug(findCaller() + "(" + info.getDsName() + "): " +
-                sql.replaceAll("\n", " ") + " " + (params == null ? "" : params.toString()));
+    // 将当前语句移出缓存，由 closeButConnection() 关闭
+    private void discardStatement() {
+        if (statementCached && st instanceof PreparedStatement) {
+            statementCache.remove((PreparedStatement) st);
+            statementCached = false;
+        }
     }
 
-    private String findCaller() {
+    // 只有方言不支持分页语句、需要在客户端跳过记录时，才由方言决定是否使用可滚动的游标
+    private int getResultSetType(boolean skipping) {
+        return skipping ? dialect.getResultSetTypeForSkipping() : ResultSet.TYPE_FORWARD_ONLY;
+    }
 
-        StackTraceElement[] traceElements = Thread.currentThread().getStackTrace();
-        boolean daoStarted = false;
+    ////////////////////////////////////////////////////////////////
 
-        for (StackTraceElement traceElement : traceElements) {
-            String className = traceElement.getClassName();
-            int lineNumber = traceElement.getLineNumber();
+    private void printCommand(String sql, List params) {
+        info.setLastCommand(sql);
+        info.setLastExecuteTime(System.currentTimeMillis());
 
-            if (!daoStarted) {
-                if (className.startsWith("com.hyd.dao.")) {
-                    daoStarted = true;
-                }
-            } else {
-                if (!className.startsWith("com.hyd.dao.")) {
-                    return className + ":" + lineNumber;
-                }
-            }
+        if (CommandTracer.hasHooks()) {
+            CommandTracer.trace(info.getDsName(), sql, params);
         }
-        return "";
+
+        // 日志关闭时不拼接字符串，也不查找调用者
+        LOG.debug(() -> caller() + "(" + info.getDsName() + "): " +
+                sql.replace('\n', ' ') + " " + (params == null ? "" : params.toString()));
+    }
+
+    // 查找调用者需要获取整个堆栈，所以只按采样频率查找
+    private String caller() {
+        return CommandTracer.sampleCaller() ? CommandTracer.findCaller() : "";
     }
 
     private void printBatchCommand(BatchCommand command) {
         String sql = Str.n(command.getCommand());
         info.setLastCommand(sql);
-        info.setLastExecuteTime(new java.util.Date());
+        info.setLastExecuteTime(System.currentTimeMillis());
 
         List<List<Object>> params = command.getParams() == null ? new ArrayList<>() : command.getParams();
 
         if (BATCH_LOG.isEnabled(Logger.Level.Debug)) {
-            BATCH_LOG.debug("Batch(" + info.getDsName() + "):" + sql.replaceAll("\n", " ") + "; parameters:");
+            BATCH_LOG.debug("Batch(" + info.getDsName() + "):" + sql.replace('\n', ' ') + "; parameters:");
             for (List<Object> param : params) {
                 BATCH_LOG.debug(param.toString());
             }
 
         } else {
             if (LOG.isEnabled(Logger.Level.Debug)) {
-                LOG.debug("Execute batch:" + sql.replaceAll("\n", " ") + "[" + params.size() + " groups]");
+                LOG.debug("Execute batch:" + sql.replace('\n', ' ') + "[" + params.size() + " groups]");
             }
         }
     }
@@ -600,7 +1108,7 @@ public class DefaultExecutor extends Executor {
             }
         }
 
-        if (st != null) {
+        if (st != null && !statementCached) {
             try {
                 st.close();
             } catch (SQLException e) {
@@ -610,6 +1118,9 @@ public class DefaultExecutor extends Executor {
     }
 
     private void closeConnection() {
+        if (statementCache != null) {
+            statementCache.clear();
+        }
         try {
             if (!connection.isClosed()) {
                 connection.close();
@@ -1,16 +1,25 @@
 package com.hyd.dao.database.executor;
 
 import com.hyd.dao.BatchCommand;
+import com.hyd.dao.ColumnarResult;
+import com.hyd.dao.CountStrategy;
+import com.hyd.dao.InsertMode;
 import com.hyd.dao.IteratorBatchCommand;
+import com.hyd.dao.NumericMode;
 import com.hyd.dao.Page;
+import com.hyd.dao.QueryOptions;
 import com.hyd.dao.Row;
+import com.hyd.dao.database.ColumnInfo;
 import com.hyd.dao.database.DatabaseType;
 import com.hyd.dao.database.RowIterator;
 import com.hyd.dao.database.TransactionManager;
+import com.hyd.dao.database.dialect.Dialect;
+import com.hyd.dao.database.dialect.Dialects;
 import com.hyd.dao.snapshot.ExecutorInfo;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
@@ -30,8 +39,12 @@ public abstract class Executor {
 
     protected ExecutorInfo info;        // 当前状态
 
+    protected Dialect dialect;
+
     protected DatabaseType databaseType;
 
+    protected NumericMode numericMode = NumericMode.BIGDECIMAL;     // 查询结果中数字类型的处理方式
+
     /**
      * 构造函数
      *
@@ -39,9 +52,29 @@ public abstract class Executor {
      * @param connection 数据库连接
      */
     public Executor(String dsName, Connection connection) throws SQLException {
+        this(dsName, connection, Dialects.of(connection));
+    }
+
+    /**
+     * 构造函数。数据库方言由调用者提供，不再通过连接的元数据判断
+     *
+     * @param dsName     数据源名称
+     * @param connection 数据库连接
+     * @param dialect    数据库方言
+     */
+    public Executor(String dsName, Connection connection, Dialect dialect) {
         this.info = new ExecutorInfo(dsName);
         this.connection = connection;
-        this.databaseType = DatabaseType.of(connection);
+        this.dialect = dialect;
+        this.databaseType = dialect.getDatabaseType();
+    }
+
+    public Dialect getDialect() {
+        return dialect;
+    }
+
+    public DatabaseType getDatabaseType() {
+        return databaseType;
     }
 
     /**
@@ -100,7 +133,24 @@ public abstract class Executor {
      *
      * @return 查询的当前页
      */
-    public abstract <T> Page<T> queryPage(Class<T> clazz, String sql, List<Object> params, int pageSize, int pageIndex);
+    public <T> Page<T> queryPage(Class<T> clazz, String sql, List<Object> params, int pageSize, int pageIndex) {
+        return queryPage(clazz, sql, params, pageSize, pageIndex, CountStrategy.EXACT);
+    }
+
+    /**
+     * 查询分页
+     *
+     * @param clazz         包装类
+     * @param sql           查询语句
+     * @param params        参数
+     * @param pageSize      分页大小
+     * @param pageIndex     页号（从0开始）
+     * @param countStrategy 获取总记录数的方式
+     *
+     * @return 查询的当前页
+     */
+    public abstract <T> Page<T> queryPage(
+            Class<T> clazz, String sql, List<Object> params, int pageSize, int pageIndex, CountStrategy countStrategy);
 
     /**
      * @param clazz         包装类
@@ -113,6 +163,16 @@ public abstract class Executor {
      */
     public abstract List query(Class clazz, String sql, List<Object> params, int startPosition, int endPosition);
 
+    /**
+     * 执行查询，按列存储查询结果
+     *
+     * @param sql    查询语句
+     * @param params 参数
+     *
+     * @return 查询结果
+     */
+    public abstract ColumnarResult queryColumnar(String sql, List<Object> params);
+
     /**
      * 根据主键和表名查询指定的记录
      *
@@ -124,6 +184,27 @@ public abstract class Executor {
      */
     public abstract <T> T find(Class<T> wrapperClass, Object key, String tableName);
 
+    /**
+     * 根据多个主键查询记录。主键值按照方言的限制分批放入 in (...) 中查询
+     *
+     * @param wrapperClass 包装类
+     * @param keys         主键
+     * @param tableName    表名
+     *
+     * @return 主键和记录的对应关系，顺序与 keys 一致，不包含查询不到的主键
+     */
+    public abstract <K, T> Map<K, T> findAll(Class<T> wrapperClass, Collection<K> keys, String tableName);
+
+    /**
+     * 判断多个主键对应的记录是否都存在
+     *
+     * @param keys      主键
+     * @param tableName 表名
+     *
+     * @return 如果所有记录都存在则返回 true
+     */
+    public abstract boolean existsAll(Collection<?> keys, String tableName);
+
     /**
      * 插入记录
      *
@@ -166,6 +247,15 @@ public abstract class Executor {
      */
     public abstract int delete(Object obj, String tableName);
 
+    /**
+     * 获取表的字段信息（有缓存）
+     *
+     * @param tableName 表名
+     *
+     * @return 表的字段信息
+     */
+    public abstract ColumnInfo[] getColumnInfos(String tableName);
+
     /**
      * 执行查询，返回迭代器
      *
@@ -175,12 +265,31 @@ public abstract class Executor {
      *
      * @return 用于获得查询结果的迭代器
      */
-    public abstract RowIterator queryIterator(String sql, List<Object> params, Consumer<Row> preProcessor);
+    public RowIterator queryIterator(String sql, List<Object> params, Consumer<Row> preProcessor) {
+        return queryIterator(sql, params, preProcessor, QueryOptions.STREAMING);
+    }
+
+    /**
+     * 执行查询，返回迭代器
+     *
+     * @param sql          要执行的查询语句
+     * @param params       查询参数
+     * @param preProcessor 对 Row 对象的预处理
+     * @param options      查询选项
+     *
+     * @return 用于获得查询结果的迭代器
+     */
+    public abstract RowIterator queryIterator(
+            String sql, List<Object> params, Consumer<Row> preProcessor, QueryOptions options);
 
     public void setInfo(ExecutorInfo info) {
         this.info = info;
     }
 
+    public void setNumericMode(NumericMode numericMode) {
+        this.numericMode = numericMode;
+    }
+
     public void setTransactionIsolation(int level) throws SQLException {
         connection.setTransactionIsolation(level);
     }
@@ -202,6 +311,46 @@ public abstract class Executor {
      */
     public abstract void insertList(List list, String tableName);
 
+    /**
+     * 将一个 List 中的所有元素插入数据库
+     *
+     * @param list      List 对象
+     * @param tableName 表名
+     * @param mode      插入方式
+     */
+    public abstract void insertList(List list, String tableName, InsertMode mode);
+
+    /**
+     * 插入或更新一条记录，根据主键判断记录是否存在
+     *
+     * @param object    记录对象
+     * @param tableName 表名
+     *
+     * @return 受影响的行数
+     */
+    public abstract int upsert(Object object, String tableName);
+
+    /**
+     * 用一次批处理插入或更新 List 中的所有记录，根据主键判断记录是否存在
+     *
+     * @param list      List 对象
+     * @param tableName 表名
+     *
+     * @return 受影响的行数
+     */
+    public abstract int upsertList(List list, String tableName);
+
+    /**
+     * 根据主键更新 List 中的所有记录
+     *
+     * @param list        List 对象
+     * @param tableName   表名
+     * @param nonNullOnly 是否只更新值不为 null 的字段
+     *
+     * @return 受影响的行数
+     */
+    public abstract int updateList(List list, String tableName, boolean nonNullOnly);
+
     public abstract int deleteByKey(Object key, String tableName);
 
     public abstract boolean exists(Object obj, String tableName);
@@ -0,0 +1,137 @@
+package com.hyd.dao.database.executor;
+
+import com.hyd.dao.log.Logger;
+import com.hyd.dao.util.Str;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 一个数据库连接上的 PreparedStatement 缓存，按最近最少使用的顺序淘汰。
+ * <p/>
+ * 缓存与 Executor 对象（即数据库连接）的生命周期一致：同一个 Executor 中重复执行的语句
+ * （例如事务中循环执行的插入或更新）只需要预编译一次；被淘汰或者 Executor 关闭时，语句才会被关闭。
+ * 缓存在 Executor 第一次需要缓存语句时才创建，命中次数同时累计到数据源的
+ * {@link com.hyd.dao.snapshot.Snapshot} 中，Executor 关闭后仍然可以查看。
+ * 缓存大小可以通过系统属性 "jdbc.statement.cache.size" 指定，设为 0 表示不缓存。
+ * <p/>
+ * 本对象不是线程安全的，与 Executor 一样只能在一个线程中使用。
+ *
+ * @author yiding.he
+ */
+class StatementCache {
+
+    private static final Logger LOG = Logger.getLogger(StatementCache.class);
+
+    static final int DEFAULT_SIZE = Integer.parseInt(
+            Str.defaultIfEmpty(System.getProperty("jdbc.statement.cache.size"), "50"));
+
+    private final int size;
+
+    private final Map<Key, PreparedStatement> statements;
+
+    StatementCache(int size) {
+        this.size = size;
+        this.statements = new LinkedHashMap<Key, PreparedStatement>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, PreparedStatement> eldest) {
+                if (size() > StatementCache.this.size) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * 从缓存中取出语句
+     *
+     * @param sql           SQL 语句
+     * @param resultSetType ResultSet 类型
+     *
+     * @return 缓存的语句。如果没有缓存或者语句已经被关闭，则返回 null
+     *
+     * @throws SQLException 如果检查语句状态失败
+     */
+    PreparedStatement get(String sql, int resultSetType) throws SQLException {
+        Key key = new Key(sql, resultSetType);
+        PreparedStatement ps = statements.get(key);
+
+        if (ps != null && ps.isClosed()) {
+            statements.remove(key);
+            return null;
+        }
+
+        return ps;
+    }
+
+    void put(String sql, int resultSetType, PreparedStatement ps) {
+        PreparedStatement old = statements.put(new Key(sql, resultSetType), ps);
+        if (old != null && old != ps) {
+            closeQuietly(old);
+        }
+    }
+
+    /**
+     * 从缓存中移除语句（例如执行失败后语句状态不确定时）
+     *
+     * @param ps 要移除的语句
+     */
+    void remove(PreparedStatement ps) {
+        statements.values().removeIf(cached -> cached == ps);
+    }
+
+    /**
+     * 关闭所有缓存的语句
+     */
+    void clear() {
+        List<PreparedStatement> list = new ArrayList<>(statements.values());
+        statements.clear();
+        list.forEach(StatementCache::closeQuietly);
+    }
+
+    private static void closeQuietly(PreparedStatement ps) {
+        try {
+            ps.close();
+        } catch (SQLException e) {
+            LOG.error("", e);
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////
+
+    private static class Key {
+
+        private final String sql;
+
+        private final int resultSetType;
+
+        private Key(String sql, int resultSetType) {
+            this.sql = sql;
+            this.resultSetType = resultSetType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return resultSetType == key.resultSetType && sql.equals(key.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sql, resultSetType);
+        }
+    }
+}
@@ -0,0 +1,418 @@
+package com.hyd.dao.database.type;
+
+import com.hyd.dao.DAOException;
+import com.hyd.dao.log.Logger;
+import com.hyd.dao.util.BeanUtil;
+import com.hyd.dao.util.MapCacheUtils;
+import com.hyd.dao.util.TypeUtil;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.*;
+
+/**
+ * 将查询结果映射为 pojo 对象的映射器。
+ * <p/>
+ * 每个 (pojo 类, 查询结果字段列表) 组合只编译一次：编译时即确定每个字段对应的属性、
+ * 属性类型和写入方式（setter 方法或成员变量），映射每一行时不再进行反射查找。
+ *
+ * @author yiding.he
+ */
+@SuppressWarnings("unchecked")
+public class BeanMapper<T> {
+
+    private static final Logger LOG = Logger.getLogger(BeanMapper.class);
+
+    public static final int CACHE_SIZE = 1000;
+
+    private static final Map<Key, BeanMapper> CACHE = MapCacheUtils.newLRUCache(CACHE_SIZE, true);
+
+    private static final MethodType WRITER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+    private static final int UNKNOWN_TYPE = Integer.MIN_VALUE;
+
+    /**
+     * 获取映射器，如果缓存中没有则编译一个
+     *
+     * @param type    pojo 类
+     * @param columns 查询结果的字段名（小写），顺序即字段在查询结果中的顺序
+     *
+     * @return 映射器
+     */
+    public static <T> BeanMapper<T> of(Class<T> type, String[] columns) {
+        return of(type, columns, null);
+    }
+
+    /**
+     * 获取映射器，如果缓存中没有则编译一个。指定了字段类型的映射器可以用
+     * {@link #read(ResultSet)} 方法直接从 ResultSet 读取对象。
+     *
+     * @param type        pojo 类
+     * @param columns     查询结果的字段名（小写），为 null 的元素表示忽略该字段
+     * @param columnTypes 字段的 SQL 类型，参考 {@link java.sql.Types}
+     *
+     * @return 映射器
+     */
+    public static <T> BeanMapper<T> of(Class<T> type, String[] columns, int[] columnTypes) {
+        return CACHE.computeIfAbsent(new Key(type, columns, columnTypes),
+                key -> new BeanMapper<>(type, columns, columnTypes));
+    }
+
+    public static <T> BeanMapper<T> of(Class<T> type, Collection<String> columns) {
+        return of(type, columns.toArray(new String[0]));
+    }
+
+    ////////////////////////////////////////////////////////////////
+
+    private final Class<T> type;
+
+    private final MethodHandle constructor;
+
+    private final PropertyWriter[] writers;
+
+    private BeanMapper(Class<T> type, String[] columns, int[] columnTypes) {
+        this.type = type;
+        this.constructor = findConstructor(type);
+
+        List<PropertyWriter> writerList = new ArrayList<>();
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i] == null) {
+                continue;
+            }
+
+            int columnType = columnTypes == null ? UNKNOWN_TYPE : columnTypes[i];
+            PropertyWriter writer = createWriter(type, columns[i], i, columnType);
+            if (writer != null) {
+                writerList.add(writer);
+            }
+        }
+        this.writers = writerList.toArray(new PropertyWriter[0]);
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * 将一条以字段名为 key 的查询记录映射为对象
+     *
+     * @param row 查询记录
+     *
+     * @return 映射后的对象
+     */
+    public T map(Map<String, Object> row) {
+        T bean = newInstance();
+        for (PropertyWriter writer : writers) {
+            writer.write(bean, row.get(writer.column));
+        }
+        return bean;
+    }
+
+    /**
+     * 将一条按字段顺序排列的查询记录映射为对象
+     *
+     * @param values 查询记录，元素顺序与编译映射器时的字段顺序一致
+     *
+     * @return 映射后的对象
+     */
+    public T map(Object[] values) {
+        T bean = newInstance();
+        for (PropertyWriter writer : writers) {
+            writer.write(bean, values[writer.index]);
+        }
+        return bean;
+    }
+
+    /**
+     * 直接从 ResultSet 的当前行读取对象，不生成中间的 Row 对象。
+     * 能够确定类型的字段将使用 getLong()/getString()/getTimestamp() 等方法读取。
+     *
+     * @param rs 已经移至当前行的查询结果
+     *
+     * @return 映射后的对象
+     *
+     * @throws SQLException 如果读取失败
+     * @throws IOException  如果读取 LOB 字段失败
+     */
+    public T read(ResultSet rs) throws SQLException, IOException {
+        T bean = newInstance();
+        for (PropertyWriter writer : writers) {
+            writer.read(bean, rs);
+        }
+        return bean;
+    }
+
+    private T newInstance() {
+        try {
+            return (T) constructor.invokeExact();
+        } catch (Throwable e) {
+            throw new DAOException("Cannot create instance of " + type, e);
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////
+
+    // pojo 类必须有一个缺省的构造函数。
+    private static MethodHandle findConstructor(Class<?> type) {
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return MethodHandles.lookup().unreflectConstructor(constructor).asType(CONSTRUCTOR_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new DAOException("Class " + type + " must have a default constructor", e);
+        }
+    }
+
+    private static PropertyWriter createWriter(Class<?> type, String column, int index, int columnType) {
+        String fieldName = TypeConverter.getFieldName(column);
+        if (fieldName == null) {
+            LOG.warn("无法获取字段" + column + "的属性名");
+            return null;
+        }
+
+        Field field = findField(type, fieldName);
+        if (field == null) {
+            LOG.warn(type + " 中没有属性 '" + fieldName + "'");
+            return null;
+        }
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            Method writeMethod = BeanUtil.getWriteMethod(type, fieldName);
+
+            MethodHandle handle;
+            Class<?> valueType;
+
+            if (writeMethod != null) {
+                writeMethod.setAccessible(true);
+                handle = lookup.unreflect(writeMethod);
+                valueType = writeMethod.getParameterTypes()[0];
+            } else {
+                field.setAccessible(true);
+                handle = lookup.unreflectSetter(field);
+                valueType = field.getType();
+            }
+
+            return new PropertyWriter(column, index, fieldName, field.getType(), valueType,
+                    columnType, ReadKind.of(columnType, field.getType(), valueType), handle);
+        } catch (Exception e) {
+            LOG.warn("无法设置 " + type + " 的属性 '" + fieldName + "': " + e.toString());
+            return null;
+        }
+    }
+
+    private static Field findField(Class<?> type, String fieldName) {
+        Class<?> tracingType = type;
+
+        while (tracingType != null && tracingType != Object.class) {
+            try {
+                return tracingType.getDeclaredField(fieldName);
+            } catch (NoSuchFieldException e) {
+                tracingType = tracingType.getSuperclass();
+            }
+        }
+        return null;
+    }
+
+    ////////////////////////////////////////////////////////////////
+
+    /**
+     * 根据字段类型和属性类型决定的读取方式
+     */
+    private enum ReadKind {
+        LONG, INT, DOUBLE, STRING, DATE, OBJECT;
+
+        private static ReadKind of(int columnType, Class<?> fieldType, Class<?> valueType) {
+            if (columnType == UNKNOWN_TYPE || fieldType != valueType) {
+                return OBJECT;
+            }
+
+            boolean integerColumn = columnType == Types.INTEGER
+                    || columnType == Types.SMALLINT || columnType == Types.TINYINT;
+
+            if (valueType == Long.TYPE || valueType == Long.class) {
+                return integerColumn || columnType == Types.BIGINT ? LONG : OBJECT;
+            } else if (valueType == Integer.TYPE || valueType == Integer.class) {
+                return integerColumn ? INT : OBJECT;
+            } else if (valueType == Double.TYPE || valueType == Double.class) {
+                return integerColumn || columnType == Types.BIGINT || columnType == Types.DOUBLE
+                        || columnType == Types.FLOAT || columnType == Types.REAL ? DOUBLE : OBJECT;
+            } else if (valueType == String.class) {
+                return isCharacterType(columnType) ? STRING : OBJECT;
+            } else if (valueType == Date.class) {
+                return TypeUtil.isDateType(columnType) ? DATE : OBJECT;
+            } else {
+                return OBJECT;
+            }
+        }
+
+        private static boolean isCharacterType(int columnType) {
+            return columnType == Types.CHAR || columnType == Types.VARCHAR || columnType == Types.LONGVARCHAR
+                    || columnType == Types.NCHAR || columnType == Types.NVARCHAR || columnType == Types.LONGNVARCHAR
+                    || columnType == Types.CLOB || columnType == Types.NCLOB;
+        }
+    }
+
+    /**
+     * 对一个属性的写入操作
+     */
+    private static class PropertyWriter {
+
+        private final String column;
+
+        private final int index;
+
+        private final String fieldName;
+
+        private final Class<?> fieldType;
+
+        private final Class<?> valueType;
+
+        private final int columnType;
+
+        private final ReadKind readKind;
+
+        private final MethodHandle handle;
+
+        private final MethodHandle typedHandle;     // 参数为基本类型的 handle，避免装箱
+
+        private PropertyWriter(
+                String column, int index, String fieldName, Class<?> fieldType, Class<?> valueType,
+                int columnType, ReadKind readKind, MethodHandle handle) {
+            this.column = column;
+            this.index = index;
+            this.fieldName = fieldName;
+            this.fieldType = fieldType;
+            this.valueType = valueType;
+            this.columnType = columnType;
+            this.readKind = readKind;
+            this.handle = handle.asType(WRITER_TYPE);
+            this.typedHandle = valueType.isPrimitive() ?
+                    handle.asType(MethodType.methodType(void.class, Object.class, valueType)) : null;
+        }
+
+        private void write(Object bean, Object rawValue) {
+            Object value = null;
+            try {
+                value = TypeConverter.convertProperty(rawValue, fieldType);
+                if (value == null) {
+                    return;
+                }
+
+                value = BeanUtil.convertValue(value, valueType);
+                handle.invokeExact(bean, value);
+            } catch (Throwable e) {
+                warnFailure(bean, value, e);
+            }
+        }
+
+        private void read(Object bean, ResultSet rs) throws SQLException, IOException {
+            int columnIndex = index + 1;
+
+            try {
+                switch (readKind) {
+                    case LONG:
+                        long l = rs.getLong(columnIndex);
+                        if (!rs.wasNull()) {
+                            if (typedHandle != null) {
+                                typedHandle.invokeExact(bean, l);
+                            } else {
+                                handle.invokeExact(bean, (Object) l);
+                            }
+                        }
+                        return;
+                    case INT:
+                        int i = rs.getInt(columnIndex);
+                        if (!rs.wasNull()) {
+                            if (typedHandle != null) {
+                                typedHandle.invokeExact(bean, i);
+                            } else {
+                                handle.invokeExact(bean, (Object) i);
+                            }
+                        }
+                        return;
+                    case DOUBLE:
+                        double d = rs.getDouble(columnIndex);
+                        if (!rs.wasNull()) {
+                            if (typedHandle != null) {
+                                typedHandle.invokeExact(bean, d);
+                            } else {
+                                handle.invokeExact(bean, (Object) d);
+                            }
+                        }
+                        return;
+                    case STRING:
+                        String s = rs.getString(columnIndex);
+                        if (s != null) {
+                            handle.invokeExact(bean, (Object) s);
+                        }
+                        return;
+                    case DATE:
+                        Timestamp t = rs.getTimestamp(columnIndex);
+                        if (t != null) {
+                            handle.invokeExact(bean, (Object) new Date(t.getTime()));
+                        }
+                        return;
+                    default:
+                        write(bean, TypeUtil.convertDatabaseValue(columnType, rs.getObject(columnIndex)));
+                }
+            } catch (SQLException | IOException e) {
+                throw e;
+            } catch (Throwable e) {
+                warnFailure(bean, null, e);
+            }
+        }
+
+        private void warnFailure(Object bean, Object value, Throwable e) {
+            TypeConverter.warn("设置" + bean.getClass() + " 的属性 \"" + fieldName + "\"("
+                    + (value == null ? null : value.getClass().getName()) + ")失败: " + e.toString());
+        }
+    }
+
+    private static class Key {
+
+        private final Class<?> type;
+
+        private final String[] columns;
+
+        private final int[] columnTypes;
+
+        private final int hash;
+
+        private Key(Class<?> type, String[] columns, int[] columnTypes) {
+            this.type = type;
+            this.columns = columns;
+            this.columnTypes = columnTypes;
+            this.hash = 31 * (31 * type.hashCode() + Arrays.hashCode(columns)) + Arrays.hashCode(columnTypes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return type == key.type && Arrays.equals(columns, key.columns)
+                    && Arrays.equals(columnTypes, key.columnTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -1,11 +1,9 @@
 package com.hyd.dao.database.type;
 
 import com.hyd.dao.log.Logger;
-import com.hyd.dao.util.BeanUtil;
 import com.hyd.dao.util.Str;
 
 import java.io.IOException;
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.math.BigDecimal;
 import java.sql.Blob;
@@ -13,6 +11,7 @@ import java.sql.Clob;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 将查询结果封装为 pojo 对象的类
@@ -22,7 +21,7 @@ public class TypeConverter {
 
     static final Logger LOG = Logger.getLogger(TypeConverter.class);
 
-    private static Map<String, String> convertBuffer = new HashMap<String, String>();
+    private static Map<String, String> convertBuffer = new ConcurrentHashMap<>();
 
     private static ThreadLocal<List<String>> warnedMsgs = new ThreadLocal<List<String>>();
 
@@ -73,12 +72,15 @@ public class TypeConverter {
      */
     @SuppressWarnings({"unchecked"})
     public static List<Object> convert(Class clazz, List<Object> simpleResult) throws Exception { // NOSONAR
-        ArrayList<Object> result = new ArrayList<Object>();
+        ArrayList<Object> result = new ArrayList<Object>(simpleResult.size());
 
+        BeanMapper mapper = null;
         for (Object obj : simpleResult) {
             Map<String, Object> row = (Map<String, Object>) obj;
-            Object converted = convertRow(clazz, row);
-            result.add(converted);
+            if (mapper == null) {
+                mapper = BeanMapper.of(clazz, row.keySet());
+            }
+            result.add(mapper.map(row));
         }
 
         warnedMsgs.set(new ArrayList<String>());
@@ -104,52 +106,7 @@ public class TypeConverter {
             throws IllegalAccessException, InstantiationException, SQLException, IOException,
             NoSuchMethodException, InvocationTargetException {
 
-        // pojo 类必须有一个缺省的构造函数。
-        Object result = clazz.getDeclaredConstructor().newInstance();
-
-        for (String colName : row.keySet()) {
-            String fieldName = getFieldName(colName);
-            if (fieldName == null) {
-                warn("无法获取字段" + colName + "的属性名");
-                continue;
-            }
-
-            Class fieldType;
-            try {
-                fieldType = getFieldType(clazz, fieldName);
-            } catch (IllegalAccessException e) {
-                warn(clazz + " 中没有属性 '" + fieldName + "'");
-                continue;
-            }
-
-            Object value = convertProperty(row.get(colName), fieldType);
-            if (value != null) {
-                try {
-                    BeanUtil.setValue(result, fieldName, value);
-                } catch (Exception e) {
-                    warn("设置" + clazz + " 的属性 \"" + fieldName
-                            + "\"(" + value.getClass().getName() + ")失败: " + e.toString());
-                }
-            }
-        }
-        return result;
-    }
-
-    private static Class getFieldType(Class clazz, String fieldName) throws IllegalAccessException {
-        Class tracingType = clazz;
-
-        while (tracingType != null && tracingType != Object.class) {
-            try {
-                Field field = tracingType.getDeclaredField(fieldName);
-                if (field == null) {
-                    throw new IllegalAccessException("找不到 " + clazz + " 的成员：" + fieldName);
-                }
-                return field.getType();
-            } catch (NoSuchFieldException e) {
-                tracingType = tracingType.getSuperclass();
-            }
-        }
-        throw new IllegalAccessException("找不到 " + clazz + " 的成员：" + fieldName);
+        return BeanMapper.of(clazz, row.keySet()).map(row);
     }
 
     /**
@@ -166,7 +123,7 @@ public class TypeConverter {
      * @throws SQLException 如果数据库访问 LOB 字段失败
      * @throws IOException  如果从流中读取内容失败
      */
-    private static Object convertProperty(Object o, Class fieldType) throws SQLException, IOException {
+    static Object convertProperty(Object o, Class fieldType) throws SQLException, IOException {
 
         if (fieldType == Boolean.TYPE) {
             String str = String.valueOf(o);
@@ -222,7 +179,7 @@ public class TypeConverter {
      *
      * @param msg 警告信息
      */
-    private static void warn(String msg) {
+    static void warn(String msg) {
         List<String> list = warnedMsgs.get();
         if (list == null) {
             list = new ArrayList<>();
@@ -244,11 +201,7 @@ public class TypeConverter {
      * @return 属性名
      */
     public static String getFieldName(String columnName) {
-        if (convertBuffer.get(columnName) == null) {
-            String fieldName = Str.columnToProperty(columnName);
-            convertBuffer.put(columnName, fieldName);
-        }
-        return convertBuffer.get(columnName);
+        return convertBuffer.computeIfAbsent(columnName, Str::columnToProperty);
     }
 
 }
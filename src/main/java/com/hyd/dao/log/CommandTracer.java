@@ -0,0 +1,124 @@
+package com.hyd.dao.log;
+
+import com.hyd.dao.util.Str;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 跟踪执行的 SQL 命令。
+ * <p/>
+ * 查找调用者需要获取整个线程堆栈，代价较高，所以缺省不做；可以通过系统属性
+ * "dao.log.caller.sample" 或 {@link #setCallerSampleRate(int)} 指定每 N 次命令查找一次调用者，
+ * 设为 1 表示每次都查找。
+ * <p/>
+ * 跟踪钩子收到的调用者是一个 Supplier，只有钩子真正使用时才会获取堆栈。
+ *
+ * @author yiding.he
+ */
+public final class CommandTracer {
+
+    /**
+     * 跟踪钩子
+     */
+    public interface Hook {
+
+        /**
+         * 执行 SQL 命令之前调用
+         *
+         * @param dsName 数据源名称
+         * @param sql    SQL 语句
+         * @param params 参数，可能为 null
+         * @param caller 调用者（类名:行号），调用 get() 时才会查找
+         */
+        void onCommand(String dsName, String sql, List<?> params, Supplier<String> caller);
+    }
+
+    private static final List<Hook> HOOKS = new CopyOnWriteArrayList<>();
+
+    private static final AtomicLong COUNTER = new AtomicLong();
+
+    private static volatile int callerSampleRate = Integer.parseInt(
+            Str.defaultIfEmpty(System.getProperty("dao.log.caller.sample"), "0"));
+
+    private CommandTracer() {
+
+    }
+
+    public static void addHook(Hook hook) {
+        HOOKS.add(hook);
+    }
+
+    public static void removeHook(Hook hook) {
+        HOOKS.remove(hook);
+    }
+
+    public static boolean hasHooks() {
+        return !HOOKS.isEmpty();
+    }
+
+    public static int getCallerSampleRate() {
+        return callerSampleRate;
+    }
+
+    /**
+     * 设置查找调用者的频率
+     *
+     * @param rate 每多少次命令查找一次调用者，0 表示不查找
+     */
+    public static void setCallerSampleRate(int rate) {
+        callerSampleRate = Math.max(0, rate);
+    }
+
+    /**
+     * 通知所有钩子
+     *
+     * @param dsName 数据源名称
+     * @param sql    SQL 语句
+     * @param params 参数
+     */
+    public static void trace(String dsName, String sql, List<?> params) {
+        Supplier<String> caller = CommandTracer::findCaller;
+        for (Hook hook : HOOKS) {
+            hook.onCommand(dsName, sql, params, caller);
+        }
+    }
+
+    /**
+     * 按照采样频率判断本次是否需要查找调用者
+     *
+     * @return 如果需要查找则返回 true
+     */
+    public static boolean sampleCaller() {
+        int rate = callerSampleRate;
+        return rate > 0 && (rate == 1 || COUNTER.incrementAndGet() % rate == 0);
+    }
+
+    /**
+     * 在堆栈中查找 DAO 之外的第一个调用者
+     *
+     * @return 调用者（类名:行号），如果找不到则返回空字符串
+     */
+    public static String findCaller() {
+
+        StackTraceElement[] traceElements = new Throwable().getStackTrace();
+        boolean daoStarted = false;
+
+        for (StackTraceElement traceElement : traceElements) {
+            String className = traceElement.getClassName();
+
+            if (!daoStarted) {
+                if (className.startsWith("com.hyd.dao.")) {
+                    daoStarted = true;
+                }
+            } else {
+                if (!className.startsWith("com.hyd.dao.")) {
+                    return className + ":" + traceElement.getLineNumber();
+                }
+            }
+        }
+        return "";
+    }
+}
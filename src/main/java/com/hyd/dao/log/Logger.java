@@ -262,6 +262,9 @@ public class Logger {
 
     private LoggerType type;
 
+    // isXxxEnabled() 方法，按 Level 顺序缓存，避免每次判断都通过反射查找方法
+    private final Method[] enabledMethods = new Method[Level.values().length];
+
     public Object getLogger() {
         return logger;
     }
@@ -458,18 +461,36 @@ public class Logger {
     }
 
     public boolean isEnabled(Level level) {
-        String methodName = "is" + level + "Enabled";
+        if (type == LoggerType.JDK) {
+            return ((java.util.logging.Logger) logger).isLoggable((java.util.logging.Level) type.levelObj(level));
+        }
+
+        try {
+            return (Boolean) getEnabledMethod(level).invoke(logger);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private Method getEnabledMethod(Level level) throws Exception {
+        Method method = enabledMethods[level.ordinal()];
+        if (method != null) {
+            return method;
+        }
 
+        String className;
         if (type == LoggerType.LOGBACK) {
-            return (Boolean) executeMethod(logger, "org.slf4j.Logger", methodName, null, null);
+            className = "org.slf4j.Logger";
         } else if (type == LoggerType.LOG4J) {
-            return (Boolean) executeMethod(logger, "org.apache.log4j.Logger", methodName, null, null);
+            className = "org.apache.log4j.Logger";
         } else if (type == LoggerType.LOG4J2) {
-            return (Boolean) executeMethod(logger, "org.apache.logging.log4j.Logger", methodName, null, null);
-        } else if (type == LoggerType.JDK) {
-            return ((java.util.logging.Logger) logger).isLoggable((java.util.logging.Level) type.levelObj(level));
+            className = "org.apache.logging.log4j.Logger";
+        } else {
+            throw new IllegalStateException("Unsupported logger type '" + type + "'");
         }
 
-        throw new IllegalStateException("Unsupported logger type '" + type + "'");
+        method = Class.forName(className).getMethod("is" + level + "Enabled");
+        enabledMethods[level.ordinal()] = method;
+        return method;
     }
 }
@@ -14,12 +14,16 @@ public class ExecutorInfo {
 
     private String lastCommand;     // 最近执行的 SQL 语句
 
-    private Date lastExecuteTime;   // 最近执行 SQL 语句的时间
+    private long lastExecuteTime;   // 最近执行 SQL 语句的时间
 
     private boolean closed;         // Executor 是否已关闭
 
     private Snapshot snapshot;      // 关联的快照（用于主动移除自己）
 
+    private long statementCacheHits;    // PreparedStatement 缓存命中次数
+
+    private long statementCacheMisses;  // PreparedStatement 缓存未命中次数
+
     public ExecutorInfo(String dsName) {
         this.dsName = dsName;
         this.snapshot = Snapshot.getInstance(dsName);
@@ -60,18 +64,46 @@ public class ExecutorInfo {
     }
 
     public Date getLastExecuteTime() {
-        return lastExecuteTime;
+        return lastExecuteTime == 0 ? null : new Date(lastExecuteTime);
     }
 
     public void setLastExecuteTime(Date lastExecuteTime) {
+        this.lastExecuteTime = lastExecuteTime == null ? 0 : lastExecuteTime.getTime();
+    }
+
+    public void setLastExecuteTime(long lastExecuteTime) {
         this.lastExecuteTime = lastExecuteTime;
     }
 
+    public long getStatementCacheHits() {
+        return statementCacheHits;
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses;
+    }
+
+    public void statementCacheHit() {
+        this.statementCacheHits++;
+        if (this.snapshot != null) {
+            this.snapshot.statementCacheHit();
+        }
+    }
+
+    public void statementCacheMiss() {
+        this.statementCacheMisses++;
+        if (this.snapshot != null) {
+            this.snapshot.statementCacheMiss();
+        }
+    }
+
     public String toString() {
         return "ExecutorInfo{" +
                 "dsName='" + dsName + '\'' +
                 ", lastCommand='" + lastCommand + '\'' +
-                ", lastExecuteTime=" + lastExecuteTime +
+                ", lastExecuteTime=" + getLastExecuteTime() +
+                ", statementCacheHits=" + statementCacheHits +
+                ", statementCacheMisses=" + statementCacheMisses +
                 '}';
     }
 
@@ -1,6 +1,9 @@
 package com.hyd.dao.snapshot;
 
-import java.util.*;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 包含当前连接数据的快照（仅当使用本地连接池时可用）
@@ -10,7 +13,7 @@ public class Snapshot {
     /**
      * 数据源 -> 快照
      */
-    private static HashMap<String, Snapshot> instances = new HashMap<String, Snapshot>();
+    private static final Map<String, Snapshot> instances = new ConcurrentHashMap<>();
 
     /**
      * 获得指定数据源的一个快照
@@ -21,11 +24,7 @@ public class Snapshot {
      */
     public static Snapshot getInstance(String dsName) {
         Snapshot result = instances.get(dsName);
-        if (result == null) {
-            result = new Snapshot();
-            instances.put(dsName, result);
-        }
-        return result;
+        return result != null ? result : instances.computeIfAbsent(dsName, __ -> new Snapshot());
     }
 
     ////////////////////////////////////////////////////////////////
@@ -33,17 +32,40 @@ public class Snapshot {
     /**
      * 当前正在执行数据库命令的 Executor 列表
      */
-    private List<ExecutorInfo> executorInfoList = Collections.synchronizedList(new ArrayList<ExecutorInfo>());
+    private final Set<ExecutorInfo> executorInfos = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 数据源所有 Executor 的 PreparedStatement 缓存命中和未命中次数，包括已经关闭的 Executor
+     */
+    private final AtomicLong statementCacheHits = new AtomicLong();
+
+    private final AtomicLong statementCacheMisses = new AtomicLong();
 
     public void addExecutorInfo(ExecutorInfo info) {
-        executorInfoList.add(info);
+        executorInfos.add(info);
     }
 
     public ExecutorInfo[] getExecutorInfos() {
-        return executorInfoList.toArray(new ExecutorInfo[executorInfoList.size()]);
+        return executorInfos.toArray(new ExecutorInfo[0]);
     }
 
     public void removeInfo(ExecutorInfo executorInfo) {
-        executorInfoList.remove(executorInfo);
+        executorInfos.remove(executorInfo);
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits.get();
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses.get();
+    }
+
+    void statementCacheHit() {
+        statementCacheHits.incrementAndGet();
+    }
+
+    void statementCacheMiss() {
+        statementCacheMisses.incrementAndGet();
     }
 }
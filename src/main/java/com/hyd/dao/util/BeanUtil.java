@@ -74,6 +74,20 @@ public class BeanUtil {
                 getter ? descriptor.getReadMethod() : descriptor.getWriteMethod();
     }
 
+    /**
+     * 获得一个属性的 setter 方法
+     *
+     * @param clazz     包含属性的类
+     * @param fieldName 属性名
+     *
+     * @return setter 方法。如果属性不存在或没有 setter 方法，则返回 null
+     *
+     * @throws IntrospectionException 如果分析 JavaBean 失败
+     */
+    public static Method getWriteMethod(Class clazz, String fieldName) throws IntrospectionException {
+        return getPropertyMethod(clazz, fieldName, false);
+    }
+
     private static PropertyDescriptor getPropertyDescriptor(
             Class clazz, String fieldname) throws IntrospectionException {
 
@@ -108,7 +122,7 @@ public class BeanUtil {
      * @throws IllegalAccessException    如果执行构造函数失败
      * @throws InstantiationException    如果执行构造函数失败
      */
-    protected static Object convertValue(Object value, Class clazz)
+    public static Object convertValue(Object value, Class clazz)
             throws NoSuchMethodException, InvocationTargetException, IllegalAccessException, InstantiationException {
         if (value == null) {
             return null;
@@ -120,6 +134,14 @@ public class BeanUtil {
             return value;
         }
 
+        // 数字之间的转换尽量不经过字符串
+        if (value instanceof Number) {
+            Object converted = convertNumber((Number) value, clazz);
+            if (converted != null) {
+                return converted;
+            }
+        }
+
         if (clazz == String.class) {
             return String.valueOf(value);
 
@@ -195,6 +217,44 @@ public class BeanUtil {
     }
 
 
+    /**
+     * 在数字类型之间直接转换。整数之间的转换会检查溢出，浮点数转换为整数时必须没有小数部分。
+     *
+     * @param value 值
+     * @param clazz 要转换的类型
+     *
+     * @return 转换后的值。如果无法直接转换则返回 null，由调用者按原来的方式处理
+     */
+    private static Object convertNumber(Number value, Class clazz) {
+        boolean integral = value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte;
+
+        try {
+            if (clazz == Long.class || clazz == Long.TYPE) {
+                if (integral) {
+                    return value.longValue();
+                } else if (value instanceof BigDecimal) {
+                    return ((BigDecimal) value).longValueExact();
+                }
+            } else if (clazz == Integer.class || clazz == Integer.TYPE) {
+                if (integral) {
+                    return Math.toIntExact(value.longValue());
+                } else if (value instanceof BigDecimal) {
+                    return ((BigDecimal) value).intValueExact();
+                }
+            } else if (clazz == Double.class || clazz == Double.TYPE) {
+                return value.doubleValue();
+            } else if (clazz == BigDecimal.class) {
+                if (integral) {
+                    return BigDecimal.valueOf(value.longValue());
+                }
+            }
+        } catch (ArithmeticException e) {
+            // 溢出或带有小数，交给原来的方式处理（抛出异常）
+        }
+        return null;
+    }
+
     /**
      * 获得一个对象的属性
      *
@@ -1,18 +1,18 @@
 package com.hyd.dao.util;
 
 import com.hyd.dao.Page;
+import com.hyd.dao.NumericMode;
 import com.hyd.dao.Row;
-import com.hyd.dao.database.type.TypeConverter;
+import com.hyd.dao.database.RowSchema;
+import com.hyd.dao.database.type.BeanMapper;
 
 import java.io.IOException;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * 用于处理 ResultSet 的辅助类
@@ -22,6 +22,8 @@ public class ResultSetUtil {
 
     public static final String PAGNATION_WRAPPER_COLUMN_NAME = "pagnation_wrapper_column_name";
 
+    public static final String WINDOW_COUNT_COLUMN_NAME = "window_total_count";
+
     /**
      * 查询 ResultSet 中有哪些字段
      *
@@ -51,16 +53,28 @@ public class ResultSetUtil {
      * @throws java.io.IOException   如果获取值失败
      */
     public static Row readRow(ResultSet rs) throws SQLException, IOException {
-        Row row = new Row();
-        ResultSetMetaData meta = rs.getMetaData();
-        for (int i = 0; i < meta.getColumnCount(); i++) {
-            String colName = meta.getColumnLabel(i + 1);
-            int columnType = meta.getColumnType(i + 1);
-            Object o = rs.getObject(i + 1);
-            Object value = TypeUtil.convertDatabaseValue(columnType, o);
-            row.put(colName.toLowerCase(), value);
+        return readRow(rs, RowSchema.of(rs));
+    }
+
+    /**
+     * 将查询结果包装为 HashMap
+     *
+     * @param rs     已经移至当前行的查询结果
+     * @param schema 查询结果的字段结构，由读取同一个 ResultSet 的所有行共用
+     *
+     * @return 包装好的查询结果
+     *
+     * @throws java.sql.SQLException 如果查询失败
+     * @throws java.io.IOException   如果获取值失败
+     */
+    public static Row readRow(ResultSet rs, RowSchema schema) throws SQLException, IOException {
+        Object[] values = new Object[schema.getColumnCount()];
+        for (int i = 0; i < values.length; i++) {
+            if (schema.getLabel(i) != null) {
+                values[i] = schema.readValue(rs, i);
+            }
         }
-        return row;
+        return new Row(schema, values);
     }
 
     /**
@@ -77,8 +91,45 @@ public class ResultSetUtil {
      */
     public static List<Object> readResultSet(
             ResultSet rs, Class clazz, int startPosition, int endPosition) throws Exception { // NOSONAR
+        return readResultSet(rs, clazz, startPosition, endPosition, NumericMode.BIGDECIMAL);
+    }
+
+    /**
+     * 读取查询结果并包装
+     *
+     * @param rs            查询结果
+     * @param clazz         包装类。如果为空则表示用 Map 包装。
+     * @param startPosition 开始位置（0 表示第一条记录）
+     * @param endPosition   结束位置（不包含）
+     * @param numericMode   用 Map 包装时数字类型字段的处理方式
+     *
+     * @return 包装好的查询结果。如果 startPosition < 0 或 endPosition < 0 则表示返回所有的查询结果
+     *
+     * @throws java.sql.SQLException 如果查询失败
+     */
+    public static List<Object> readResultSet(
+            ResultSet rs, Class clazz, int startPosition, int endPosition,
+            NumericMode numericMode) throws Exception { // NOSONAR
+        return readResultSet(rs, clazz, startPosition, endPosition, numericMode, new ArrayList<>());
+    }
 
-        ArrayList<Object> result = new ArrayList<Object>();
+    /**
+     * 读取查询结果并包装，放入指定的 List 对象（例如 {@link Page}）
+     *
+     * @param rs            查询结果
+     * @param clazz         包装类。如果为空则表示用 Map 包装。
+     * @param startPosition 开始位置（0 表示第一条记录）
+     * @param endPosition   结束位置（不包含）
+     * @param numericMode   用 Map 包装时数字类型字段的处理方式
+     * @param result        用于存放结果的 List 对象
+     *
+     * @return result 对象。如果 startPosition < 0 或 endPosition < 0 则表示读取所有的查询结果
+     *
+     * @throws java.sql.SQLException 如果查询失败
+     */
+    public static <L extends List> L readResultSet(
+            ResultSet rs, Class clazz, int startPosition, int endPosition,
+            NumericMode numericMode, L result) throws Exception { // NOSONAR
 
         // startPosition 是指向要读取的第一条记录之前的位置
         if (startPosition > 0) {
@@ -87,18 +138,33 @@ public class ResultSetUtil {
             resetRsPosition(rs);
         }
 
+        // 字段结构只读取一次；有包装类时直接从 ResultSet 读取对象，不生成中间的 Row 对象
+        RowSchema schema = RowSchema.of(rs, numericMode);
+        BeanMapper mapper = clazz == null ? null : createBeanMapper(schema, clazz);
+
         int counter = startPosition;
         while (rs.next() && (startPosition < 0 || endPosition < 0 || counter < endPosition)) {
-            Map row = readRow(rs);
-
-            // 如果是包含分页字段，则去掉
-            row.remove(PAGNATION_WRAPPER_COLUMN_NAME);
-
-            result.add(row);
+            if (mapper != null) {
+                result.add(mapper.read(rs));
+            } else {
+                result.add(readRow(rs, schema));     // 分页字段不会被读取
+            }
             counter++;
         }
 
-        return clazz == null ? result : TypeConverter.convert(clazz, result);
+        return result;
+    }
+
+    /**
+     * 根据查询结果的字段结构构造映射器，分页字段将被忽略
+     *
+     * @param schema 查询结果的字段结构
+     * @param clazz  包装类
+     *
+     * @return 映射器
+     */
+    public static <T> BeanMapper<T> createBeanMapper(RowSchema schema, Class<T> clazz) {
+        return BeanMapper.of(clazz, schema.getLabels(), schema.getColumnTypes());
     }
 
     // 将 ResultSet 扫描位置重置为第0位
@@ -127,19 +193,25 @@ public class ResultSetUtil {
      */
     public static Page readPageResultSet(
             ResultSet rs, Class clazz, int pageSize, int pageIndex) throws Exception { // NOSONAR
+        return readPageResultSet(rs, clazz, pageSize, pageIndex, NumericMode.BIGDECIMAL);
+    }
 
-        Page result = new Page();
+    public static Page readPageResultSet(
+            ResultSet rs, Class clazz, int pageSize, int pageIndex,
+            NumericMode numericMode) throws Exception { // NOSONAR
 
         int startPos = pageSize < 0 ? -1 : pageIndex * pageSize;
         int endPos = startPos + pageSize;
 
-        result.addAll(readResultSet(rs, clazz, startPos, endPos));
-
-        return result;
+        return readResultSet(rs, clazz, startPos, endPos, numericMode, new Page());
     }
 
     public static HashMap[] readResultSet(ResultSet rs) throws Exception { // NOSONAR
-        List list = readResultSet(rs, null, -1, -1);
-        return (HashMap[]) list.toArray(new HashMap[list.size()]);
+        List<Object> list = readResultSet(rs, null, -1, -1);
+        HashMap[] result = new HashMap[list.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = new HashMap<>((Row) list.get(i));
+        }
+        return result;
     }
 }
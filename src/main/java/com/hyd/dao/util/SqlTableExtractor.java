@@ -0,0 +1,117 @@
+package com.hyd.dao.util;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 从查询语句中识别被查询的表
+ *
+ * @author yiding.he
+ */
+public class SqlTableExtractor {
+
+    // select <字段列表> from <表名> [[as] 别名] [order by ...]
+    // 字段列表中不能有括号（函数、聚合、子查询）和 distinct，因为它们会改变结果的记录数
+    private static final Pattern SINGLE_TABLE_QUERY = Pattern.compile(
+            "^\\s*select\\s+(?!distinct\\b)[^()]+?\\s+from\\s+([\\w.$]+)" +
+                    "(?:\\s+(?:as\\s+)?(?!(?:where|group|order|join|inner|left|right|cross|full|union|limit|having)\\b)\\w+)?" +
+                    "(?:\\s+order\\s+by\\s+[^()]+)?\\s*$",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    // 能够识别所涉及的表的语句
+    private static final Pattern DML = Pattern.compile(
+            "^\\s*\\(?\\s*(?:select|with|insert|update|delete|merge|replace)\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    // 表名，可以带 schema 和引号
+    private static final String IDENTIFIER = "(?:[\\w$]+|\"[^\"]+\"|`[^`]+`|\\[[^\\]]+\\])";
+
+    private static final String NAME = IDENTIFIER + "(?:\\s*\\.\\s*" + IDENTIFIER + ")*";
+
+    private static final Pattern TABLE_REFERENCE = Pattern.compile(
+            "\\b(?:from|join|into|update|using)\\s+(" + NAME + ")", Pattern.CASE_INSENSITIVE);
+
+    // from a x, b y 这样用逗号分隔的多个表
+    private static final Pattern NEXT_TABLE = Pattern.compile(
+            "(?:\\s+(?:as\\s+)?(?!(?:where|on|set|values|select|group|order|join|inner|left|right|cross|full|union|limit|having)\\b)\\w+)?" +
+                    "\\s*,\\s*(" + NAME + ")", Pattern.CASE_INSENSITIVE);
+
+    private static final Set<String> KEYWORDS = new HashSet<>(
+            Arrays.asList("select", "set", "values", "lateral", "unnest", "dual"));
+
+    private SqlTableExtractor() {
+
+    }
+
+    /**
+     * 判断查询语句是否为没有条件的单表查询，即查询结果的记录数等于表的记录数
+     *
+     * @param sql 查询语句
+     *
+     * @return 表名。如果不是没有条件的单表查询，则返回 null
+     */
+    public static String getWholeTable(String sql) {
+        Matcher matcher = SINGLE_TABLE_QUERY.matcher(sql);
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+
+    /**
+     * 找出语句中涉及的所有表（from、join、insert into、update、delete from、merge into ... using）。
+     * 表名统一为不带 schema 和引号的小写形式。结果可能比实际涉及的表多（例如字符串中出现的 from），
+     * 但不会少。
+     *
+     * @param sql SQL 语句
+     *
+     * @return 涉及的表。如果语句不是 select/insert/update/delete/merge，或者找不到任何表，则返回 null
+     */
+    public static Set<String> getTables(String sql) {
+        if (sql == null || !DML.matcher(sql).find()) {
+            return null;
+        }
+
+        Set<String> tables = new LinkedHashSet<>();
+        Matcher matcher = TABLE_REFERENCE.matcher(sql);
+        Matcher next = NEXT_TABLE.matcher(sql);
+
+        while (matcher.find()) {
+            addTable(tables, matcher.group(1));
+
+            int end = matcher.end();
+            next.region(end, sql.length());
+            while (next.lookingAt()) {
+                addTable(tables, next.group(1));
+                end = next.end();
+                next.region(end, sql.length());
+            }
+        }
+
+        return tables.isEmpty() ? null : tables;
+    }
+
+    /**
+     * 将表名统一为不带 schema 和引号的小写形式
+     *
+     * @param tableName 表名
+     *
+     * @return 统一后的表名
+     */
+    public static String normalizeTableName(String tableName) {
+        String name = tableName.trim();
+        int dot = name.lastIndexOf('.');
+        if (dot >= 0) {
+            name = name.substring(dot + 1).trim();
+        }
+        return name.replaceAll("[\"`\\[\\]]", "").toLowerCase();
+    }
+
+    private static void addTable(Set<String> tables, String tableName) {
+        String name = normalizeTableName(tableName);
+        if (!KEYWORDS.contains(name)) {
+            tables.add(name);
+        }
+    }
+}
@@ -195,4 +195,24 @@ public class Str {
 
         return false;
     }
+
+    /**
+     * 将字符串重复多次，中间用分隔符隔开，例如 repeat("?", ",", 3) 返回 "?,?,?"
+     *
+     * @param str       要重复的字符串
+     * @param separator 分隔符
+     * @param count     重复次数
+     *
+     * @return 结果
+     */
+    public static String repeat(String str, String separator, int count) {
+        StringBuilder sb = new StringBuilder(count * (str.length() + separator.length()));
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(separator);
+            }
+            sb.append(str);
+        }
+        return sb.toString();
+    }
 }
@@ -1,5 +1,6 @@
 package com.hyd.dao.util;
 
+import com.hyd.dao.NumericMode;
 import com.hyd.dao.database.ColumnInfo;
 import com.hyd.dao.database.DatabaseType;
 import com.hyd.dao.database.type.BlobReader;
@@ -41,18 +42,63 @@ public class TypeUtil {
      * @throws java.sql.SQLException 如果读取 LOB 字段失败
      */
     public static Object convertDatabaseValue(int columnType, Object value) throws IOException, SQLException {
-        if (value == null) {
-            return null;
-        } else if (isNumericType(columnType)) {
-            return (value instanceof BigDecimal ? value : new BigDecimal(value.toString()));
-        } else if (isDateType(columnType)) {
-            return toDate(value);
-        } else if (value instanceof Clob) {
+        return getValueConverter(columnType).convert(value);
+    }
+
+    /**
+     * 数据库值到 Java 类型的转换器
+     */
+    @FunctionalInterface
+    public interface ValueConverter {
+
+        Object convert(Object value) throws IOException, SQLException;
+    }
+
+    private static final ValueConverter NUMERIC_CONVERTER = value ->
+            value == null || value instanceof BigDecimal ? value : new BigDecimal(value.toString());
+
+    private static final ValueConverter NATIVE_CONVERTER = value -> value;
+
+    private static final ValueConverter DATE_CONVERTER = value ->
+            value == null ? null : toDate(value);
+
+    private static final ValueConverter DEFAULT_CONVERTER = value -> {
+        if (value instanceof Clob) {
             return ClobUtil.read((Clob) value);
         } else if (value instanceof Blob) {
             return BlobReader.readBytes((Blob) value);
         }
         return value;
+    };
+
+    /**
+     * 根据字段数据类型选择转换器，转换规则参考 {@link #convertDatabaseValue(int, Object)}。
+     * 对同一个字段的多个值进行转换时，只需要选择一次。
+     *
+     * @param columnType 值的 SQL 类型
+     *
+     * @return 转换器
+     */
+    public static ValueConverter getValueConverter(int columnType) {
+        return getValueConverter(columnType, NumericMode.BIGDECIMAL);
+    }
+
+    /**
+     * 根据字段数据类型和数字处理方式选择转换器
+     *
+     * @param columnType  值的 SQL 类型
+     * @param numericMode 数字类型的处理方式
+     *
+     * @return 转换器
+     */
+    public static ValueConverter getValueConverter(int columnType, NumericMode numericMode) {
+        if (isNumericType(columnType)) {
+            return numericMode == NumericMode.NATIVE ? NATIVE_CONVERTER : NUMERIC_CONVERTER;
+        } else if (isDateType(columnType)) {
+            return DATE_CONVERTER;
+        } else {
+            return DEFAULT_CONVERTER;
+        }
     }
 
     private static boolean isNumericType(int columnType) {
@@ -121,6 +167,52 @@ public class TypeUtil {
         }
     }
 
+    /**
+     * 统一主键值的类型，用于比较和查找。数字类型统一为 BigDecimal，使 1、1L 和 new BigDecimal("1.0") 相等。
+     * 无法转换为 BigDecimal 的 NaN 和无穷大原样返回
+     *
+     * @param key 主键值
+     *
+     * @return 统一后的值
+     */
+    public static Object normalizeKey(Object key) {
+        if (key instanceof Double || key instanceof Float) {
+            double d = ((Number) key).doubleValue();
+            return Double.isNaN(d) || Double.isInfinite(d) ? key : new BigDecimal(key.toString()).stripTrailingZeros();
+        }
+        if (key instanceof Number) {
+            return new BigDecimal(key.toString()).stripTrailingZeros();
+        }
+        return key;
+    }
+
+    /**
+     * 按照主键字段的类型统一主键值，使调用者提供的值和从数据库查出的值可以比较。
+     * 例如数字字段的主键值 "1"、1 和 1L 相等，字符串字段的主键值 1 和 "1" 相等
+     *
+     * @param key        主键值
+     * @param columnType 主键字段数据类型
+     *
+     * @return 统一后的值
+     */
+    public static Object normalizeKey(Object key, int columnType) {
+        if (key instanceof String && (isNumericType(columnType)
+                || columnType == Types.SMALLINT || columnType == Types.TINYINT)) {
+            try {
+                return normalizeKey(new BigDecimal(((String) key).trim()));
+            } catch (NumberFormatException e) {
+                return key;
+            }
+        }
+
+        if (key instanceof Number && (columnType == Types.CHAR || columnType == Types.VARCHAR
+                || columnType == Types.NCHAR || columnType == Types.NVARCHAR || columnType == Types.LONGVARCHAR)) {
+            return String.valueOf(key);
+        }
+
+        return normalizeKey(key);
+    }
+
     public static String getJavaType(DatabaseType databaseType, ColumnInfo columnInfo) {
 
         int dataType = columnInfo.getDataType();
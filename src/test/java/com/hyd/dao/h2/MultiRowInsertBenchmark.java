@@ -0,0 +1,99 @@
+package com.hyd.dao.h2;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.hyd.dao.DAO;
+import com.hyd.dao.DataSources;
+import com.hyd.dao.InsertMode;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hyd.dao.util.DBCPDataSource.newH2MemDataSource;
+
+/**
+ * 比较 dao.insert() 使用 JDBC 批处理和多行 insert 语句插入记录的耗时
+ */
+public class MultiRowInsertBenchmark {
+
+    private static final int ROWS = 100000;
+
+    private static final int ROUNDS = 5;
+
+    public static class Payment {
+
+        private long id;
+
+        private String name;
+
+        private double amount;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public double getAmount() {
+            return amount;
+        }
+
+        public void setAmount(double amount) {
+            this.amount = amount;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        ((Logger) LoggerFactory.getLogger("com.hyd.dao")).setLevel(Level.ERROR);
+
+        BasicDataSource dataSource = newH2MemDataSource();
+        DataSources dataSources = new DataSources();
+        dataSources.setDataSource("default", dataSource);
+
+        DAO dao = dataSources.getDAO("default");
+        dao.execute("create table benchmark_insert(id int primary key, name varchar(100), amount decimal(10,2))");
+
+        List<Payment> payments = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Payment payment = new Payment();
+            payment.setId(i);
+            payment.setName("name" + i);
+            payment.setAmount(i % 1000);
+            payments.add(payment);
+        }
+
+        // 预热
+        time(dao, payments, InsertMode.BATCH);
+        time(dao, payments, InsertMode.MULTI_ROW);
+
+        long batch = 0, multiRow = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            batch += time(dao, payments, InsertMode.BATCH);
+            multiRow += time(dao, payments, InsertMode.MULTI_ROW);
+        }
+
+        System.out.println("BATCH     : " + batch / ROUNDS / 1000000 + " ms/" + ROWS + " rows");
+        System.out.println("MULTI_ROW : " + multiRow / ROUNDS / 1000000 + " ms/" + ROWS + " rows");
+
+        dataSource.close();
+    }
+
+    private static long time(DAO dao, List<Payment> payments, InsertMode mode) {
+        dao.execute("delete from benchmark_insert");
+        long start = System.nanoTime();
+        dao.insert(payments, "benchmark_insert", mode);
+        return System.nanoTime() - start;
+    }
+}
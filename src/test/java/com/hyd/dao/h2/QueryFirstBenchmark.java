@@ -0,0 +1,77 @@
+package com.hyd.dao.h2;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.hyd.dao.DAO;
+import com.hyd.dao.DataSources;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static com.hyd.dao.util.DBCPDataSource.newH2MemDataSource;
+
+/**
+ * 比较 dao.queryFirst() 与直接使用 JDBC 查询一条记录的耗时，用于观察每次调用的固定开销
+ */
+public class QueryFirstBenchmark {
+
+    private static final int WARMUP = 20000;
+
+    private static final int ROUNDS = 200000;
+
+    private static final String SQL = "select * from benchmark_query_first where id=?";
+
+    public static void main(String[] args) throws Exception {
+        ((Logger) LoggerFactory.getLogger("com.hyd.dao")).setLevel(Level.ERROR);
+
+        BasicDataSource dataSource = newH2MemDataSource();
+        DataSources dataSources = new DataSources();
+        dataSources.setDataSource("default", dataSource);
+
+        DAO dao = dataSources.getDAO("default");
+        dao.execute("create table benchmark_query_first(id int primary key, name varchar(100), amount decimal(10,2))");
+        dao.execute("insert into benchmark_query_first values(?,?,?)", 1, "name1", 100);
+
+        for (int i = 0; i < WARMUP; i++) {
+            queryJdbc(dataSource);
+            dao.queryFirst(SQL, 1);
+        }
+
+        long jdbc = time(() -> queryJdbc(dataSource));
+        long hydrogen = time(() -> dao.queryFirst(SQL, 1));
+
+        System.out.println("JDBC       : " + jdbc / ROUNDS + " ns/call");
+        System.out.println("queryFirst : " + hydrogen / ROUNDS + " ns/call");
+        System.out.println("Overhead   : " + (hydrogen - jdbc) / ROUNDS + " ns/call");
+
+        dataSource.close();
+    }
+
+    private static void queryJdbc(BasicDataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(SQL)) {
+            ps.setObject(1, 1);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    rs.getObject(1);
+                    rs.getObject(2);
+                    rs.getObject(3);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long time(Runnable runnable) {
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            runnable.run();
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,87 @@
+package com.hyd.daotests;
+
+import com.hyd.dao.AsyncDAO;
+import com.hyd.dao.DAOException;
+import com.hyd.dao.DataSources;
+import com.hyd.dao.Row;
+import com.hyd.dao.database.commandbuilder.Command;
+import com.hyd.dao.util.DBCPDataSource;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author yiding_he
+ */
+public class AsyncDAOTest {
+
+    private static BasicDataSource dataSource;
+
+    private static DataSources dataSources;
+
+    private static AsyncDAO asyncDAO;
+
+    @BeforeClass
+    public static void beforeClass() {
+        dataSource = DBCPDataSource.newH2MemDataSource();
+        dataSource.setMaxTotal(4);
+
+        dataSources = new DataSources();
+        dataSources.setDataSource("async", dataSource);
+        asyncDAO = dataSources.getAsyncDAO("async");
+
+        asyncDAO.execute("create table async_items(id int primary key, name varchar(20))").join();
+        for (int i = 0; i < 10; i++) {
+            asyncDAO.execute("insert into async_items values (?, ?)", i, "item" + i).join();
+        }
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception {
+        dataSources.remove("async", ds -> {
+        });
+        dataSource.close();
+    }
+
+    @Test
+    public void testPoolSize() {
+        assertEquals(4, asyncDAO.getPoolSize());
+        assertSame(asyncDAO, dataSources.getAsyncDAO("async"));
+    }
+
+    @Test
+    public void testQuery() {
+        List<Row> rows = asyncDAO.query("select * from async_items where id < ?", 5).join();
+        assertEquals(5, rows.size());
+        assertEquals(10, asyncDAO.count("select count(*) from async_items").join().intValue());
+    }
+
+    @Test
+    public void testQueryAll() {
+        List<List<Row>> results = asyncDAO.queryAll(Arrays.asList(
+                new Command("select * from async_items where id < ?", Arrays.<Object>asList(3)),
+                new Command("select * from async_items where id >= ?", Arrays.<Object>asList(3))
+        )).join();
+
+        assertEquals(2, results.size());
+        assertEquals(3, results.get(0).size());
+        assertEquals(7, results.get(1).size());
+    }
+
+    @Test
+    public void testFailure() {
+        try {
+            asyncDAO.query("select * from async_no_such_table").join();
+            fail();
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof DAOException);
+        }
+    }
+}
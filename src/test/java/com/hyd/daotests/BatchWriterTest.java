@@ -0,0 +1,118 @@
+package com.hyd.daotests;
+
+import com.hyd.dao.BatchWriter;
+import com.hyd.dao.BatchWriterOptions;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author yiding_he
+ */
+public class BatchWriterTest extends InMemoryTestBase {
+
+    @BeforeClass
+    public static void createTable() {
+        dao.execute("create table batch_writer_test(id int primary key, name varchar(20))");
+        dao.execute("create table batch_writer_command_test(id int primary key, name varchar(20))");
+        dao.execute("create table batch_writer_reject_test(id int primary key, name varchar(20))");
+    }
+
+    @Test
+    public void testWriteFromManyThreads() throws Exception {
+        BatchWriter writer = dao.createBatchWriter("batch_writer_test",
+                BatchWriterOptions.DEFAULT.batchSize(100).queueCapacity(500).writers(2));
+
+        ExecutorService producers = Executors.newFixedThreadPool(4);
+        AtomicInteger id = new AtomicInteger();
+        for (int i = 0; i < 4; i++) {
+            producers.submit(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    Map<String, Object> row = new HashMap<>();
+                    int value = id.getAndIncrement();
+                    row.put("id", value);
+                    row.put("name", "name" + value);
+                    writer.write(row);
+                }
+            });
+        }
+        producers.shutdown();
+        assertTrue(producers.awaitTermination(30, TimeUnit.SECONDS));
+
+        writer.close();
+        assertEquals(4000, writer.getWrittenRows());
+        assertEquals(0, writer.getFailedRows());
+        assertEquals(0, writer.getQueueDepth());
+        assertTrue(writer.getFlushCount() >= 40);
+        assertEquals(4000, dao.count("select count(*) from batch_writer_test"));
+    }
+
+    @Test
+    public void testLingerAndErrors() throws Exception {
+        AtomicInteger failed = new AtomicInteger();
+        BatchWriter writer = dao.createCommandBatchWriter(
+                "insert into batch_writer_command_test values(?,?)",
+                BatchWriterOptions.DEFAULT.batchSize(1000).lingerMillis(10)
+                        .errorHandler((rows, e) -> failed.addAndGet(rows.size())));
+
+        // 不足一批，等待时间过后写入
+        writer.write(new Object[]{1, "a"});
+        writer.write(new Object[]{2, "b"});
+        long deadline = System.currentTimeMillis() + 5000;
+        while (writer.getWrittenRows() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, dao.count("select count(*) from batch_writer_command_test"));
+
+        // 主键冲突，整批失败
+        writer.write(new Object[]{1, "c"});
+        writer.close();
+        assertEquals(1, writer.getFailedRows());
+        assertEquals(1, failed.get());
+
+        try {
+            writer.write(new Object[]{3, "d"});
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void testRejectWhenFull() throws Exception {
+        // 第一批写入失败后，写入线程停在错误处理中，队列很快就会满
+        CountDownLatch latch = new CountDownLatch(1);
+        BatchWriter writer = dao.createCommandBatchWriter("insert into batch_writer_reject_test values(?,?)",
+                BatchWriterOptions.DEFAULT.queueCapacity(1).lingerMillis(0).blockWhenFull(false)
+                        .errorHandler((rows, e) -> awaitQuietly(latch)));
+        try {
+            writer.write(new Object[]{100, "x"});
+            writer.write(new Object[]{100, "x"});
+            for (int i = 101; i < 200; i++) {
+                writer.write(new Object[]{i, "x"});
+                Thread.sleep(10);
+            }
+        } finally {
+            latch.countDown();
+            writer.close();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
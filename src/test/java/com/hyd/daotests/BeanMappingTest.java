@@ -0,0 +1,119 @@
+package com.hyd.daotests;
+
+import com.hyd.dao.database.RowIterator;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author yiding_he
+ */
+public class BeanMappingTest extends InMemoryTestBase {
+
+    public static class Account {
+
+        private long id;
+
+        private String userName;
+
+        private Integer score;
+
+        private boolean active;
+
+        private Date createTime;
+
+        private String note;    // no setter
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public String getUserName() {
+            return userName;
+        }
+
+        public void setUserName(String userName) {
+            this.userName = userName;
+        }
+
+        public Integer getScore() {
+            return score;
+        }
+
+        public void setScore(Integer score) {
+            this.score = score;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+
+        public Date getCreateTime() {
+            return createTime;
+        }
+
+        public void setCreateTime(Date createTime) {
+            this.createTime = createTime;
+        }
+
+        public String getNote() {
+            return note;
+        }
+    }
+
+    @BeforeClass
+    public static void createTable() {
+        dao.execute("create table bean_mapping_account(" +
+                "id bigint primary key, user_name varchar(100), score int, " +
+                "active boolean, create_time timestamp, note varchar(100))");
+
+        for (int i = 1; i <= 10; i++) {
+            dao.execute("insert into bean_mapping_account values (?,?,?,?,?,?)",
+                    i, "user" + i, i % 3 == 0 ? null : i * 10, i % 2 == 1, new Date(), "note" + i);
+        }
+    }
+
+    @Test
+    public void testQuery() {
+        List<Account> accounts = dao.query(Account.class, "select * from bean_mapping_account order by id");
+        assertEquals(10, accounts.size());
+
+        Account first = accounts.get(0);
+        assertEquals(1L, first.getId());
+        assertEquals("user1", first.getUserName());
+        assertEquals(Integer.valueOf(10), first.getScore());
+        assertTrue(first.isActive());
+        assertNotNull(first.getCreateTime());
+        assertEquals("note1", first.getNote());
+
+        assertNull(accounts.get(2).getScore());
+        assertFalse(accounts.get(1).isActive());
+    }
+
+    @Test
+    public void testQueryPageAndIterator() {
+        List<Account> page = dao.queryPage(Account.class,
+                "select * from bean_mapping_account order by id", 3, 1);
+        assertEquals(3, page.size());
+        assertEquals(4L, page.get(0).getId());
+
+        List<Account> accounts = new ArrayList<>();
+        RowIterator iterator = dao.queryIterator("select id, user_name from bean_mapping_account");
+        iterator.iterate(Account.class, accounts::add);
+        assertEquals(10, accounts.size());
+        assertNotNull(accounts.get(0).getUserName());
+    }
+}
@@ -0,0 +1,66 @@
+package com.hyd.daotests;
+
+import com.hyd.dao.ColumnarResult;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author yiding_he
+ */
+public class ColumnarQueryTest extends InMemoryTestBase {
+
+    @BeforeClass
+    public static void createTable() {
+        dao.execute("create table columnar_sales(" +
+                "id bigint primary key, qty int, price decimal(10,2), region varchar(20), sale_time timestamp)");
+
+        for (int i = 0; i < 1000; i++) {
+            dao.execute("insert into columnar_sales values (?,?,?,?,?)",
+                    i, i % 10 == 0 ? null : i, i * 0.5, "region" + (i % 4), new Date(1000000L * i));
+        }
+    }
+
+    @Test
+    public void testQueryColumnar() {
+        ColumnarResult result = dao.queryColumnar("select * from columnar_sales order by id");
+        assertEquals(1000, result.getRowCount());
+        assertEquals(5, result.getColumnCount());
+
+        ColumnarResult.LongColumn id = result.getColumn("ID");
+        assertEquals(1000, id.getValues().length);
+        assertEquals(999L, id.getLong(999));
+
+        ColumnarResult.IntColumn qty = result.getColumn("qty");
+        assertTrue(qty.isNull(0));
+        assertNull(qty.get(0));
+        assertEquals(11, qty.getInt(11));
+
+        ColumnarResult.DecimalColumn price = result.getColumn("price");
+        assertEquals(new BigDecimal("5.50"), price.getBigDecimal(11));
+
+        ColumnarResult.StringColumn region = result.getColumn("region");
+        assertEquals("region3", region.getString(7));
+
+        ColumnarResult.DateColumn saleTime = result.getColumn("sale_time");
+        assertEquals(2000000L, saleTime.getTime(2));
+    }
+
+    @Test
+    public void testDecimalPrecision() {
+        // 超过 18 位或者有小数位的定点数不能当作 double 保存
+        ColumnarResult result = dao.queryColumnar(
+                "select cast(12345678901234567890 as decimal(20,0)) big_id, " +
+                        "cast(0.1 as decimal(10,2)) + cast(0.2 as decimal(10,2)) amount from columnar_sales where id = 1");
+
+        ColumnarResult.DecimalColumn bigId = result.getColumn("big_id");
+        assertEquals(new BigDecimal("12345678901234567890"), bigId.getBigDecimal(0));
+
+        ColumnarResult.DecimalColumn amount = result.getColumn("amount");
+        assertEquals(0, new BigDecimal("0.3").compareTo(amount.getBigDecimal(0)));
+    }
+}
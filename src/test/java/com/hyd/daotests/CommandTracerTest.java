@@ -0,0 +1,37 @@
+package com.hyd.daotests;
+
+import com.hyd.dao.log.CommandTracer;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author yiding_he
+ */
+public class CommandTracerTest extends InMemoryTestBase {
+
+    @Test
+    public void testHook() {
+        List<String> commands = new ArrayList<>();
+        List<String> callers = new ArrayList<>();
+
+        CommandTracer.Hook hook = (dsName, sql, params, caller) -> {
+            commands.add(dsName + ":" + sql);
+            callers.add(caller.get());
+        };
+
+        CommandTracer.addHook(hook);
+        try {
+            dao.queryFirst("select 1 from dual");
+        } finally {
+            CommandTracer.removeHook(hook);
+        }
+
+        assertEquals(1, commands.size());
+        assertEquals("h2:select 1 from dual", commands.get(0));
+        assertTrue(callers.get(0).startsWith(CommandTracerTest.class.getName() + ":"));
+    }
+}
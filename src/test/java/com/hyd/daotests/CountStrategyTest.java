@@ -0,0 +1,99 @@
+package com.hyd.daotests;
+
+import com.hyd.dao.CountStrategy;
+import com.hyd.dao.Page;
+import com.hyd.dao.Row;
+import com.hyd.dao.util.SqlTableExtractor;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Date;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author yiding_he
+ */
+public class CountStrategyTest extends InMemoryTestBase {
+
+    private static final String SQL = "select * from count_strategy_items order by id";
+
+    @Before
+    public void initTable() {
+        dao.execute("create table if not exists count_strategy_items(id int primary key, name varchar(20))");
+        dao.execute("delete from count_strategy_items");
+        for (int i = 0; i < 25; i++) {
+            dao.execute("insert into count_strategy_items values (?, ?)", i, "item" + i);
+        }
+    }
+
+    @Test
+    public void testNone() {
+        Page<Row> page = dao.queryPage(null, CountStrategy.NONE, SQL, 10, 1);
+        assertEquals(10, page.size());
+        assertTrue(page.hasNext());
+        assertFalse(page.isTotalExact());
+
+        Page<Row> last = dao.queryPage(null, CountStrategy.NONE, SQL, 10, 2);
+        assertEquals(5, last.size());
+        assertFalse(last.hasNext());
+        assertTrue(last.isTotalExact());
+        assertEquals(25, last.getTotal());
+    }
+
+    @Test
+    public void testCached() {
+        String sql = "select * from count_strategy_items where id < ? order by id";
+        Page<Row> first = dao.queryPage(null, CountStrategy.CACHED, sql, 10, 0, 20);
+        assertEquals(20, first.getTotal());
+        assertTrue(first.isTotalExact());
+
+        dao.execute("insert into count_strategy_items values (-1, 'new')");
+
+        Page<Row> second = dao.queryPage(null, CountStrategy.CACHED, sql, 10, 0, 20);
+        assertEquals(20, second.getTotal());
+        assertFalse(second.isTotalExact());
+    }
+
+    @Test
+    public void testCachedDateParams() {
+        // 同一秒内的两个时间参数，不能共用缓存的记录数
+        String sql = "select * from count_strategy_items where id < extract(millisecond from ?)";
+        long second = 1500000000000L;
+        Page<Row> first = dao.queryPage(null, CountStrategy.CACHED, sql, 10, 0, new Date(second + 5));
+        Page<Row> next = dao.queryPage(null, CountStrategy.CACHED, sql, 10, 0, new Date(second + 15));
+        assertEquals(5, first.getTotal());
+        assertEquals(15, next.getTotal());
+    }
+
+    @Test
+    public void testWindowFallback() {
+        Page<Row> page = dao.queryPage(null, CountStrategy.WINDOW, SQL, 10, 1);
+        assertEquals(10, page.size());
+        assertEquals(25, page.getTotal());
+        assertNull(page.get(0).get("window_total_count"));
+    }
+
+    @Test
+    public void testEstimate() {
+        Page<Row> page = dao.queryPage(null, CountStrategy.ESTIMATE, SQL, 10, 0);
+        assertEquals(10, page.size());
+        assertTrue(page.getTotal() > 0);
+
+        // 有条件的查询不能估算，使用精确的记录数
+        Page<Row> filtered = dao.queryPage(
+                null, CountStrategy.ESTIMATE, "select * from count_strategy_items where id >= ?", 10, 0, 20);
+        assertEquals(5, filtered.getTotal());
+        assertTrue(filtered.isTotalExact());
+    }
+
+    @Test
+    public void testExtractTable() {
+        assertEquals("t", SqlTableExtractor.getWholeTable("select * from t"));
+        assertEquals("s.t", SqlTableExtractor.getWholeTable("select a, b from s.t x order by a"));
+        assertNull(SqlTableExtractor.getWholeTable("select * from t where a = 1"));
+        assertNull(SqlTableExtractor.getWholeTable("select count(*) from t"));
+        assertNull(SqlTableExtractor.getWholeTable("select distinct a from t"));
+        assertNull(SqlTableExtractor.getWholeTable("select * from t join u on t.id = u.id"));
+    }
+}
@@ -0,0 +1,104 @@
+package com.hyd.daotests;
+
+import com.hyd.dao.DAO;
+import com.hyd.dao.DataSources;
+import com.hyd.dao.Row;
+import com.hyd.dao.database.dialect.Dialect;
+import com.hyd.dao.database.dialect.Dialects;
+import com.hyd.dao.database.dialect.SQLServer2012Dialect;
+import com.hyd.dao.util.DBCPDataSource;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author yiding_he
+ */
+public class DialectTest extends InMemoryTestBase {
+
+    @Test
+    public void testResolveDialect() throws Exception {
+        BasicDataSource dataSource = DBCPDataSource.newH2MemDataSource();
+        try (Connection connection = dataSource.getConnection()) {
+            Dialect dialect = Dialects.of(connection);
+            assertEquals("H2", dialect.getName());
+            assertSame(dialect, Dialects.byName("h2"));
+        } finally {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    public void testPagingWithDialect() {
+        dao.execute("create table dialect_paging(id int primary key)");
+        for (int i = 0; i < 20; i++) {
+            dao.execute("insert into dialect_paging values (?)", i);
+        }
+
+        assertEquals(20, dao.count("select count(*) from dialect_paging"));
+        assertEquals(5, dao.queryRange("select * from dialect_paging order by id", 5, 10).size());
+    }
+
+    @Test
+    public void testDefaultRangedSql() throws Exception {
+        BasicDataSource dataSource = DBCPDataSource.newH2MemDataSource();
+        DataSources dataSources = new DataSources();
+        dataSources.setDataSource("default_dialect", dataSource);
+        dataSources.setDialect("default_dialect", Dialects.DEFAULT);
+        DAO defaultDao = dataSources.getDAO("default_dialect");
+
+        try {
+            defaultDao.execute("create table default_dialect_paging(id int primary key)");
+            for (int i = 0; i < 20; i++) {
+                defaultDao.execute("insert into default_dialect_paging values (?)", i);
+            }
+
+            String sql = "select * from default_dialect_paging order by id";
+            assertTrue(Dialects.DEFAULT.getRangedSql(sql, 5, 10).endsWith("limit 5 offset 5"));
+
+            List<Row> rows = defaultDao.queryRange(sql, 5, 10);
+            assertEquals(5, rows.size());
+            assertEquals(5, rows.get(0).getIntegerObject("id").intValue());
+        } finally {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    public void testSqlServer2012RangedSql() {
+        Dialect dialect = new SQLServer2012Dialect();
+
+        assertEquals("select * from t order by id offset 10 rows fetch next 5 rows only",
+                dialect.getRangedSql("select * from t order by id", 10, 15));
+
+        assertEquals("select * from t order by (select null) offset 0 rows fetch next 5 rows only",
+                dialect.getRangedSql("select * from t", 0, 5));
+
+        assertEquals("select * from (select top 3 * from t order by id) x " +
+                        "order by (select null) offset 0 rows fetch next 5 rows only",
+                dialect.getRangedSql("select * from (select top 3 * from t order by id) x", 0, 5));
+
+        assertEquals("select [order by] from t order by (select null) offset 0 rows fetch next 5 rows only",
+                dialect.getRangedSql("select [order by] from t", 0, 5));
+
+        // top 和 offset 不能同时出现，也不能有两个 offset，这时返回 null 由结果集跳过记录
+        assertNull(dialect.getRangedSql("select top 100 * from t order by id", 0, 5));
+        assertNull(dialect.getRangedSql("select distinct TOP (10) id from t", 0, 5));
+        assertNull(dialect.getRangedSql("select * from t order by id offset 10 rows fetch next 20 rows only", 0, 5));
+        assertNull(dialect.getRangedSql("select * from t order by id\noffset 10 rows", 0, 5));
+    }
+
+    @Test
+    public void testSqlServerCountSql() {
+        Dialect dialect = new SQLServer2012Dialect();
+
+        assertEquals("select count(*) cnt from (select * from t where id in (select id from s order by id) ) count_wrapper",
+                dialect.getCountSql("select * from t where id in (select id from s order by id) order by id desc"));
+        assertEquals("select count(*) cnt from (select * from t order by id offset 10 rows) count_wrapper",
+                dialect.getCountSql("select * from t order by id offset 10 rows"));
+    }
+}
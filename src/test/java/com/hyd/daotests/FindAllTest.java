@@ -0,0 +1,81 @@
+package com.hyd.daotests;
+
+import com.hyd.dao.BatchCommand;
+import com.hyd.dao.DAOException;
+import com.hyd.dao.Row;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author yiding_he
+ */
+public class FindAllTest extends InMemoryTestBase {
+
+    @BeforeClass
+    public static void initTable() {
+        dao.execute("create table find_all_items(id int primary key, name varchar(20))");
+
+        BatchCommand command = new BatchCommand("insert into find_all_items values (?, ?)");
+        for (int i = 0; i < 2500; i++) {
+            command.addParams(i, "item" + i);
+        }
+        dao.execute(command);
+
+        dao.execute("create table find_all_composite(id1 int, id2 int, name varchar(20), primary key (id1, id2))");
+    }
+
+    @Test
+    public void testFindAll() {
+        // 超过 1000 个主键，需要分批查询；包含不存在和重复的主键
+        List<Integer> keys = new ArrayList<>();
+        for (int i = 2599; i >= 0; i--) {
+            keys.add(i);
+        }
+        keys.add(10);
+
+        Map<Integer, TestItem> items = dao.findAll(TestItem.class, "find_all_items", keys);
+        assertEquals(2500, items.size());
+        assertEquals(Integer.valueOf(2499), items.keySet().iterator().next());
+        assertEquals("item10", items.get(10).getName());
+        assertNull(items.get(2500));
+
+        Map<Long, Row> rows = dao.findAll(null, "find_all_items", Arrays.asList(3L, 1L, 2L));
+        assertEquals(Arrays.asList(3L, 1L, 2L), new ArrayList<>(rows.keySet()));
+        assertEquals("item1", rows.get(1L).getString("name"));
+    }
+
+    @Test
+    public void testExistsAll() {
+        assertTrue(dao.existsAll("find_all_items", Arrays.asList(1, 2, 1500, 2499)));
+        assertFalse(dao.existsAll("find_all_items", Arrays.asList(1, 2, 2500)));
+        assertTrue(dao.existsAll("find_all_items", new ArrayList<>()));
+    }
+
+    @Test
+    public void testStringKeys() {
+        // 主键字段是数字，而调用者传入的是字符串
+        Map<String, Row> rows = dao.findAll(Row.class, "find_all_items", Arrays.asList("2", "1", "01", "2500"));
+        assertEquals(Arrays.asList("2", "1"), new ArrayList<>(rows.keySet()));
+        assertEquals("item2", rows.get("2").getString("name"));
+
+        assertTrue(dao.existsAll("find_all_items", Arrays.asList("1", "2", 3)));
+        assertFalse(dao.existsAll("find_all_items", Arrays.asList("1", "2500")));
+    }
+
+    @Test(expected = DAOException.class)
+    public void testFindAllCompositeKey() {
+        dao.findAll(null, "find_all_composite", Arrays.asList(1, 2));
+    }
+
+    @Test(expected = DAOException.class)
+    public void testExistsAllCompositeKey() {
+        dao.existsAll("find_all_composite", Arrays.asList(1, 2));
+    }
+}
@@ -0,0 +1,48 @@
+package com.hyd.daotests;
+
+import com.hyd.dao.BatchProgress;
+import com.hyd.dao.IteratorBatchCommand;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author yiding_he
+ */
+public class IteratorBatchTest extends InMemoryTestBase {
+
+    @BeforeClass
+    public static void createTable() {
+        dao.execute("create table iterator_batch_test(id int primary key, name varchar(20))");
+    }
+
+    @Test
+    public void testExecuteInChunks() {
+        Iterator<List<Object>> params = IntStream.range(0, 2500)
+                .mapToObj(i -> Arrays.<Object>asList(i, "name" + i))
+                .iterator();
+
+        List<BatchProgress> progresses = new ArrayList<>();
+        IteratorBatchCommand command = new IteratorBatchCommand(
+                "insert into iterator_batch_test values(?,?)", params, 1000);
+        command.setProgressListener(progresses::add);
+
+        assertEquals(2500, dao.execute(command));
+        assertEquals(2500, dao.count("select count(*) from iterator_batch_test"));
+
+        // 两批满 1000 条，最后一批 500 条
+        assertEquals(3, progresses.size());
+        assertEquals(1000, progresses.get(0).getChunkRows());
+        assertEquals(500, progresses.get(2).getChunkRows());
+        assertEquals(3, progresses.get(2).getChunk());
+        assertEquals(2500, progresses.get(2).getTotalRows());
+        assertTrue(progresses.get(2).getRowsPerSecond() > 0);
+    }
+}
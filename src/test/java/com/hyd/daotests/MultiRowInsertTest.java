@@ -0,0 +1,38 @@
+package com.hyd.daotests;
+
+import com.hyd.dao.InsertMode;
+import com.hyd.dao.Row;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author yiding_he
+ */
+public class MultiRowInsertTest extends InMemoryTestBase {
+
+    @BeforeClass
+    public static void initTable() {
+        dao.execute("create table multi_row_items(id int primary key, name varchar(20))");
+    }
+
+    @Test
+    public void testInsertMultiRow() {
+        // 2500 行拆分为两条满 1000 行的语句和一条 500 行的语句
+        List<TestItem> items = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            items.add(new TestItem(i, i % 10 == 0 ? null : "item" + i));
+        }
+
+        dao.insert(items, "multi_row_items", InsertMode.MULTI_ROW);
+
+        assertEquals(2500, dao.count("select count(*) from multi_row_items"));
+        Row row = dao.queryFirst("select * from multi_row_items where id=?", 2499);
+        assertEquals("item2499", row.getString("name"));
+        assertNull(dao.queryFirst("select * from multi_row_items where id=?", 10).getString("name"));
+    }
+}
@@ -0,0 +1,54 @@
+package com.hyd.daotests;
+
+import com.hyd.dao.DAO;
+import com.hyd.dao.DataSources;
+import com.hyd.dao.NumericMode;
+import com.hyd.dao.Row;
+import com.hyd.dao.util.DBCPDataSource;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author yiding_he
+ */
+public class NumericModeTest {
+
+    private static DataSources dataSources = new DataSources();
+
+    @BeforeClass
+    public static void beforeClass() {
+        dataSources.setDataSource("h2", DBCPDataSource.newH2MemDataSource());
+        dataSources.setDataSource("h2-native", DBCPDataSource.newH2MemDataSource());
+        dataSources.setNumericMode("h2-native", NumericMode.NATIVE);
+
+        DAO dao = dataSources.getDAO("h2");
+        dao.execute("create table numeric_mode_test(id bigint primary key, qty int, ratio double)");
+        dao.execute("insert into numeric_mode_test values (?,?,?)", 1, 20, 0.5);
+    }
+
+    @Test
+    public void testBigDecimalMode() {
+        Row row = dataSources.getDAO("h2").queryFirst("select * from numeric_mode_test");
+        assertTrue(row.get("id") instanceof BigDecimal);
+        assertEquals(20, row.getInteger("qty", 0));
+        assertEquals(1, dataSources.getDAO("h2").count("select count(*) from numeric_mode_test"));
+    }
+
+    @Test
+    public void testNativeMode() {
+        DAO dao = dataSources.getDAO("h2-native");
+        Row row = dao.queryFirst("select * from numeric_mode_test");
+        assertEquals(Long.class, row.get("id").getClass());
+        assertEquals(Integer.class, row.get("qty").getClass());
+        assertEquals(Double.class, row.get("ratio").getClass());
+
+        assertEquals(1L, row.getLong("id", 0));
+        assertEquals(20L, row.getLong("qty", 0));
+        assertEquals(0.5, row.getDouble("ratio", 0), 0.0001);
+        assertEquals(1, dao.count("select count(*) from numeric_mode_test"));
+    }
+}
@@ -0,0 +1,113 @@
+package com.hyd.daotests;
+
+import com.hyd.dao.Row;
+import com.hyd.dao.ScanOptions;
+import com.hyd.dao.ScanResult;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author yiding_he
+ */
+public class ParallelScanTest extends InMemoryTestBase {
+
+    private static final int COUNT = 5000;
+
+    @BeforeClass
+    public static void createTable() {
+        dao.execute("create table scan_numbers(id int primary key, code varchar(20))");
+        dao.execute("create table scan_codes(code varchar(20) primary key)");
+        dao.execute("create table scan_nullable(id int primary key, score int)");
+        for (int i = 0; i < COUNT; i++) {
+            dao.execute("insert into scan_numbers values (?,?)", i, String.format("c%05d", i));
+            dao.execute("insert into scan_codes values (?)", String.format("c%05d", i));
+            dao.execute("insert into scan_nullable values (?,?)", i, i % 10 == 0 ? null : i);
+        }
+    }
+
+    @Test
+    public void testUnordered() {
+        Set<Long> ids = new HashSet<>();
+        ScanResult result = dao.parallelScan("scan_numbers", null, 4, Row.class,
+                row -> ids.add(row.getLongObject("id")));
+
+        assertFalse(result.hasErrors());
+        assertEquals(4, result.getPartitions().size());
+        assertEquals(COUNT, result.getRowCount());
+        assertEquals(COUNT, ids.size());
+    }
+
+    @Test
+    public void testOrdered() {
+        List<Long> ids = new ArrayList<>();
+        ScanResult result = dao.parallelScan("scan_numbers", "id", 4, Row.class,
+                row -> ids.add(row.getLongObject("id")), ScanOptions.ORDERED.bufferSize(10).parallelism(2));
+
+        assertEquals(COUNT, ids.size());
+
+        // 各分区的记录按分区顺序出现
+        int lastPartition = 0;
+        for (Long id : ids) {
+            int partition = 0;
+            for (ScanResult.Partition p : result.getPartitions()) {
+                if (p.getLowerBound() != null && id >= ((BigDecimal) p.getLowerBound()).longValue()) {
+                    partition = p.getIndex();
+                }
+            }
+            assertTrue(partition >= lastPartition);
+            lastPartition = partition;
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testOrderedMorePartitionsThanConnections() {
+        // 分区数超过连接池大小（DBCP 缺省为 8），缓冲区很小，后面的分区不能占满连接
+        List<Long> ids = new ArrayList<>();
+        ScanResult result = dao.parallelScan("scan_numbers", "id", 20, Row.class,
+                row -> ids.add(row.getLongObject("id")), ScanOptions.ORDERED.bufferSize(1));
+
+        assertFalse(result.hasErrors());
+        assertEquals(COUNT, ids.size());
+    }
+
+    @Test
+    public void testStringKey() {
+        Set<String> codes = new HashSet<>();
+        ScanResult result = dao.parallelScan("scan_codes", null, 3, Row.class, row -> codes.add(row.getString("code")));
+
+        assertEquals(3, result.getPartitions().size());
+        assertEquals(COUNT, codes.size());
+    }
+
+    @Test
+    public void testConsumerFailure() {
+        try {
+            dao.parallelScan("scan_numbers", "id", 4, Row.class, row -> {
+                throw new IllegalStateException("stop");
+            });
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testNullKeys() {
+        // 分区字段为 null 的记录在第一个分区中读取
+        Set<Long> ids = new HashSet<>();
+        ScanResult result = dao.parallelScan("scan_nullable", "score", 4, Row.class,
+                row -> ids.add(row.getLongObject("id")));
+
+        assertFalse(result.hasErrors());
+        assertEquals(COUNT, result.getRowCount());
+        assertEquals(COUNT, ids.size());
+    }
+}
@@ -0,0 +1,154 @@
+package com.hyd.daotests;
+
+import com.hyd.dao.DAO;
+import com.hyd.dao.DataSources;
+import com.hyd.dao.Row;
+import com.hyd.dao.cache.EntityCache;
+import com.hyd.dao.cache.QueryCache;
+import com.hyd.dao.util.DBCPDataSource;
+import com.hyd.dao.util.SqlTableExtractor;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author yiding_he
+ */
+public class QueryCacheTest {
+
+    private static BasicDataSource dataSource;
+
+    private static DataSources dataSources;
+
+    private static DAO dao;
+
+    private QueryCache queryCache;
+
+    private EntityCache entityCache;
+
+    @BeforeClass
+    public static void beforeClass() {
+        dataSource = DBCPDataSource.newH2MemDataSource();
+        dataSources = new DataSources();
+        dataSources.setDataSource("cached", dataSource);
+        dao = dataSources.getDAO("cached");
+
+        dao.execute("create table cache_config(id int primary key, value varchar(20))");
+    }
+
+    @AfterClass
+    public static void afterClass() throws Exception {
+        dataSource.close();
+    }
+
+    @Before
+    public void setUp() {
+        dataSources.setQueryCache("cached", null);
+        dataSources.setEntityCache("cached", null);
+        dao.execute("delete from cache_config");
+        dao.execute("insert into cache_config values (1, 'a')");
+
+        queryCache = new QueryCache(100, 60000);
+        dataSources.setQueryCache("cached", queryCache);
+
+        entityCache = new EntityCache(100, 60000, EntityCache.ValueStrength.SOFT);
+        dataSources.setEntityCache("cached", entityCache);
+    }
+
+    @Test
+    public void testEntityCache() {
+        Row row = (Row) dao.find(null, "cache_config", 1);
+        assertSame(row, dao.find(null, "CACHE_CONFIG", 1L));
+        assertEquals(1, entityCache.getHitCount());
+
+        dao.execute("update cache_config set value = ? where id = ?", "b", 1);
+        assertEquals("b", ((Row) dao.find(null, "cache_config", 1)).getString("value"));
+
+        // 事务中不使用缓存，能读到本事务的修改
+        DAO.runTransaction(() -> {
+            dao.execute("update cache_config set value = ? where id = ?", "t", 1);
+            assertEquals("t", ((Row) dao.find(null, "cache_config", 1)).getString("value"));
+        });
+        assertEquals("t", ((Row) dao.find(null, "cache_config", 1)).getString("value"));
+
+        dao.deleteByKey(1, "cache_config");
+        assertNull(dao.find(null, "cache_config", 1));
+    }
+
+    @Test
+    public void testEntityCacheNonFiniteKey() {
+        // NaN 和无穷大不能转换为 BigDecimal，按原值缓存
+        assertEquals("nan", entityCache.get("cached", "cache_config", Double.NaN, String.class, () -> "nan"));
+        assertEquals("nan", entityCache.get("cached", "cache_config", Double.NaN, String.class, () -> "other"));
+        assertEquals("inf", entityCache.get("cached", "cache_config", Float.POSITIVE_INFINITY, String.class, () -> "inf"));
+        assertEquals(1, entityCache.getHitCount());
+    }
+
+    @Test
+    public void testHitAndInvalidate() {
+        String sql = "select * from cache_config where id = ?";
+        assertEquals("a", dao.queryFirst(sql, 1).getString("value"));
+        assertEquals("a", dao.queryFirst(sql, 1).getString("value"));
+        assertEquals(1, queryCache.getHitCount());
+        assertEquals(1, queryCache.getMissCount());
+
+        dao.execute("update cache_config set value = ? where id = ?", "b", 1);
+        assertEquals("b", dao.queryFirst(sql, 1).getString("value"));
+        assertEquals(2, queryCache.getMissCount());
+
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", 2);
+        row.put("value", "c");
+        dao.insert(row, "CACHE_CONFIG");
+        assertEquals(2, dao.query("select * from cache_config").size());
+
+        dao.deleteByKey(2, "cache_config");
+        assertEquals(1, dao.query("select * from cache_config").size());
+    }
+
+    @Test
+    public void testTransaction() {
+        String sql = "select * from cache_config where id = ?";
+        dao.queryFirst(sql, 1);
+
+        DAO.runTransaction(() -> {
+            dao.execute("update cache_config set value = ? where id = ?", "t", 1);
+            assertEquals("t", dao.queryFirst(sql, 1).getString("value"));
+        });
+
+        assertEquals("t", dao.queryFirst(sql, 1).getString("value"));
+        assertEquals(0, queryCache.getHitCount());
+    }
+
+    @Test
+    public void testUncacheable() {
+        dao.queryFirst("select 1 from dual");
+        dao.queryFirst("select 1 from dual");
+
+        queryCache.setCacheableTables("other_table");
+        dao.query("select * from cache_config");
+
+        assertEquals(0, queryCache.getHitCount() + queryCache.getMissCount());
+    }
+
+    @Test
+    public void testExtractTables() {
+        assertEquals(new HashSet<>(Arrays.asList("a", "b", "c")), SqlTableExtractor.getTables(
+                "select * from s.a x, \"B\" y left join c on y.id = c.id where x.id in (select id from a)"));
+        assertEquals(new HashSet<>(Arrays.asList("t")), SqlTableExtractor.getTables("update t set a = 1, b = 2"));
+        assertEquals(new HashSet<>(Arrays.asList("t")), SqlTableExtractor.getTables("insert into t(a, b) values (?, ?)"));
+        assertEquals(new HashSet<>(Arrays.asList("t", "s")), SqlTableExtractor.getTables(
+                "merge into t using s on (t.id = s.id) when matched then update set t.v = s.v"));
+        assertNull(SqlTableExtractor.getTables("drop table if exists t"));
+        assertNull(SqlTableExtractor.getTables("select 1"));
+    }
+}
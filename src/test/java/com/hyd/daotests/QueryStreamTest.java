@@ -0,0 +1,57 @@
+package com.hyd.daotests;
+
+import com.hyd.dao.Row;
+import com.hyd.dao.SQL;
+import com.hyd.dao.snapshot.Snapshot;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author yiding_he
+ */
+public class QueryStreamTest extends InMemoryTestBase {
+
+    @BeforeClass
+    public static void createTable() {
+        dao.execute("create table stream_items(id int primary key, name varchar(100))");
+        for (int i = 0; i < 500; i++) {
+            dao.execute("insert into stream_items values (?,?)", i, "item" + i);
+        }
+    }
+
+    @Test
+    public void testQueryStream() {
+        try (Stream<TestItem> items = dao.queryStream(TestItem.class, "select * from stream_items where id >= ?", 100)) {
+            List<String> names = items.filter(item -> item.getId() % 100 == 0)
+                    .map(TestItem::getName).collect(Collectors.toList());
+            assertEquals(4, names.size());
+            assertEquals("item100", names.get(0));
+        }
+
+        try (Stream<Row> rows = dao.queryStream(SQL.Select("*").From("stream_items").OrderBy("id desc"))) {
+            assertEquals("item499", rows.findFirst().map(row -> row.getString("name")).orElse(null));
+        }
+
+        assertEquals(0, Snapshot.getInstance("h2").getExecutorInfos().length);
+    }
+
+    @Test
+    public void testCloseOnException() {
+        try {
+            dao.queryStream("select * from stream_items").forEach(row -> {
+                throw new IllegalStateException("stop");
+            });
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        assertEquals(0, Snapshot.getInstance("h2").getExecutorInfos().length);
+    }
+}
@@ -0,0 +1,58 @@
+package com.hyd.daotests;
+
+import com.hyd.dao.Row;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author yiding_he
+ */
+public class RowTest extends InMemoryTestBase {
+
+    @BeforeClass
+    public static void initTables() {
+        dao.execute("create table row_test_a(id int primary key, name varchar(20))");
+        dao.execute("create table row_test_b(id int primary key)");
+        dao.execute("insert into row_test_a values(1, 'a')");
+        dao.execute("insert into row_test_b values(2)");
+    }
+
+    @Test
+    public void testRepeatedLabel() {
+        // 重名的字段以最后一个为准
+        Row row = dao.queryFirst("select a.id, b.id, a.name from row_test_a a, row_test_b b");
+
+        assertEquals(Arrays.asList("id", "name"), Arrays.asList(row.keySet().toArray()));
+        assertEquals(2, row.size());
+        assertEquals(2, row.getIntegerObject("id").intValue());
+
+        Map<String, Object> copy = new HashMap<>(row);
+        assertEquals(row.get("id"), copy.get("id"));
+
+        row.remove("id");
+        assertEquals(1, row.size());
+        assertFalse(row.containsKey("id"));
+    }
+
+    @Test
+    public void testClone() {
+        Row row = dao.queryFirst("select * from row_test_a");
+        row.put("extra", "x");
+
+        Row clone = row.clone();
+        clone.put("name", "b");
+        clone.remove("extra");
+
+        assertEquals("a", row.getString("name"));
+        assertEquals("x", row.getString("extra"));
+        assertEquals("b", clone.getString("name"));
+        assertFalse(clone.containsKey("extra"));
+        assertFalse(row.containsKey(null));
+    }
+}
@@ -0,0 +1,89 @@
+package com.hyd.daotests;
+
+import com.hyd.dao.DAOException;
+import com.hyd.dao.Row;
+import com.hyd.dao.SQL;
+import com.hyd.dao.SeekPage;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author yiding_he
+ */
+public class SeekPaginationTest extends InMemoryTestBase {
+
+    @BeforeClass
+    public static void createTable() {
+        dao.execute("create table seek_items(id int primary key, grp int, name varchar(20))");
+        for (int i = 0; i < 1000; i++) {
+            dao.execute("insert into seek_items values (?,?,?)", i, i % 5, "item" + i);
+        }
+    }
+
+    @Test
+    public void testSeekById() {
+        List<Long> ids = new ArrayList<>();
+        String token = null;
+        int pages = 0;
+
+        do {
+            SeekPage<Row> page = dao.querySeek(SQL.Select("*").From("seek_items"), "id", 30, token);
+            page.forEach(row -> ids.add(row.getLongObject("id")));
+            token = page.getNextToken();
+            pages++;
+        } while (token != null);
+
+        assertEquals(34, pages);
+        assertEquals(1000, ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals(i, ids.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void testSeekByMultipleKeys() {
+        List<TestItem> items = new ArrayList<>();
+        String token = null;
+
+        do {
+            SQL.Select select = SQL.Select("*").From("seek_items").Where("grp = ?", 1).Or("grp = ?", 2);
+            SeekPage<TestItem> page = dao.querySeek(TestItem.class, select, "grp desc, id", 7, token);
+            items.addAll(page);
+            token = page.getNextToken();
+        } while (token != null);
+
+        assertEquals(400, items.size());
+        assertEquals(2, items.get(0).getGrp());
+        assertEquals(2, items.get(0).getId());
+        assertEquals(1, items.get(399).getGrp());
+        assertEquals(996, items.get(399).getId());
+    }
+
+    @Test(expected = DAOException.class)
+    public void testInvalidToken() {
+        SeekPage<Row> page = dao.querySeek(SQL.Select("*").From("seek_items"), "id", 10, null);
+        dao.querySeek(SQL.Select("*").From("seek_items"), "id desc", 10, page.getNextToken());
+    }
+
+    @Test(expected = DAOException.class)
+    public void testCraftedToken() throws IOException {
+        // 值的个数为 0xFF，不能当作负数处理
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bos);
+        out.writeByte(1);
+        out.writeUTF("id");
+        out.writeByte(0xFF);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bos.toByteArray());
+
+        dao.querySeek(SQL.Select("*").From("seek_items"), "id", 10, token);
+    }
+}
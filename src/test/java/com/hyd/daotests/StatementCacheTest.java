@@ -0,0 +1,49 @@
+package com.hyd.daotests;
+
+import com.hyd.dao.DAO;
+import com.hyd.dao.snapshot.ExecutorInfo;
+import com.hyd.dao.snapshot.Snapshot;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author yiding_he
+ */
+public class StatementCacheTest extends InMemoryTestBase {
+
+    @BeforeClass
+    public static void createTable() {
+        dao.execute("create table statement_cache_test(id int primary key, name varchar(20))");
+    }
+
+    @Test
+    public void testStatementReusedInTransaction() {
+        Snapshot snapshot = Snapshot.getInstance("h2");
+        long hits = snapshot.getStatementCacheHits();
+        long misses = snapshot.getStatementCacheMisses();
+        AtomicReference<ExecutorInfo> infoRef = new AtomicReference<>();
+
+        DAO.runTransaction(() -> {
+            for (int i = 0; i < 10; i++) {
+                dao.execute("insert into statement_cache_test values(?,?)", i, "name" + i);
+            }
+            for (int i = 0; i < 10; i++) {
+                assertNotNull(dao.queryFirst("select * from statement_cache_test where id=?", i));
+            }
+            infoRef.set(Snapshot.getInstance("h2").getExecutorInfos()[0]);
+        });
+
+        ExecutorInfo info = infoRef.get();
+        assertEquals(2, info.getStatementCacheMisses());
+        assertEquals(18, info.getStatementCacheHits());
+
+        // Executor 关闭后，数据源的快照中仍然保留命中次数
+        assertEquals(hits + 18, snapshot.getStatementCacheHits());
+        assertEquals(misses + 2, snapshot.getStatementCacheMisses());
+        assertEquals(10, dao.count("select count(*) from statement_cache_test"));
+    }
+}
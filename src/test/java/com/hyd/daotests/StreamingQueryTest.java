@@ -0,0 +1,49 @@
+package com.hyd.daotests;
+
+import com.hyd.dao.QueryOptions;
+import com.hyd.dao.database.RowIterator;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author yiding_he
+ */
+public class StreamingQueryTest extends InMemoryTestBase {
+
+    @BeforeClass
+    public static void createTable() {
+        dao.execute("create table streaming_items(id int primary key, name varchar(100))");
+        for (int i = 0; i < 3000; i++) {
+            dao.execute("insert into streaming_items values (?,?)", i, "item" + i);
+        }
+    }
+
+    private static int countRows(RowIterator iterator) {
+        int count = 0;
+        try (RowIterator it = iterator) {
+            while (it.next()) {
+                assertEquals(count, it.getRow().getIntegerObject("id").intValue());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void testDefaultStreaming() {
+        assertEquals(3000, countRows(dao.queryIterator("select * from streaming_items order by id")));
+        assertEquals(2000, countRows(dao.queryIterator("select * from streaming_items where id < ? order by id", 2000)));
+    }
+
+    @Test
+    public void testOptions() {
+        assertEquals(3000, countRows(dao.queryIterator(
+                QueryOptions.streaming(50), "select * from streaming_items order by id")));
+        assertEquals(3000, countRows(dao.queryIterator(
+                QueryOptions.fetchSize(50), "select * from streaming_items order by id")));
+        assertEquals(3000, countRows(dao.queryIterator(
+                QueryOptions.DRIVER_DEFAULT, "select * from streaming_items order by id")));
+    }
+}
@@ -0,0 +1,63 @@
+package com.hyd.daotests;
+
+/**
+ * 测试用例共用的记录类型，不同的测试表只用到其中部分字段
+ *
+ * @author yiding_he
+ */
+public class TestItem {
+
+    private long id;
+
+    private String name;
+
+    private String remark;
+
+    private int grp;
+
+    public TestItem() {
+    }
+
+    public TestItem(long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public TestItem(long id, String name, String remark) {
+        this.id = id;
+        this.name = name;
+        this.remark = remark;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getRemark() {
+        return remark;
+    }
+
+    public void setRemark(String remark) {
+        this.remark = remark;
+    }
+
+    public int getGrp() {
+        return grp;
+    }
+
+    public void setGrp(int grp) {
+        this.grp = grp;
+    }
+}
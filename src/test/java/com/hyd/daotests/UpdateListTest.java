@@ -0,0 +1,103 @@
+package com.hyd.daotests;
+
+import com.hyd.dao.BatchCommand;
+import com.hyd.dao.Row;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author yiding_he
+ */
+public class UpdateListTest extends InMemoryTestBase {
+
+    @BeforeClass
+    public static void initTable() {
+        dao.execute("create table update_items(id int primary key, name varchar(20), remark varchar(20))");
+    }
+
+    @Before
+    public void resetRows() {
+        dao.execute("delete from update_items");
+        BatchCommand command = new BatchCommand("insert into update_items values (?, ?, ?)");
+        for (int i = 0; i < 10; i++) {
+            command.addParams(i, "name" + i, "remark" + i);
+        }
+        dao.execute(command);
+    }
+
+    @Test
+    public void testUpdate() {
+        assertEquals(1, dao.update(new TestItem(1, "new1", null), "update_items"));
+
+        Row row = dao.queryFirst("select * from update_items where id=?", 1);
+        assertEquals("new1", row.getString("name"));
+        assertNull(row.getString("remark"));
+
+        assertEquals(0, dao.update(new TestItem(100, "new100", null), "update_items"));
+    }
+
+    @Test
+    public void testUpdateList() {
+        List<TestItem> items = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            items.add(new TestItem(i, "new" + i, "new remark" + i));
+        }
+
+        assertEquals(5, dao.updateList(items, "update_items"));
+        assertEquals("new remark4", dao.queryFirst("select * from update_items where id=?", 4).getString("remark"));
+        assertEquals("name5", dao.queryFirst("select * from update_items where id=?", 5).getString("name"));
+    }
+
+    @Test
+    public void testUpdateNonNullOnly() {
+        List<TestItem> items = new ArrayList<>();
+        items.add(new TestItem(1, "new1", null));
+        items.add(new TestItem(2, null, "new remark2"));
+        items.add(new TestItem(3, "new3", null));
+        items.add(new TestItem(4, null, null));     // 没有要更新的字段
+
+        assertEquals(3, dao.updateList(items, "update_items", true));
+
+        Row row1 = dao.queryFirst("select * from update_items where id=?", 1);
+        assertEquals("new1", row1.getString("name"));
+        assertEquals("remark1", row1.getString("remark"));
+
+        Row row2 = dao.queryFirst("select * from update_items where id=?", 2);
+        assertEquals("name2", row2.getString("name"));
+        assertEquals("new remark2", row2.getString("remark"));
+
+        assertEquals("name4", dao.queryFirst("select * from update_items where id=?", 4).getString("name"));
+    }
+
+    @Test
+    public void testUpdatePartialMap() {
+        // Map 中没有的字段保持不变，明确为 null 的字段更新为 null
+        Map<String, Object> map1 = new HashMap<>();
+        map1.put("id", 1);
+        map1.put("name", "new1");
+
+        Map<String, Object> map2 = new HashMap<>();
+        map2.put("ID", 2);
+        map2.put("REMARK", null);
+
+        assertEquals(1, dao.update(map1, "update_items"));
+        assertEquals(2, dao.updateList(Arrays.asList(map1, map2), "update_items"));
+
+        Row row1 = dao.queryFirst("select * from update_items where id=?", 1);
+        assertEquals("new1", row1.getString("name"));
+        assertEquals("remark1", row1.getString("remark"));
+
+        Row row2 = dao.queryFirst("select * from update_items where id=?", 2);
+        assertEquals("name2", row2.getString("name"));
+        assertNull(row2.getString("remark"));
+    }
+}
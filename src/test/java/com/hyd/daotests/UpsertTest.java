@@ -0,0 +1,54 @@
+package com.hyd.daotests;
+
+import com.hyd.dao.database.dialect.MySqlDialect;
+import com.hyd.dao.database.dialect.OracleDialect;
+import com.hyd.dao.database.dialect.SQLiteDialect;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author yiding_he
+ */
+public class UpsertTest extends InMemoryTestBase {
+
+    @BeforeClass
+    public static void initTable() {
+        dao.execute("create table upsert_items(id int primary key, name varchar(20))");
+    }
+
+    @Test
+    public void testUpsert() {
+        dao.upsert(new TestItem(1, "a"), "upsert_items");
+        dao.upsert(new TestItem(1, "b"), "upsert_items");
+        assertEquals("b", dao.queryFirst("select * from upsert_items where id=?", 1).getString("name"));
+
+        List<TestItem> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            items.add(new TestItem(i, "item" + i));
+        }
+        dao.upsertList(items, "upsert_items");
+
+        assertEquals(100, dao.count("select count(*) from upsert_items"));
+        assertEquals("item1", dao.queryFirst("select * from upsert_items where id=?", 1).getString("name"));
+    }
+
+    @Test
+    public void testUpsertSql() {
+        String[] columns = {"id", "name"};
+        String[] keys = {"id"};
+
+        assertEquals("insert into `t`(`id`,`name`) values (?,?) on duplicate key update `id`=values(`id`),`name`=values(`name`)",
+                new MySqlDialect().getUpsertSql("t", columns, keys));
+        assertEquals("insert into t(id,name) values (?,?) on conflict(id) do update set name=excluded.name",
+                new SQLiteDialect().getUpsertSql("t", columns, keys));
+        assertEquals("merge into t t using (select ? \"ID\",? \"NAME\" from dual) s on (t.\"ID\"=s.\"ID\") " +
+                        "when matched then update set t.\"NAME\"=s.\"NAME\" " +
+                        "when not matched then insert (\"ID\",\"NAME\") values (s.\"ID\",s.\"NAME\")",
+                new OracleDialect().getUpsertSql("t", columns, keys));
+    }
+}